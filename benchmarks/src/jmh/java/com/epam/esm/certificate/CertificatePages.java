@@ -0,0 +1,36 @@
+package com.epam.esm.certificate;
+
+import org.springframework.hateoas.PagedModel;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Certificate pages shaped like the ones returned by the certificate search.
+ */
+final class CertificatePages {
+
+    private CertificatePages() {
+    }
+
+    static List<CertificateDto> certificates(int count) {
+        List<CertificateDto> certificates = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            certificates.add(new CertificateDto(id, "certificate " + id, "description " + id,
+                    new BigDecimal("12.50"), LocalDateTime.of(2020, 7, 1, 12, 0),
+                    LocalDateTime.of(2020, 7, 2, 12, 0), 30, CertificateStatus.ACTIVE,
+                    Arrays.asList("tag " + id, "gift")));
+        }
+        return certificates;
+    }
+
+    /**
+     * The second of ten full pages.
+     */
+    static PagedModel<CertificateDto> page(int pageSize) {
+        return PagedModel.of(certificates(pageSize), new PagedModel.PageMetadata(pageSize, 2, pageSize * 10L));
+    }
+}
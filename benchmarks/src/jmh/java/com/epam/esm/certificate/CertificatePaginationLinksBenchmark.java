@@ -0,0 +1,83 @@
+package com.epam.esm.certificate;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.PagedModel;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+/**
+ * Links added to a certificate search page, the page and the item links. Links are built outside of
+ * a request, so the base URI comes from the link builder defaults instead of request headers.
+ * {@link #newPage()} is the cost of building the page alone, {@link #methodOnPaginationLinks()} builds
+ * the same links through link builder proxies, as before the links were built from templates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CertificatePaginationLinksBenchmark {
+    private static final String[] TAG_NAMES = {"gift", "sport"};
+    private static final String TEXT_PART = "spa";
+    private static final String ORDER_BY = "name";
+
+    @Param({"10", "50"})
+    int pageSize;
+
+    private CertificateHateoasUtil certificateHateoasUtil;
+
+    @Setup
+    public void setup() {
+        certificateHateoasUtil = new CertificateHateoasUtil();
+    }
+
+    @Benchmark
+    public PagedModel<CertificateDto> newPage() {
+        return CertificatePages.page(pageSize);
+    }
+
+    @Benchmark
+    public PagedModel<CertificateDto> createPaginationLinks() {
+        PagedModel<CertificateDto> page = CertificatePages.page(pageSize);
+        certificateHateoasUtil.createPaginationLinks(page, TAG_NAMES, TEXT_PART, ORDER_BY, null);
+        return page;
+    }
+
+    @Benchmark
+    public PagedModel<CertificateDto> methodOnPaginationLinks() {
+        PagedModel<CertificateDto> page = CertificatePages.page(pageSize);
+        PagedModel.PageMetadata metadata = page.getMetadata();
+        int curPage = (int) metadata.getNumber();
+        int size = (int) metadata.getSize();
+        page.add(methodOnLink(curPage + 1, size, "next"),
+                methodOnLink((int) metadata.getTotalPages(), size, "last"),
+                methodOnLink(curPage - 1, size, "prev"),
+                methodOnLink(curPage, size, "self"));
+        for (CertificateDto certificate : page.getContent()) {
+            certificate.add(linkTo(methodOn(CertificateController.class)
+                    .findById(certificate.getId(), null))
+                    .withSelfRel());
+            certificate.add(linkTo(methodOn(CertificateController.class)
+                    .findAllCertificateTags(certificate.getId()))
+                    .withRel("certificateTags"));
+        }
+        return page;
+    }
+
+    private static Link methodOnLink(int page, int size, String rel) {
+        String href = linkTo(methodOn(CertificateController.class)
+                .findCertificates(TAG_NAMES, TEXT_PART, ORDER_BY, page, size, null, null, null))
+                .toUriComponentsBuilder()
+                .toUriString();
+        return Link.of(href.replaceAll("\\{.*?}", ""), rel);
+    }
+}
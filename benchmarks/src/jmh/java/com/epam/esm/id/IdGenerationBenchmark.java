@@ -0,0 +1,90 @@
+package com.epam.esm.id;
+
+import com.epam.esm.certificate.Certificate;
+import com.epam.esm.tag.Tag;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserted tags per second with batched inserts of {@value #ROWS} tags per transaction,
+ * "shared-sequence" is the previous AUTO id generation and "pooled-lo" the {@link PooledLoSequenceGenerator}.
+ * <p>
+ * Runs against an in-memory H2 database by default, where a sequence call costs no network round trip,
+ * so the difference on Postgres is bigger. Pass -p jdbcUrl=jdbc:postgresql://host/db -p user= -p password=
+ * to measure on a scratch Postgres database, the benchmark creates and drops its tables.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class IdGenerationBenchmark {
+    private static final int ROWS = 1000;
+
+    @Param({"shared-sequence", "pooled-lo"})
+    public String idGeneration;
+    @Param({"jdbc:h2:mem:id-generation;DB_CLOSE_DELAY=-1"})
+    public String jdbcUrl;
+    @Param({"sa"})
+    public String user;
+    @Param({""})
+    public String password;
+
+    private SessionFactory sessionFactory;
+    private int transaction;
+
+    @Setup
+    public void setup() {
+        StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+                .applySetting(AvailableSettings.URL, jdbcUrl)
+                .applySetting(AvailableSettings.USER, user)
+                .applySetting(AvailableSettings.PASS, password)
+                .applySetting(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .applySetting(AvailableSettings.STATEMENT_BATCH_SIZE, 50)
+                .applySetting(AvailableSettings.ORDER_INSERTS, true)
+                .applySetting(AvailableSettings.USE_SECOND_LEVEL_CACHE, false)
+                .applySetting(PooledLoSequenceGenerator.ALLOCATION_SIZE, PooledLoSequenceGenerator.DEFAULT_ALLOCATION_SIZE)
+                .build();
+        sessionFactory = new MetadataSources(registry)
+                .addAnnotatedClass(Tag.class)
+                .addAnnotatedClass(Certificate.class)
+                .addAnnotatedClass(SharedSequenceTag.class)
+                .buildMetadata()
+                .buildSessionFactory();
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void insertTags() {
+        boolean pooledLo = "pooled-lo".equals(idGeneration);
+        try (Session session = sessionFactory.openSession()) {
+            session.beginTransaction();
+            for (int i = 0; i < ROWS; i++) {
+                String name = "tag " + transaction + " " + i;
+                session.persist(pooledLo ? new Tag(name) : new SharedSequenceTag(name));
+            }
+            session.getTransaction().commit();
+        }
+        transaction++;
+    }
+}
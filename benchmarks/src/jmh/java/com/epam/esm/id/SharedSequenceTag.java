@@ -0,0 +1,27 @@
+package com.epam.esm.id;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.*;
+
+/**
+ * Tag mapped with the previous id generation, one call of the shared hibernate_sequence per insert.
+ */
+@NoArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(name = "shared_sequence_tag")
+public class SharedSequenceTag {
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private long id;
+    @Column(name = "name", unique = true)
+    private String name;
+
+    public SharedSequenceTag(String name) {
+        this.name = name;
+    }
+}
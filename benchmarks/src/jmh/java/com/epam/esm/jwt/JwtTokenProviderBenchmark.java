@@ -0,0 +1,75 @@
+package com.epam.esm.jwt;
+
+import com.epam.esm.user.Role;
+import com.epam.esm.user.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.core.Authentication;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token checks done on every authenticated request. The same token is verified on every call,
+ * so the numbers are for tokens already seen. {@link #parseNewToken()} cycles through more tokens than
+ * its cache holds, it is the cost of a token's first request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtTokenProviderBenchmark {
+    private static final int NEW_TOKENS = 10_000;
+
+    private JwtTokenProvider jwtTokenProvider;
+    private JwtTokenProvider uncachedJwtTokenProvider;
+    private String token;
+    private String[] newTokens;
+    private int nextNewToken;
+
+    @Setup
+    public void setup() {
+        jwtTokenProvider = new JwtTokenProvider(null, new SimpleMeterRegistry(), "benchmark-secret",
+                3_600_000L, 10_000L);
+        uncachedJwtTokenProvider = new JwtTokenProvider(null, new SimpleMeterRegistry(), "benchmark-secret",
+                3_600_000L, 1L);
+        User user = new User(1, "first", "last", "login", null, Role.ROLE_USER, null);
+        token = jwtTokenProvider.createToken(user);
+        newTokens = new String[NEW_TOKENS];
+        for (int i = 0; i < NEW_TOKENS; i++) {
+            user.setId(i);
+            newTokens[i] = jwtTokenProvider.createToken(user);
+        }
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtTokenProvider.validateToken(token);
+    }
+
+    @Benchmark
+    public String getUsername() {
+        return jwtTokenProvider.getUsername(token);
+    }
+
+    @Benchmark
+    public String validateAndGetUsername() {
+        jwtTokenProvider.validateToken(token);
+        return jwtTokenProvider.getUsername(token);
+    }
+
+    @Benchmark
+    public Authentication getAuthentication() {
+        return jwtTokenProvider.getAuthentication(token);
+    }
+
+    @Benchmark
+    public Authentication parseNewToken() {
+        nextNewToken = (nextNewToken + 1) % NEW_TOKENS;
+        return uncachedJwtTokenProvider.getAuthentication(newTokens[nextNewToken]);
+    }
+}
@@ -0,0 +1,206 @@
+package com.epam.esm.mapper;
+
+import com.epam.esm.certificate.Certificate;
+import com.epam.esm.certificate.CertificateDto;
+import com.epam.esm.certificate.CertificateDtoMapper;
+import com.epam.esm.certificate.CertificateStatus;
+import com.epam.esm.order.Order;
+import com.epam.esm.order.OrderDto;
+import com.epam.esm.order.OrderDtoMapper;
+import com.epam.esm.tag.Tag;
+import com.epam.esm.tag.TagDao;
+import com.epam.esm.tag.TagDto;
+import com.epam.esm.tag.TagDtoMapper;
+import com.epam.esm.user.Role;
+import com.epam.esm.user.User;
+import com.epam.esm.user.UserDto;
+import com.epam.esm.user.UserDtoMapper;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compares the hand-written DTO mappers with the reflective ModelMapper configuration they replaced
+ * on one page of each entity. Tag reads are answered from memory so only the mapping itself is measured.
+ * <p>
+ * Run with {@code gradle :benchmarks:jmh -PjmhInclude=DtoMapperBenchmark}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DtoMapperBenchmark {
+    @Param({"1", "50"})
+    int pageSize;
+
+    private ModelMapper modelMapper;
+    private CertificateDtoMapper certificateDtoMapper;
+    private TagDtoMapper tagDtoMapper;
+    private UserDtoMapper userDtoMapper;
+    private OrderDtoMapper orderDtoMapper;
+    private Map<Long, List<String>> tagNames;
+    private List<Certificate> certificates;
+    private List<CertificateDto> certificateDtos;
+    private List<Tag> tags;
+    private List<User> users;
+    private List<Order> orders;
+
+    @Setup
+    public void setup() {
+        TagDao tagDao = new InMemoryTagDao();
+        modelMapper = LegacyModelMapper.create(tagDao);
+        certificateDtoMapper = new CertificateDtoMapper(tagDao);
+        tagDtoMapper = new TagDtoMapper();
+        userDtoMapper = new UserDtoMapper(new PlainPasswordEncoder());
+        orderDtoMapper = new OrderDtoMapper();
+        tagNames = new HashMap<>();
+        certificates = new ArrayList<>();
+        certificateDtos = new ArrayList<>();
+        tags = new ArrayList<>();
+        users = new ArrayList<>();
+        orders = new ArrayList<>();
+        for (long id = 1; id <= pageSize; id++) {
+            Certificate certificate = new Certificate("certificate " + id, "description " + id,
+                    new BigDecimal("12.50"), 30);
+            certificate.setId(id);
+            certificate.setCreationDate(LocalDateTime.of(2020, 7, 1, 12, 0));
+            certificate.setModificationDate(LocalDateTime.of(2020, 7, 2, 12, 0));
+            certificate.setStatus(CertificateStatus.ACTIVE);
+            certificates.add(certificate);
+            List<String> names = Arrays.asList("tag " + id, "gift");
+            tagNames.put(id, names);
+            certificateDtos.add(new CertificateDto(id, certificate.getName(), certificate.getDescription(),
+                    certificate.getPrice(), certificate.getCreationDate(), certificate.getModificationDate(),
+                    certificate.getDuration(), certificate.getStatus(), names));
+            tags.add(new Tag(id, "tag " + id, null));
+            User user = new User(id, "first" + id, "last" + id, "login" + id, "password", Role.ROLE_USER, null);
+            users.add(user);
+            Order order = new Order(id, LocalDateTime.of(2020, 7, 3, 12, 0), new BigDecimal("25.00"), user,
+                    Arrays.asList(certificate, certificate));
+            orders.add(order);
+        }
+    }
+
+    @Benchmark
+    public List<CertificateDto> certificatesToDtoModelMapper() {
+        return certificates.stream()
+                .map(certificate -> {
+                    CertificateDto dto = modelMapper.map(certificate, CertificateDto.class,
+                            LegacyModelMapper.WITHOUT_TAGS_TYPE_MAP);
+                    dto.setTags(tagNames.getOrDefault(certificate.getId(), new ArrayList<>()));
+                    return dto;
+                })
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<CertificateDto> certificatesToDtoHandWritten() {
+        return certificateDtoMapper.toDtos(certificates);
+    }
+
+    @Benchmark
+    public List<Certificate> certificatesToEntityModelMapper() {
+        return certificateDtos.stream()
+                .map(dto -> modelMapper.map(dto, Certificate.class))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Certificate> certificatesToEntityHandWritten() {
+        return certificateDtos.stream()
+                .map(certificateDtoMapper::toEntity)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<TagDto> tagsToDtoModelMapper() {
+        return tags.stream()
+                .map(tag -> modelMapper.map(tag, TagDto.class))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<TagDto> tagsToDtoHandWritten() {
+        return tags.stream()
+                .map(tagDtoMapper::toDto)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<UserDto> usersToDtoModelMapper() {
+        return users.stream()
+                .map(user -> modelMapper.map(user, UserDto.class))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<UserDto> usersToDtoHandWritten() {
+        return users.stream()
+                .map(userDtoMapper::toDto)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<OrderDto> ordersToDtoModelMapper() {
+        return orders.stream()
+                .map(order -> modelMapper.map(order, OrderDto.class))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<OrderDto> ordersToDtoHandWritten() {
+        return orders.stream()
+                .map(orderDtoMapper::toDto)
+                .collect(Collectors.toList());
+    }
+
+    private class InMemoryTagDao extends TagDao {
+        InMemoryTagDao() {
+            super(null);
+        }
+
+        @Override
+        public Map<Long, List<String>> findNamesByCertificateIds(Collection<Long> ids) {
+            return tagNames;
+        }
+
+        @Override
+        public Optional<Tag> findByName(String name) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Keeps passwords as they are, the mappers are measured without hashing.
+     */
+    private static class PlainPasswordEncoder implements PasswordEncoder {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return rawPassword.toString().equals(encodedPassword);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.epam.esm.mapper;
+
+import com.epam.esm.certificate.Certificate;
+import com.epam.esm.certificate.CertificateDto;
+import com.epam.esm.order.Order;
+import com.epam.esm.order.OrderDto;
+import com.epam.esm.tag.Tag;
+import com.epam.esm.tag.TagDao;
+import com.epam.esm.user.User;
+import com.epam.esm.user.UserDto;
+import org.modelmapper.Converter;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.modelmapper.config.Configuration.AccessLevel.PRIVATE;
+
+/**
+ * The reflective ModelMapper configuration the services used before the hand-written mappers,
+ * kept only as the benchmark baseline.
+ */
+final class LegacyModelMapper {
+    static final String WITHOUT_TAGS_TYPE_MAP = "withoutTags";
+
+    private LegacyModelMapper() {
+    }
+
+    static ModelMapper create(TagDao tagDao) {
+        ModelMapper mapper = new ModelMapper();
+        mapper.getConfiguration()
+                .setMatchingStrategy(MatchingStrategies.STRICT)
+                .setFieldMatchingEnabled(true)
+                .setSkipNullEnabled(true)
+                .setFieldAccessLevel(PRIVATE);
+        mapper.createTypeMap(Certificate.class, CertificateDto.class, WITHOUT_TAGS_TYPE_MAP)
+                .addMappings(m -> m.skip(CertificateDto::setTags));
+        mapper.createTypeMap(CertificateDto.class, Certificate.class)
+                .addMappings(m -> m.skip(Certificate::setTags))
+                .setPostConverter(certificateTagsConverter(tagDao));
+        mapper.createTypeMap(Order.class, OrderDto.class)
+                .addMappings(m -> m.skip(OrderDto::setCertificatesIds))
+                .addMappings(m -> m.skip(OrderDto::setUserId))
+                .setPostConverter(orderIdsConverter());
+        mapper.createTypeMap(User.class, UserDto.class)
+                .addMappings(m -> m.skip(UserDto::setPassword));
+        return mapper;
+    }
+
+    private static Converter<CertificateDto, Certificate> certificateTagsConverter(TagDao tagDao) {
+        return context -> {
+            List<Tag> tags = context.getSource().getTags()
+                    .stream()
+                    .distinct()
+                    .map(name -> tagDao.findByName(name).orElse(new Tag(name)))
+                    .collect(Collectors.toList());
+            context.getDestination().setTags(tags);
+            return context.getDestination();
+        };
+    }
+
+    private static Converter<Order, OrderDto> orderIdsConverter() {
+        return context -> {
+            Order source = context.getSource();
+            OrderDto destination = context.getDestination();
+            destination.setCertificatesIds(source.getCertificates().stream()
+                    .map(Certificate::getId)
+                    .collect(Collectors.toList()));
+            destination.setUserId(source.getUser().getId());
+            return destination;
+        };
+    }
+}
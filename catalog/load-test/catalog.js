@@ -0,0 +1,77 @@
+// Side-by-side load test of the public catalog reads: the same requests against the servlet application
+// and the reactive catalog application, each tagged with its stack so k6 reports them separately.
+//
+//   k6 run catalog/load-test/catalog.js
+//   k6 run -e SERVLET_URL=http://host:8081 -e REACTIVE_URL=http://host:8082 -e VUS=400 catalog/load-test/catalog.js
+//
+// Both applications must use the same database. Compare http_req_duration{stack:servlet} with
+// http_req_duration{stack:reactive}, and the thread and connection pool metrics of both under the same load.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const SERVLET_URL = __ENV.SERVLET_URL || 'http://localhost:8081';
+const REACTIVE_URL = __ENV.REACTIVE_URL || 'http://localhost:8082';
+const VUS = parseInt(__ENV.VUS || '200');
+const DURATION = __ENV.DURATION || '2m';
+const MAX_ID = parseInt(__ENV.MAX_ID || '10000');
+const TAGS = (__ENV.TAGS || 'spa,food,travel,sport,music').split(',');
+
+function scenario(stack, startTime) {
+    return {
+        executor: 'constant-vus',
+        vus: VUS,
+        duration: DURATION,
+        startTime: startTime,
+        exec: 'browse',
+        env: { BASE_URL: stack === 'servlet' ? SERVLET_URL : REACTIVE_URL },
+        tags: { stack: stack },
+    };
+}
+
+// The stacks run one after the other, so they don't compete for the database.
+export const options = {
+    scenarios: {
+        servlet: scenario('servlet', '0s'),
+        reactive: scenario('reactive', DURATION),
+    },
+    thresholds: {
+        'http_req_failed{stack:servlet}': ['rate<0.01'],
+        'http_req_failed{stack:reactive}': ['rate<0.01'],
+        'http_req_duration{stack:servlet}': ['p(95)<500'],
+        'http_req_duration{stack:reactive}': ['p(95)<500'],
+    },
+};
+
+function randomInt(max) {
+    return Math.floor(Math.random() * max) + 1;
+}
+
+// Mix of the catalog reads: a certificate by id, a counted search page, an uncounted page and a keyset page
+// followed by its next page.
+export function browse() {
+    const baseUrl = __ENV.BASE_URL;
+    const roll = Math.random();
+    if (roll < 0.4) {
+        const response = http.get(`${baseUrl}/api/v1/certificates/${randomInt(MAX_ID)}`,
+            { tags: { name: 'certificate' } });
+        check(response, { 'certificate status is 200 or 404': r => r.status === 200 || r.status === 404 });
+    } else if (roll < 0.7) {
+        const tag = TAGS[randomInt(TAGS.length) - 1];
+        const response = http.get(`${baseUrl}/api/v1/certificates?tagNames=${tag}&page=${randomInt(5)}&perPage=20`,
+            { tags: { name: 'page' } });
+        check(response, { 'page status is 200': r => r.status === 200 });
+    } else if (roll < 0.85) {
+        const response = http.get(`${baseUrl}/api/v1/certificates?page=${randomInt(20)}&perPage=20&withCount=false`,
+            { tags: { name: 'uncounted page' } });
+        check(response, { 'uncounted page status is 200': r => r.status === 200 });
+    } else {
+        const first = http.get(`${baseUrl}/api/v1/certificates?orderBy=price&perPage=20&after=`,
+            { tags: { name: 'keyset page' } });
+        check(first, { 'keyset page status is 200': r => r.status === 200 });
+        const next = first.status === 200 ? first.json('_links.next.href') : null;
+        if (next) {
+            const response = http.get(next.replace(/^https?:\/\/[^/]+/, baseUrl), { tags: { name: 'keyset page' } });
+            check(response, { 'next keyset page status is 200': r => r.status === 200 });
+        }
+    }
+}
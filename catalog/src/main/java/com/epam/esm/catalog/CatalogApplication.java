@@ -0,0 +1,18 @@
+package com.epam.esm.catalog;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.hateoas.config.EnableHypermediaSupport;
+
+/**
+ * Reactive read-only application of the public certificate catalog, deployed next to the servlet application
+ * behind a proxy that routes GET /api/v1/certificates and GET /api/v1/certificates/{id} to it.
+ * Only this package is scanned, the services of the servlet application are not part of it.
+ */
+@SpringBootApplication
+@EnableHypermediaSupport(type = EnableHypermediaSupport.HypermediaType.HAL)
+public class CatalogApplication {
+    public static void main(String[] args) {
+        SpringApplication.run(CatalogApplication.class, args);
+    }
+}
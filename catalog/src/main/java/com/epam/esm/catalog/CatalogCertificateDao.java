@@ -0,0 +1,178 @@
+package com.epam.esm.catalog;
+
+import com.epam.esm.certificate.CertificateCursor;
+import com.epam.esm.certificate.CertificateDto;
+import com.epam.esm.certificate.CertificateOrderBy;
+import com.epam.esm.certificate.CertificateStatus;
+import io.r2dbc.spi.Row;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Read-only access to certificates over R2DBC, nothing blocks a thread while a statement runs.
+ * Certificates are read with the tag names of all of them by one more statement, like CertificateDtoMapper does.
+ */
+@Repository
+public class CatalogCertificateDao {
+    private static final String SQL_FIND_BY_ID = "SELECT c.id, c.name, c.description, c.price, c.creation_date," +
+            " c.modification_date, c.duration, c.status FROM certificate c WHERE c.id = :id";
+    private static final String SQL_FIND_TAG_NAMES_BY_CERTIFICATE_IDS = "SELECT ct.certificate_id, t.name" +
+            " FROM certificate_tag ct JOIN tag t ON t.id = ct.tag_id WHERE ct.certificate_id IN (:ids)";
+
+    private final DatabaseClient databaseClient;
+
+    @Autowired
+    public CatalogCertificateDao(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    @AllArgsConstructor
+    private static class CertificateRow {
+        private final CertificateDto certificate;
+        /**
+         * Relevance rank of the certificate when the search is ordered by relevance.
+         */
+        private final Double rank;
+    }
+
+    public Mono<CertificateDto> find(long id) {
+        return databaseClient.execute(SQL_FIND_BY_ID)
+                .bind("id", id)
+                .map((row, metadata) -> toDto(row))
+                .one()
+                .flatMap(certificate -> withTags(Collections.singletonList(certificate)))
+                .map(certificates -> certificates.get(0));
+    }
+
+    /**
+     * Reads up to limit certificates starting from offset, limit perPage + 1 tells if there is a next page
+     * without counting.
+     */
+    public Mono<List<CertificateDto>> findCertificates(CertificateSearchQuery query, int offset, int limit) {
+        String sql = query.pageSql(offset, limit);
+        return rows(sql, query)
+                .map(row -> row.certificate)
+                .collectList()
+                .flatMap(this::withTags);
+    }
+
+    /**
+     * Keyset variant of {@link #findCertificates}: seeks past the after cursor instead of skipping rows.
+     * Reads one row more than limit to know if there is a next slice.
+     *
+     * @param after cursor returned with the previous slice, null for the first slice
+     */
+    public Mono<CatalogCertificateSlice> findCertificates(CertificateSearchQuery query, CertificateCursor after,
+                                                          int limit) {
+        String sql = query.sliceSql(after, limit + 1);
+        CertificateOrderBy order = query.getOrderBy();
+        return rows(sql, query)
+                .collectList()
+                .flatMap(rows -> {
+                    boolean hasNext = rows.size() > limit;
+                    List<CertificateRow> slice = hasNext ? rows.subList(0, limit) : rows;
+                    CertificateCursor nextCursor = null;
+                    if (hasNext) {
+                        CertificateRow last = slice.get(slice.size() - 1);
+                        Object lastKey = order == CertificateOrderBy.RELEVANCE
+                                ? last.rank
+                                : sortKeyOf(last.certificate, order);
+                        nextCursor = new CertificateCursor(order, lastKey, last.certificate.getId());
+                    }
+                    CertificateCursor cursor = nextCursor;
+                    return withTags(slice.stream()
+                            .map(row -> row.certificate)
+                            .collect(Collectors.toList()))
+                            .map(content -> new CatalogCertificateSlice(content, cursor));
+                });
+    }
+
+    public Mono<Long> count(CertificateSearchQuery query) {
+        return bind(databaseClient.execute(query.countSql()), query)
+                .map((row, metadata) -> ((Number) row.get(0)).longValue())
+                .one();
+    }
+
+    private Flux<CertificateRow> rows(String sql, CertificateSearchQuery query) {
+        boolean ranked = query.getOrderBy() == CertificateOrderBy.RELEVANCE;
+        return bind(databaseClient.execute(sql), query)
+                .map((row, metadata) -> new CertificateRow(toDto(row), ranked
+                        ? ((Number) row.get(CertificateSearchQuery.SORT_KEY)).doubleValue()
+                        : null))
+                .all();
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec,
+                                                          CertificateSearchQuery query) {
+        for (Map.Entry<String, Object> binding : query.getBindings().entrySet()) {
+            spec = spec.bind(binding.getKey(), binding.getValue());
+        }
+        return spec;
+    }
+
+    private Mono<List<CertificateDto>> withTags(List<CertificateDto> certificates) {
+        if (certificates.isEmpty()) {
+            return Mono.just(certificates);
+        }
+        List<Long> ids = certificates.stream()
+                .map(CertificateDto::getId)
+                .collect(Collectors.toList());
+        return databaseClient.execute(SQL_FIND_TAG_NAMES_BY_CERTIFICATE_IDS)
+                .bind("ids", ids)
+                .map((row, metadata) -> new Object[]{row.get(0, Long.class), row.get(1, String.class)})
+                .all()
+                .collect(HashMap<Long, List<String>>::new, (namesByCertificateId, row) -> namesByCertificateId
+                        .computeIfAbsent((Long) row[0], id -> new ArrayList<>())
+                        .add((String) row[1]))
+                .map(namesByCertificateId -> {
+                    certificates.forEach(certificate -> certificate.setTags(
+                            namesByCertificateId.getOrDefault(certificate.getId(), new ArrayList<>())));
+                    return certificates;
+                });
+    }
+
+    private static CertificateDto toDto(Row row) {
+        CertificateDto certificate = new CertificateDto();
+        certificate.setId(row.get("id", Long.class));
+        certificate.setName(row.get("name", String.class));
+        certificate.setDescription(row.get("description", String.class));
+        certificate.setPrice(row.get("price", BigDecimal.class));
+        certificate.setCreationDate(row.get("creation_date", LocalDateTime.class));
+        certificate.setModificationDate(row.get("modification_date", LocalDateTime.class));
+        certificate.setDuration(row.get("duration", Integer.class));
+        certificate.setStatus(CertificateStatus.valueOf(row.get("status", String.class)));
+        return certificate;
+    }
+
+    private static Object sortKeyOf(CertificateDto certificate, CertificateOrderBy orderBy) {
+        switch (orderBy) {
+            case CREATION_DATE:
+                return certificate.getCreationDate();
+            case MODIFICATION_DATE:
+                return certificate.getModificationDate();
+            case NAME:
+                return certificate.getName();
+            case DESCRIPTION:
+                return certificate.getDescription();
+            case PRICE:
+                return certificate.getPrice();
+            case DURATION:
+                return certificate.getDuration();
+            default:
+                return certificate.getId();
+        }
+    }
+}
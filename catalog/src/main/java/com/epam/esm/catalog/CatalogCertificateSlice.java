@@ -0,0 +1,18 @@
+package com.epam.esm.catalog;
+
+import com.epam.esm.certificate.CertificateCursor;
+import com.epam.esm.certificate.CertificateDto;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Page of the keyset certificate search, nextCursor is null on the last page.
+ */
+@AllArgsConstructor
+@Getter
+public class CatalogCertificateSlice {
+    private final List<CertificateDto> content;
+    private final CertificateCursor nextCursor;
+}
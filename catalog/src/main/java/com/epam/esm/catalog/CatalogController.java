@@ -0,0 +1,124 @@
+package com.epam.esm.catalog;
+
+import com.epam.esm.certificate.CertificateDto;
+import com.epam.esm.certificate.CertificateETags;
+import com.epam.esm.certificate.CertificateLinks;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import javax.validation.constraints.Min;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Public catalog reads of the certificates, served without blocking a thread per request.
+ * Parameters, defaults, bodies and links are the same as of GET /api/v1/certificates and
+ * GET /api/v1/certificates/{id} of the servlet application, so a proxy can route these requests to either.
+ * <p>
+ * Responses have the strong {@link CertificateETags} of the servlet application and may be stored by shared
+ * caches for http.cache-control.catalog-max-age. A request whose If-None-Match has the current ETag gets 304
+ * without links being built. Bodies are not compressed.
+ * </p>
+ */
+@Validated
+@RestController
+@RequestMapping(value = CertificateLinks.CERTIFICATES)
+public class CatalogController {
+    private final CatalogService catalogService;
+    private final CatalogHateoasUtil catalogHateoasUtil;
+    private final CacheControl catalogCacheControl;
+
+    @Autowired
+    public CatalogController(CatalogService catalogService,
+                             CatalogHateoasUtil catalogHateoasUtil,
+                             @Value("${http.cache-control.catalog-max-age:30s}") Duration catalogMaxAge) {
+        this.catalogService = catalogService;
+        this.catalogHateoasUtil = catalogHateoasUtil;
+        this.catalogCacheControl = CacheControl.maxAge(catalogMaxAge).cachePublic();
+    }
+
+    /**
+     * @param tagNames  represents tag's name, connected with certificate
+     * @param textPart  represents part of full certificate's description
+     * @param orderBy   represents field name for ordering by, "relevance" orders by text search rank<br>
+     *                  when certificate.search.text-mode is FULL_TEXT
+     * @param withCount false skips counting the results, the page has no page metadata and no "last" link
+     * @param after     cursor from the "next" link of the previous page, switches to keyset pagination:<br>
+     *                  page is ignored, the result isn't counted and has no page metadata.<br>
+     *                  Empty value requests the first page
+     * @return list of certificatesDto objects, which match to all request params,<br>
+     * 304 without body when If-None-Match has the ETag of the page
+     */
+    @GetMapping
+    public Mono<ResponseEntity<PagedModel<CertificateDto>>> findCertificates(
+            @RequestParam(name = "tagNames", required = false) String[] tagNames,
+            @RequestParam(name = "textPart", required = false) String textPart,
+            @RequestParam(name = "orderBy", required = false, defaultValue = "id") String orderBy,
+            @RequestParam(name = "page", required = false, defaultValue = "1")
+            @Min(value = 1, message = "page number must be greater or equal to 1") Integer page,
+            @RequestParam(name = "perPage", required = false, defaultValue = "50")
+            @Min(value = 1, message = "perPage param must be greater or equal to 1") Integer perPage,
+            @RequestParam(name = "withCount", required = false, defaultValue = "true") Boolean withCount,
+            @RequestParam(name = "after", required = false) String after,
+            ServerWebExchange exchange) {
+        Mono<PagedModel<CertificateDto>> pagedModel = after != null
+                ? catalogService.findCertificates(tagNames, textPart, orderBy, after, perPage)
+                : catalogService.findCertificates(tagNames, textPart, orderBy, page, perPage, withCount);
+        return pagedModel.map(model -> respond(exchange, CertificateETags.page(model), HttpHeaders.EMPTY, () -> {
+            catalogHateoasUtil.createPaginationLinks(model, exchange.getRequest(), tagNames, textPart,
+                    orderBy, after);
+            return model;
+        }));
+    }
+
+    /**
+     * @return certificateDto object, which contain all certificate information and list of it's tags,<br>
+     * 304 without body when If-None-Match has its ETag
+     */
+    @GetMapping(value = "/{id}")
+    public Mono<ResponseEntity<CertificateDto>> findById(@PathVariable("id") long id, ServerWebExchange exchange) {
+        MediaType mediaType = CertificateETags.mediaType(exchange.getRequest().getHeaders().getAccept());
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(mediaType);
+        headers.setVary(Arrays.asList(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING));
+        return catalogService.find(id)
+                .map(certificate -> respond(exchange, CertificateETags.certificate(certificate, mediaType, false),
+                        headers, () -> catalogHateoasUtil.createSelfRelLink(certificate, exchange.getRequest())));
+    }
+
+    /**
+     * If-None-Match is compared by the exchange, which ignores W/ prefixes added by proxies.
+     *
+     * @param headers sent with the body, like its content type
+     */
+    private <T> ResponseEntity<T> respond(ServerWebExchange exchange, String eTag, HttpHeaders headers,
+                                          Supplier<T> body) {
+        if (exchange.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(eTag)
+                    .cacheControl(catalogCacheControl)
+                    .varyBy(headers.getVary().toArray(new String[0]))
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .headers(headers)
+                .eTag(eTag)
+                .cacheControl(catalogCacheControl)
+                .body(body.get());
+    }
+}
@@ -0,0 +1,36 @@
+package com.epam.esm.catalog;
+
+import com.epam.esm.certificate.CertificateDto;
+import com.epam.esm.certificate.CertificateLinks;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Adds {@link CertificateLinks} with the base URI of the request, the same links the servlet application adds.
+ */
+@Component
+public class CatalogHateoasUtil {
+
+    public void createPaginationLinks(PagedModel<CertificateDto> model, ServerHttpRequest request,
+                                      String[] tagNames, String textPart, String orderBy, String after) {
+        CertificateLinks.addPaginationLinks(model, baseUri(request), tagNames, textPart, orderBy, after);
+    }
+
+    public CertificateDto createSelfRelLink(CertificateDto certificate, ServerHttpRequest request) {
+        return CertificateLinks.addSelfRelLinks(certificate, baseUri(request));
+    }
+
+    /**
+     * @return scheme, host, port and context path of the request
+     */
+    private static String baseUri(ServerHttpRequest request) {
+        return UriComponentsBuilder.fromUri(request.getURI())
+                .replacePath(request.getPath().contextPath().value())
+                .replaceQuery(null)
+                .fragment(null)
+                .build()
+                .toUriString();
+    }
+}
@@ -0,0 +1,119 @@
+package com.epam.esm.catalog;
+
+import com.epam.esm.certificate.CertificateCursor;
+import com.epam.esm.certificate.CertificateDto;
+import com.epam.esm.certificate.CertificateNotFoundException;
+import com.epam.esm.certificate.CertificateOrderBy;
+import com.epam.esm.certificate.TextSearchMode;
+import com.epam.esm.pagination.CountTimeoutException;
+import com.epam.esm.pagination.SlicedModel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Read-only certificate search of the catalog, answering like CertificateService: the same pages,
+ * page metadata and cursors for the same parameters.
+ * <p>
+ * The page and its count are separate statements on separate connections, so they run at the same time.
+ * A count running longer than pagination.concurrent-count.timeout fails the search with
+ * {@link CountTimeoutException}, like in the servlet application.
+ * </p>
+ */
+@Service
+public class CatalogService {
+    private final CatalogCertificateDao certificateDao;
+    private final TextSearchMode textSearchMode;
+    private final Duration countTimeout;
+
+    @Autowired
+    public CatalogService(CatalogCertificateDao certificateDao,
+                          @Value("${certificate.search.text-mode:SUBSTRING}") TextSearchMode textSearchMode,
+                          @Value("${pagination.concurrent-count.timeout:5s}") Duration countTimeout) {
+        this.certificateDao = certificateDao;
+        this.textSearchMode = textSearchMode;
+        this.countTimeout = countTimeout;
+    }
+
+    public Mono<CertificateDto> find(long id) {
+        return certificateDao.find(id)
+                .switchIfEmpty(Mono.error(() -> new CertificateNotFoundException("Certificate with id = "
+                        + id + " doesn't exist")));
+    }
+
+    /**
+     * Tags are sorted and deduplicated and the text is trimmed, like by CertificateService.
+     *
+     * @param withCount false skips counting, the page only tells if there is a next one
+     */
+    public Mono<PagedModel<CertificateDto>> findCertificates(String[] tagNames, String textPart, String orderBy,
+                                                             int page, int perPage, boolean withCount) {
+        List<String> tags = normalizeTags(tagNames);
+        String text = normalizeText(textPart);
+        CertificateOrderBy order = CertificateOrderBy.find(orderBy).orElse(null);
+        int offset = (page - 1) * perPage;
+        if (!withCount) {
+            CertificateSearchQuery query = new CertificateSearchQuery(tags, text, order, textSearchMode);
+            return certificateDao.findCertificates(query, offset, perPage + 1)
+                    .<PagedModel<CertificateDto>>map(certificates -> {
+                        boolean hasNext = certificates.size() > perPage;
+                        return SlicedModel.ofPage(hasNext ? certificates.subList(0, perPage) : certificates,
+                                page, perPage, hasNext);
+                    });
+        }
+        Mono<List<CertificateDto>> certificates = certificateDao.findCertificates(
+                new CertificateSearchQuery(tags, text, order, textSearchMode), offset, perPage);
+        Mono<Long> count = certificateDao.count(new CertificateSearchQuery(tags, text, null, textSearchMode))
+                .timeout(countTimeout, Mono.error(() -> new CountTimeoutException(
+                        "Counting certificates took longer than " + countTimeout)));
+        return Mono.zip(certificates, count)
+                .map(result -> PagedModel.of(result.getT1(),
+                        new PagedModel.PageMetadata(perPage, page, result.getT2())));
+    }
+
+    /**
+     * Keyset variant of the search, pages are not counted and are addressed by the cursor of the previous page.
+     * Tags and text are normalized like in the offset search.
+     *
+     * @param after cursor token from the previous page, empty for the first page
+     */
+    public Mono<PagedModel<CertificateDto>> findCertificates(String[] tagNames, String textPart, String orderBy,
+                                                             String after, int perPage) {
+        List<String> tags = normalizeTags(tagNames);
+        String text = normalizeText(textPart);
+        CertificateCursor cursor = after.isEmpty() ? null : CertificateCursor.decode(after);
+        CertificateSearchQuery query = new CertificateSearchQuery(tags, text,
+                CertificateOrderBy.find(orderBy).orElse(CertificateOrderBy.ID), textSearchMode);
+        if (cursor != null && cursor.getOrderBy() != query.getOrderBy()) {
+            return Mono.error(new IllegalArgumentException("Cursor doesn't match orderBy '" + orderBy + "'"));
+        }
+        return certificateDao.findCertificates(query, cursor, perPage)
+                .<PagedModel<CertificateDto>>map(slice -> SlicedModel.ofCursor(slice.getContent(), perPage,
+                        slice.getNextCursor() == null ? null : slice.getNextCursor().encode()));
+    }
+
+    /**
+     * Tags are sorted and deduplicated, as the search matches certificates having all of them.
+     */
+    private static List<String> normalizeTags(String[] tagNames) {
+        if (tagNames == null) {
+            return Collections.emptyList();
+        }
+        return Arrays.stream(tagNames)
+                .distinct()
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    private static String normalizeText(String textPart) {
+        return textPart == null ? "" : textPart.trim();
+    }
+}
@@ -0,0 +1,142 @@
+package com.epam.esm.catalog;
+
+import com.epam.esm.certificate.CertificateCursor;
+import com.epam.esm.certificate.CertificateOrderBy;
+import com.epam.esm.certificate.TextSearchMode;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SQL of the certificate search with the same filters and order as the criteria queries of CertificateDao:
+ * certificates having all tagNames whose name or description contain textPart, or match it in full text mode,
+ * ordered by the sort key with null keys last and by id. Relevance is only defined for full-text search,
+ * otherwise rows go in id order.
+ * <p>
+ * The tsvector expression is the same as in the GIN index from
+ * db/postgresql/001_certificate_text_search_indexes.sql, so the planner can use it. The real returned by ts_rank
+ * is cast to double precision, the type of the relevance cursor key. Bindings are collected
+ * while the SQL is built, so one query builds one statement.
+ * </p>
+ */
+public class CertificateSearchQuery {
+    static final String SORT_KEY = "sort_key";
+
+    private static final String SQL_SELECT = "SELECT c.id, c.name, c.description, c.price, c.creation_date," +
+            " c.modification_date, c.duration, c.status";
+    private static final String SQL_COUNT = "SELECT count(*)";
+    private static final String SQL_FROM = " FROM certificate c";
+    private static final String SQL_HAVING_ALL_TAGS = "c.id IN (SELECT ct.certificate_id FROM certificate_tag ct" +
+            " JOIN tag t ON t.id = ct.tag_id WHERE t.name IN (:tagNames)" +
+            " GROUP BY ct.certificate_id HAVING count(*) = :tagCount)";
+    private static final String SQL_CONTAINS_TEXT = "(c.name LIKE :text OR c.description LIKE :text)";
+    private static final String TS_VECTOR = "to_tsvector('simple', c.name || ' ' || c.description)";
+    private static final String TS_QUERY = "plainto_tsquery('simple', :text)";
+    private static final String SQL_MATCHES_TEXT = TS_VECTOR + " @@ " + TS_QUERY;
+    private static final String SQL_RANK = "CAST(ts_rank(" + TS_VECTOR + ", " + TS_QUERY + ") AS double precision)";
+
+    private final List<String> predicates = new ArrayList<>();
+    private final Map<String, Object> bindings = new LinkedHashMap<>();
+    private final CertificateOrderBy orderBy;
+    private final boolean fullText;
+
+    /**
+     * @param orderBy order of the rows, null leaves them unordered like an unknown orderBy of CertificateDao
+     */
+    public CertificateSearchQuery(List<String> tagNames, String textPart, CertificateOrderBy orderBy,
+                                  TextSearchMode textSearchMode) {
+        fullText = textSearchMode == TextSearchMode.FULL_TEXT && textPart != null && !textPart.trim().isEmpty();
+        if (fullText) {
+            predicates.add(SQL_MATCHES_TEXT);
+            bindings.put("text", textPart);
+        } else if (textPart != null && !textPart.isEmpty()) {
+            predicates.add(SQL_CONTAINS_TEXT);
+            bindings.put("text", "%" + textPart + "%");
+        }
+        if (tagNames != null && !tagNames.isEmpty()) {
+            predicates.add(SQL_HAVING_ALL_TAGS);
+            bindings.put("tagNames", tagNames);
+            bindings.put("tagCount", (long) tagNames.size());
+        }
+        this.orderBy = orderBy == CertificateOrderBy.RELEVANCE && !fullText ? CertificateOrderBy.ID : orderBy;
+    }
+
+    public CertificateOrderBy getOrderBy() {
+        return orderBy;
+    }
+
+    /**
+     * Rows of the page, with the relevance rank as sort_key when ordered by relevance.
+     */
+    public String pageSql(int offset, int limit) {
+        bindings.put("offset", offset);
+        bindings.put("limit", limit);
+        return select() + where() + order() + " LIMIT :limit OFFSET :offset";
+    }
+
+    /**
+     * Rows after the cursor, which must have been made for the same order.
+     *
+     * @param after cursor of the last row of the previous slice, null for the first slice
+     */
+    public String sliceSql(CertificateCursor after, int limit) {
+        if (after != null) {
+            predicates.add(seekPredicate(after));
+        }
+        bindings.put("limit", limit);
+        return select() + where() + order() + " LIMIT :limit";
+    }
+
+    public String countSql() {
+        return SQL_COUNT + SQL_FROM + where();
+    }
+
+    public Map<String, Object> getBindings() {
+        return Collections.unmodifiableMap(bindings);
+    }
+
+    private String select() {
+        return orderBy == CertificateOrderBy.RELEVANCE
+                ? SQL_SELECT + ", " + SQL_RANK + " AS " + SORT_KEY + SQL_FROM
+                : SQL_SELECT + SQL_FROM;
+    }
+
+    private String where() {
+        return predicates.isEmpty() ? "" : " WHERE " + String.join(" AND ", predicates);
+    }
+
+    private String order() {
+        if (orderBy == null) {
+            return "";
+        }
+        if (orderBy == CertificateOrderBy.ID) {
+            return " ORDER BY c.id";
+        }
+        String direction = orderBy == CertificateOrderBy.RELEVANCE ? " DESC" : " ASC";
+        return " ORDER BY " + sortKey() + direction + " NULLS LAST, c.id";
+    }
+
+    private String sortKey() {
+        return orderBy == CertificateOrderBy.RELEVANCE ? SQL_RANK : "c." + orderBy.getOrderByFieldName();
+    }
+
+    /**
+     * Rows after the cursor in (sort key, id) order, null keys go last like in the order by.
+     */
+    private String seekPredicate(CertificateCursor after) {
+        bindings.put("afterId", after.getId());
+        if (orderBy == CertificateOrderBy.ID) {
+            return "c.id > :afterId";
+        }
+        String key = sortKey();
+        if (after.getKey() == null) {
+            return "(" + key + " IS NULL AND c.id > :afterId)";
+        }
+        bindings.put("afterKey", after.getKey());
+        String keyAfter = orderBy == CertificateOrderBy.RELEVANCE ? " < :afterKey" : " > :afterKey";
+        return "(" + key + keyAfter + " OR (" + key + " = :afterKey AND c.id > :afterId) OR " + key + " IS NULL)";
+    }
+}
@@ -0,0 +1,54 @@
+package com.epam.esm.catalog.handler;
+
+import com.epam.esm.certificate.CertificateNotFoundException;
+import com.epam.esm.pagination.CountTimeoutException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ServerWebInputException;
+
+import javax.validation.ConstraintViolationException;
+import java.time.LocalDateTime;
+
+/**
+ * Errors of the catalog, with the same statuses and bodies as in the servlet application.
+ */
+@RestControllerAdvice
+public class CatalogExceptionHandler {
+
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ExceptionHandler({IllegalArgumentException.class,
+            ConstraintViolationException.class,
+            ServerWebInputException.class})
+    public ErrorResponse handleIllegalArgumentException(RuntimeException ex) {
+        ErrorResponse error = new ErrorResponse();
+        error.setTimestamp(LocalDateTime.now());
+        error.setStatus(HttpStatus.BAD_REQUEST.value());
+        error.setError(HttpStatus.BAD_REQUEST.toString());
+        error.setMessage(ex.getMessage());
+        return error;
+    }
+
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    @ExceptionHandler(CertificateNotFoundException.class)
+    public ErrorResponse handleResourceNotFound(CertificateNotFoundException ex) {
+        ErrorResponse error = new ErrorResponse();
+        error.setTimestamp(LocalDateTime.now());
+        error.setStatus(HttpStatus.NOT_FOUND.value());
+        error.setError(HttpStatus.NOT_FOUND.toString());
+        error.setMessage(ex.getMessage());
+        return error;
+    }
+
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    @ExceptionHandler(CountTimeoutException.class)
+    public ErrorResponse handleCountTimeoutException(CountTimeoutException ex) {
+        ErrorResponse error = new ErrorResponse();
+        error.setTimestamp(LocalDateTime.now());
+        error.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        error.setError(HttpStatus.SERVICE_UNAVAILABLE.toString());
+        error.setMessage(ex.getMessage());
+        return error;
+    }
+}
@@ -0,0 +1,44 @@
+package com.epam.esm.catalog;
+
+import com.epam.esm.certificate.TextSearchMode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+public class CatalogServiceTest {
+    CatalogService catalogService;
+    CatalogCertificateDao certificateDao;
+
+    @BeforeEach
+    public void init() {
+        certificateDao = mock(CatalogCertificateDao.class);
+        catalogService = new CatalogService(certificateDao, TextSearchMode.SUBSTRING, Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void findCertificates_cursorWithDuplicatedTagAndPaddedText_shouldSearchNormalizedQuery() {
+        //Given
+        doReturn(Mono.just(new CatalogCertificateSlice(Collections.emptyList(), null)))
+                .when(certificateDao).findCertificates(any(CertificateSearchQuery.class), isNull(), anyInt());
+
+        //When
+        catalogService.findCertificates(new String[]{"spa", "spa"}, " gift ", "price", "", 10).block();
+
+        //Then
+        ArgumentCaptor<CertificateSearchQuery> query = ArgumentCaptor.forClass(CertificateSearchQuery.class);
+        verify(certificateDao).findCertificates(query.capture(), isNull(), eq(10));
+        assertEquals(Collections.singletonList("spa"), query.getValue().getBindings().get("tagNames"));
+        assertEquals(1L, query.getValue().getBindings().get("tagCount"));
+        assertEquals("%gift%", query.getValue().getBindings().get("text"));
+    }
+}
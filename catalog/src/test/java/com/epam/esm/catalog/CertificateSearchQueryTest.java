@@ -0,0 +1,127 @@
+package com.epam.esm.catalog;
+
+import com.epam.esm.certificate.CertificateCursor;
+import com.epam.esm.certificate.CertificateOrderBy;
+import com.epam.esm.certificate.TextSearchMode;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CertificateSearchQueryTest {
+
+    @Test
+    public void pageSql_tagsAndText_shouldFilterByAllTagsAndSubstring() {
+        //Given
+        CertificateSearchQuery query = new CertificateSearchQuery(Arrays.asList("a", "b"), "gift",
+                CertificateOrderBy.PRICE, TextSearchMode.SUBSTRING);
+
+        //When
+        String sql = query.pageSql(20, 10);
+
+        //Then
+        assertTrue(sql.contains("WHERE (c.name LIKE :text OR c.description LIKE :text) AND c.id IN ("));
+        assertTrue(sql.contains("HAVING count(*) = :tagCount"));
+        assertTrue(sql.endsWith(" ORDER BY c.price ASC NULLS LAST, c.id LIMIT :limit OFFSET :offset"));
+        assertEquals("%gift%", query.getBindings().get("text"));
+        assertEquals(Arrays.asList("a", "b"), query.getBindings().get("tagNames"));
+        assertEquals(2L, query.getBindings().get("tagCount"));
+        assertEquals(20, query.getBindings().get("offset"));
+        assertEquals(10, query.getBindings().get("limit"));
+    }
+
+    @Test
+    public void pageSql_noFiltersAndUnknownOrder_shouldReadUnorderedRows() {
+        //Given
+        CertificateSearchQuery query = new CertificateSearchQuery(Collections.emptyList(), "",
+                null, TextSearchMode.SUBSTRING);
+
+        //When
+        String sql = query.pageSql(0, 50);
+
+        //Then
+        assertFalse(sql.contains("WHERE"));
+        assertFalse(sql.contains("ORDER BY"));
+    }
+
+    @Test
+    public void countSql_fullText_shouldMatchTsQuery() {
+        //Given
+        CertificateSearchQuery query = new CertificateSearchQuery(Collections.emptyList(), "spa day",
+                null, TextSearchMode.FULL_TEXT);
+
+        //When
+        String sql = query.countSql();
+
+        //Then
+        assertEquals("SELECT count(*) FROM certificate c WHERE to_tsvector('simple', c.name || ' ' || c.description)"
+                + " @@ plainto_tsquery('simple', :text)", sql);
+        assertEquals("spa day", query.getBindings().get("text"));
+    }
+
+    @Test
+    public void relevance_substringMode_shouldOrderById() {
+        //Given
+        CertificateSearchQuery query = new CertificateSearchQuery(Collections.emptyList(), "spa",
+                CertificateOrderBy.RELEVANCE, TextSearchMode.SUBSTRING);
+
+        //When
+        String sql = query.sliceSql(null, 11);
+
+        //Then
+        assertEquals(CertificateOrderBy.ID, query.getOrderBy());
+        assertFalse(sql.contains("ts_rank"));
+        assertTrue(sql.endsWith(" ORDER BY c.id LIMIT :limit"));
+    }
+
+    @Test
+    public void sliceSql_relevanceCursor_shouldSeekToLowerRank() {
+        //Given
+        CertificateSearchQuery query = new CertificateSearchQuery(Collections.emptyList(), "spa",
+                CertificateOrderBy.RELEVANCE, TextSearchMode.FULL_TEXT);
+
+        //When
+        String sql = query.sliceSql(new CertificateCursor(CertificateOrderBy.RELEVANCE, 0.5, 7), 11);
+
+        //Then
+        assertTrue(sql.contains("CAST(ts_rank(to_tsvector('simple', c.name || ' ' || c.description),"
+                + " plainto_tsquery('simple', :text)) AS double precision) AS " + CertificateSearchQuery.SORT_KEY));
+        assertTrue(sql.contains("CAST(ts_rank(to_tsvector('simple', c.name || ' ' || c.description),"
+                + " plainto_tsquery('simple', :text)) AS double precision) < :afterKey"));
+        assertTrue(sql.contains(" DESC NULLS LAST, c.id LIMIT :limit"));
+        assertEquals(0.5, query.getBindings().get("afterKey"));
+        assertEquals(7L, query.getBindings().get("afterId"));
+    }
+
+    @Test
+    public void sliceSql_nullKeyCursor_shouldSeekAmongNullKeys() {
+        //Given
+        CertificateSearchQuery query = new CertificateSearchQuery(Collections.emptyList(), null,
+                CertificateOrderBy.MODIFICATION_DATE, TextSearchMode.SUBSTRING);
+
+        //When
+        String sql = query.sliceSql(new CertificateCursor(CertificateOrderBy.MODIFICATION_DATE, null, 3), 11);
+
+        //Then
+        assertTrue(sql.contains("WHERE (c.modification_date IS NULL AND c.id > :afterId)"));
+        assertFalse(query.getBindings().containsKey("afterKey"));
+    }
+
+    @Test
+    public void sliceSql_keyCursor_shouldSeekPastKeyAndId() {
+        //Given
+        CertificateSearchQuery query = new CertificateSearchQuery(Collections.emptyList(), null,
+                CertificateOrderBy.PRICE, TextSearchMode.SUBSTRING);
+
+        //When
+        String sql = query.sliceSql(new CertificateCursor(CertificateOrderBy.PRICE, BigDecimal.TEN, 3), 11);
+
+        //Then
+        assertTrue(sql.contains("WHERE (c.price > :afterKey OR (c.price = :afterKey AND c.id > :afterId)"
+                + " OR c.price IS NULL)"));
+        assertEquals(BigDecimal.TEN, query.getBindings().get("afterKey"));
+    }
+}
@@ -1,5 +1,6 @@
 package com.epam.esm.certificate;
 
+import com.epam.esm.id.PooledLoSequenceGenerator;
 import com.epam.esm.tag.Tag;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -8,6 +9,11 @@ import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import lombok.EqualsAndHashCode;
 import lombok.NonNull;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 import javax.persistence.*;
 import java.math.BigDecimal;
@@ -21,10 +27,15 @@ import java.util.List;
 @Setter
 @EqualsAndHashCode
 @Entity
-@Table(name = "certificate")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(name = "certificate", indexes = @Index(name = "certificate_modification_date_id_idx",
+        columnList = "modification_date, id"))
 public class Certificate {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "certificate_id")
+    @GenericGenerator(name = "certificate_id", strategy = PooledLoSequenceGenerator.STRATEGY,
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "certificate_id_seq"))
     private long id;
     @NonNull
     @Column(name = "name")
@@ -46,6 +57,7 @@ public class Certificate {
     @Column(name = "status", nullable = false)
     private CertificateStatus status;
     @ManyToMany(cascade = {CascadeType.PERSIST,CascadeType.MERGE}, fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @JoinTable(name = "certificate_tag",
             joinColumns = {@JoinColumn(name = "certificate_id", nullable = false)},
             inverseJoinColumns = {@JoinColumn(name = "tag_id", nullable = false)})
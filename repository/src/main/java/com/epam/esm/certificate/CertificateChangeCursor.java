@@ -0,0 +1,40 @@
+package com.epam.esm.certificate;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Position in the certificate change feed: the change date and the certificate id of the last returned change.
+ * Clients get it as an opaque url-safe token.
+ */
+@AllArgsConstructor
+@Getter
+@EqualsAndHashCode
+public class CertificateChangeCursor {
+    private static final String SEPARATOR = ",";
+
+    private final LocalDateTime date;
+    private final long id;
+
+    public String encode() {
+        String cursor = date + SEPARATOR + id;
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CertificateChangeCursor decode(String token) {
+        try {
+            String cursor = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = cursor.split(SEPARATOR, 2);
+            return new CertificateChangeCursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Invalid cursor '" + token + "'");
+        }
+    }
+}
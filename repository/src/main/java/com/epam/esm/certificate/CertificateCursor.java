@@ -0,0 +1,71 @@
+package com.epam.esm.certificate;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Position in the certificate search ordered by {@link #orderBy}: the sort key and the id of the last returned row.
+ * Clients get it as an opaque url-safe token.
+ */
+@AllArgsConstructor
+@Getter
+@EqualsAndHashCode
+public class CertificateCursor {
+    private static final String SEPARATOR = ",";
+    private static final String NULL_KEY = "~";
+    private static final String KEY_PREFIX = "=";
+
+    private final CertificateOrderBy orderBy;
+    private final Object key;
+    private final long id;
+
+    public String encode() {
+        String keyAsString = key == null ? NULL_KEY : KEY_PREFIX + key;
+        String cursor = orderBy.name() + SEPARATOR + id + SEPARATOR + keyAsString;
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CertificateCursor decode(String token) {
+        try {
+            String cursor = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = cursor.split(SEPARATOR, 3);
+            CertificateOrderBy orderBy = CertificateOrderBy.valueOf(parts[0]);
+            long id = Long.parseLong(parts[1]);
+            if (parts[2].equals(NULL_KEY)) {
+                return new CertificateCursor(orderBy, null, id);
+            }
+            if (!parts[2].startsWith(KEY_PREFIX)) {
+                throw new IllegalArgumentException();
+            }
+            return new CertificateCursor(orderBy, parseKey(orderBy, parts[2].substring(KEY_PREFIX.length())), id);
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Invalid cursor '" + token + "'");
+        }
+    }
+
+    private static Object parseKey(CertificateOrderBy orderBy, String key) {
+        switch (orderBy) {
+            case ID:
+                return Long.valueOf(key);
+            case CREATION_DATE:
+            case MODIFICATION_DATE:
+                return LocalDateTime.parse(key);
+            case PRICE:
+                return new BigDecimal(key);
+            case DURATION:
+                return Integer.valueOf(key);
+            case RELEVANCE:
+                return Double.valueOf(key);
+            default:
+                return key;
+        }
+    }
+}
@@ -1,21 +1,34 @@
 package com.epam.esm.certificate;
 
+import com.epam.esm.dialect.TextSearchFunctions;
 import com.epam.esm.tag.Tag;
 import com.epam.esm.tag.Tag_;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.query.Query;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
 import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
 import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
 import javax.persistence.TypedQuery;
 import javax.persistence.criteria.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Stream;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Repository
@@ -25,6 +38,28 @@ public class CertificateDao {
     private static final String SQL_FIND_NON_INACTIVE_CERTIFICATE_BY_NAME = "select c from Certificate c" +
             " where c.status in(:active,:published)" +
             " and c.name=:name";
+    private static final String SQL_FIND_NON_INACTIVE_CERTIFICATE_NAMES = "select c.name from Certificate c" +
+            " where c.status in(:active,:published)" +
+            " and c.name in :names";
+    private static final String SQL_FIND_CERTIFICATES_BY_IDS = "select c from Certificate c where c.id in :ids";
+    private static final String SQL_FIND_CERTIFICATES_AFTER_ID = "select c from Certificate c where c.id > :id" +
+            " order by c.id";
+    private static final String SQL_FIND_ALL_CERTIFICATES = "select c from Certificate c order by c.id";
+    private static final String SQL_FIND_CERTIFICATES_CHANGED_AFTER = "select c from Certificate c" +
+            " where (c.modificationDate > :date or (c.modificationDate = :date and c.id > :id))" +
+            " and c.modificationDate <= :until" +
+            " order by c.modificationDate, c.id";
+    private static final String SQL_FIND_TOMBSTONES_AFTER = "select t from CertificateTombstone t" +
+            " where (t.deletionDate > :date or (t.deletionDate = :date and t.certificateId > :id))" +
+            " and t.deletionDate <= :until" +
+            " order by t.deletionDate, t.certificateId";
+    private static final String SQL_TOUCH_CERTIFICATES_BY_TAG_ID = "update Certificate c" +
+            " set c.modificationDate = :date" +
+            " where c.id in (select tc.id from Tag t inner join t.certificates tc where t.id = :tagId)";
+    private static final CertificateChangeCursor FIRST_CHANGE = new CertificateChangeCursor(
+            LocalDateTime.of(1970, 1, 1, 0, 0), 0);
+    @Value("${certificate.search.text-mode:SUBSTRING}")
+    private TextSearchMode textSearchMode = TextSearchMode.SUBSTRING;
 
     @Autowired
     public CertificateDao(EntityManager em) {
@@ -32,9 +67,13 @@ public class CertificateDao {
     }
 
 
+    /**
+     * Stamps both dates with the creation time, so the new certificate shows up in the change feed.
+     */
     public void create(Certificate certificate) {
         LocalDateTime creationDate = LocalDateTime.now();
         certificate.setCreationDate(creationDate);
+        certificate.setModificationDate(creationDate);
         em.persist(certificate);
     }
 
@@ -44,8 +83,61 @@ public class CertificateDao {
         em.merge(certificate);
     }
 
+    /**
+     * Removes the certificate and records a {@link CertificateTombstone} for the change feed.
+     */
     public void delete(Certificate certificate) {
         em.remove(certificate);
+        em.persist(new CertificateTombstone(certificate.getId(), LocalDateTime.now()));
+    }
+
+    /**
+     * Stamps the modification date of the certificates with the tag, call it before the tag is removed
+     * from them so the change feed returns them with their new tags.
+     *
+     * @return the modification date the certificates got
+     */
+    public LocalDateTime touchCertificatesByTagId(long tagId) {
+        LocalDateTime date = LocalDateTime.now();
+        em.createQuery(SQL_TOUCH_CERTIFICATES_BY_TAG_ID)
+                .setParameter("date", date)
+                .setParameter("tagId", tagId)
+                .executeUpdate();
+        return date;
+    }
+
+    /**
+     * Reads certificates created or modified after the cursor and not after until,
+     * in (modification date, id) order.
+     *
+     * @param after cursor of the last change read, null to start from the first change
+     */
+    public List<Certificate> findCertificatesChangedAfter(CertificateChangeCursor after, LocalDateTime until,
+                                                          int limit) {
+        CertificateChangeCursor cursor = after == null ? FIRST_CHANGE : after;
+        return em.createQuery(SQL_FIND_CERTIFICATES_CHANGED_AFTER, Certificate.class)
+                .setParameter("date", cursor.getDate())
+                .setParameter("id", cursor.getId())
+                .setParameter("until", until)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Reads tombstones of certificates deleted after the cursor and not after until,
+     * in (deletion date, certificate id) order.
+     *
+     * @param after cursor of the last change read, null to start from the first change
+     */
+    public List<CertificateTombstone> findTombstonesAfter(CertificateChangeCursor after, LocalDateTime until,
+                                                          int limit) {
+        CertificateChangeCursor cursor = after == null ? FIRST_CHANGE : after;
+        return em.createQuery(SQL_FIND_TOMBSTONES_AFTER, CertificateTombstone.class)
+                .setParameter("date", cursor.getDate())
+                .setParameter("id", cursor.getId())
+                .setParameter("until", until)
+                .setMaxResults(limit)
+                .getResultList();
     }
 
     public Optional<Certificate> find(long id) {
@@ -54,6 +146,15 @@ public class CertificateDao {
 
     public List<Certificate> findCertificates(List<String> tagNames, String textPart, String orderBy,
                                               Integer page, Integer perPage) {
+        return findCertificates(tagNames, textPart, orderBy, page, perPage, perPage);
+    }
+
+    /**
+     * Reads up to limit certificates starting from the first one of the page,
+     * limit perPage + 1 tells if there is a next page without counting.
+     */
+    public List<Certificate> findCertificates(List<String> tagNames, String textPart, String orderBy,
+                                              Integer page, Integer perPage, int limit) {
         CriteriaBuilder cb = em.getCriteriaBuilder();
         CriteriaQuery<Certificate> query = cb.createQuery(Certificate.class);
         Root<Certificate> root = query.from(Certificate.class);
@@ -61,44 +162,107 @@ public class CertificateDao {
 
         prepareSearchQuery(query, root, tagNames, textPart);
 
-        boolean isOrderByCorrect = Stream.of(CertificateOrderBy.values())
-                .anyMatch(value -> value.getOrderByFieldName()
-                        .equals(orderBy));
-        if (isOrderByCorrect) {
-            query.orderBy(cb.asc(root.get(orderBy)));
+        Optional<CertificateOrderBy> order = CertificateOrderBy.find(orderBy);
+        if (order.isPresent()) {
+            CertificateOrderBy keysetOrder = toKeysetOrder(order.get(), textPart);
+            query.orderBy(orders(cb, root, keysetOrder, sortKey(cb, root, keysetOrder, textPart)));
         }
 
         return em.createQuery(query)
                 .setFirstResult((page - 1) * perPage)
-                .setMaxResults(perPage)
+                .setMaxResults(limit)
                 .getResultList();
     }
 
-    public int getTotalElementsCountFromCertificateSearch(List<String> tagNames, String textPart) {
+    /**
+     * Keyset variant of {@link #findCertificates}: seeks past the after cursor instead of skipping rows,
+     * equal sort keys are ordered by id. Reads one row more than limit to know if there is a next slice.
+     *
+     * @param after cursor returned with the previous slice, null for the first slice
+     */
+    public CertificateSlice findCertificates(List<String> tagNames, String textPart, String orderBy,
+                                             CertificateCursor after, int limit) {
+        CertificateOrderBy order = toKeysetOrder(CertificateOrderBy.find(orderBy)
+                .orElse(CertificateOrderBy.ID), textPart);
+        if (after != null && after.getOrderBy() != order) {
+            throw new IllegalArgumentException("Cursor doesn't match orderBy '" + orderBy + "'");
+        }
         CriteriaBuilder cb = em.getCriteriaBuilder();
-        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
         Root<Certificate> root = query.from(Certificate.class);
+        Expression<?> sortKey = sortKey(cb, root, order, textPart);
+        if (order == CertificateOrderBy.RELEVANCE) {
+            query.multiselect(root, sortKey);
+        } else {
+            query.multiselect(root);
+        }
 
-        prepareSearchQuery(query, root, tagNames, textPart);
+        Map<ParameterExpression<?>, Object> parameters = new HashMap<>();
+        List<Predicate> seekPredicates = new ArrayList<>();
+        if (after != null) {
+            seekPredicates.add(seekPredicate(cb, root, order, sortKey, after, parameters));
+        }
+        prepareSearchQuery(query, root, tagNames, textPart, seekPredicates);
+        query.orderBy(orders(cb, root, order, sortKey));
+
+        TypedQuery<Tuple> typedQuery = em.createQuery(query);
+        parameters.forEach((parameter, value) -> setParameter(typedQuery, parameter, value));
+        List<Tuple> rows = typedQuery.setMaxResults(limit + 1)
+                .getResultList();
 
-        query.select(cb.countDistinct(root));
+        boolean hasNext = rows.size() > limit;
+        List<Tuple> slice = hasNext ? rows.subList(0, limit) : rows;
+        List<Certificate> content = slice.stream()
+                .map(row -> row.get(0, Certificate.class))
+                .collect(Collectors.toList());
+        CertificateCursor nextCursor = null;
+        if (hasNext) {
+            Tuple last = slice.get(slice.size() - 1);
+            Certificate lastCertificate = last.get(0, Certificate.class);
+            Object lastKey = order == CertificateOrderBy.RELEVANCE
+                    ? last.get(1)
+                    : sortKeyOf(lastCertificate, order);
+            nextCursor = new CertificateCursor(order, lastKey, lastCertificate.getId());
+        }
+        return new CertificateSlice(content, nextCursor);
+    }
+
+    public int getTotalElementsCountFromCertificateSearch(List<String> tagNames, String textPart) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Certificate> root = query.from(Certificate.class);
 
-        if(tagNames.size() == 0) {
-            return em.createQuery(query)
-                    .getSingleResult()
-                    .intValue();
+        if (tagNames == null || tagNames.isEmpty()) {
+            prepareSearchQuery(query, root, tagNames, textPart);
         } else {
-            return em.createQuery(query)
-                    .getResultList().size();
+            Subquery<Long> matchingIds = query.subquery(Long.class);
+            Root<Certificate> subqueryRoot = matchingIds.from(Certificate.class);
+            matchingIds.select(subqueryRoot.get(Certificate_.id));
+            prepareSearchQuery(matchingIds, subqueryRoot, tagNames, textPart);
+            query.where(root.get(Certificate_.id).in(matchingIds));
         }
+        query.select(cb.count(root));
+
+        return em.createQuery(query)
+                .getSingleResult()
+                .intValue();
     }
 
     public <X> void prepareSearchQuery(AbstractQuery<X> query, Root<Certificate> root,
                                        List<String> tagNames, String textPart) {
+        prepareSearchQuery(query, root, tagNames, textPart, Collections.emptyList());
+    }
+
+    private <X> void prepareSearchQuery(AbstractQuery<X> query, Root<Certificate> root,
+                                        List<String> tagNames, String textPart, List<Predicate> extraPredicates) {
         CriteriaBuilder cb = em.getCriteriaBuilder();
-        List<Predicate> predicates = new ArrayList<>();
+        List<Predicate> predicates = new ArrayList<>(extraPredicates);
 
-        if (textPart != null && !textPart.isEmpty()) {
+        if (isFullTextSearch(textPart)) {
+            Expression<Boolean> textMatch = cb.function(TextSearchFunctions.MATCH, Boolean.class,
+                    root.get(Certificate_.name), root.get(Certificate_.description), cb.literal(textPart));
+            predicates.add(cb.isTrue(textMatch));
+        } else if (textPart != null && !textPart.isEmpty()) {
             Predicate predicateForName = cb.like(root.get(Certificate_.NAME), "%" + textPart + "%");
             Predicate predicateForDescription = cb.like(root.get(Certificate_.description), "%" + textPart + "%");
             Predicate textPartPredicate = cb.or(predicateForName, predicateForDescription);
@@ -118,6 +282,137 @@ public class CertificateDao {
         }
     }
 
+    private boolean isFullTextSearch(String textPart) {
+        return textSearchMode == TextSearchMode.FULL_TEXT && textPart != null && !textPart.trim().isEmpty();
+    }
+
+    /**
+     * Relevance is only defined for full-text search, otherwise results go in id order.
+     */
+    private CertificateOrderBy toKeysetOrder(CertificateOrderBy orderBy, String textPart) {
+        if (orderBy == CertificateOrderBy.RELEVANCE && !isFullTextSearch(textPart)) {
+            return CertificateOrderBy.ID;
+        }
+        return orderBy;
+    }
+
+    private Expression<?> sortKey(CriteriaBuilder cb, Root<Certificate> root,
+                                  CertificateOrderBy orderBy, String textPart) {
+        if (orderBy == CertificateOrderBy.RELEVANCE) {
+            return cb.function(TextSearchFunctions.RANK, Double.class,
+                    root.get(Certificate_.name), root.get(Certificate_.description), cb.literal(textPart));
+        }
+        return root.get(orderBy.getAttributeName());
+    }
+
+    private static Object sortKeyOf(Certificate certificate, CertificateOrderBy orderBy) {
+        switch (orderBy) {
+            case CREATION_DATE:
+                return certificate.getCreationDate();
+            case MODIFICATION_DATE:
+                return certificate.getModificationDate();
+            case NAME:
+                return certificate.getName();
+            case DESCRIPTION:
+                return certificate.getDescription();
+            case PRICE:
+                return certificate.getPrice();
+            case DURATION:
+                return certificate.getDuration();
+            default:
+                return certificate.getId();
+        }
+    }
+
+    private List<Order> orders(CriteriaBuilder cb, Root<Certificate> root,
+                               CertificateOrderBy orderBy, Expression<?> sortKey) {
+        Path<Long> id = root.get(Certificate_.id);
+        if (orderBy == CertificateOrderBy.ID) {
+            return Collections.singletonList(cb.asc(id));
+        }
+        Order keyOrder = orderBy == CertificateOrderBy.RELEVANCE ? cb.desc(sortKey) : cb.asc(sortKey);
+        return Arrays.asList(keyOrder, cb.asc(id));
+    }
+
+    /**
+     * Rows after the cursor in (sort key, id) order, null keys go last like in the order by.
+     */
+    @SuppressWarnings("unchecked")
+    private <Y extends Comparable<? super Y>> Predicate seekPredicate(CriteriaBuilder cb, Root<Certificate> root,
+                                                                      CertificateOrderBy orderBy, Expression<?> sortKey,
+                                                                      CertificateCursor after,
+                                                                      Map<ParameterExpression<?>, Object> parameters) {
+        ParameterExpression<Long> afterId = cb.parameter(Long.class);
+        parameters.put(afterId, after.getId());
+        Predicate idAfter = cb.greaterThan(root.get(Certificate_.id), afterId);
+        if (orderBy == CertificateOrderBy.ID) {
+            return idAfter;
+        }
+        Expression<Y> key = (Expression<Y>) sortKey;
+        if (after.getKey() == null) {
+            return cb.and(cb.isNull(key), idAfter);
+        }
+        ParameterExpression<Y> afterKey = cb.parameter((Class<Y>) after.getKey().getClass());
+        parameters.put(afterKey, after.getKey());
+        Predicate keyAfter = orderBy == CertificateOrderBy.RELEVANCE
+                ? cb.lessThan(key, afterKey)
+                : cb.greaterThan(key, afterKey);
+        return cb.or(keyAfter, cb.and(cb.equal(key, afterKey), idAfter), cb.isNull(key));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void setParameter(TypedQuery<?> query, ParameterExpression<T> parameter, Object value) {
+        query.setParameter(parameter, (T) value);
+    }
+
+    /**
+     * Reads all certificates with the given ids in one query, ids that don't exist are skipped.
+     */
+    public List<Certificate> findByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return em.createQuery(SQL_FIND_CERTIFICATES_BY_IDS, Certificate.class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
+    public List<Certificate> findCertificatesAfterId(long id, int limit) {
+        return em.createQuery(SQL_FIND_CERTIFICATES_AFTER_ID, Certificate.class)
+                .setParameter("id", id)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Reads all certificates in id order through a forward-only cursor and passes them on in batches
+     * of fetchSize. The persistence context is cleared after every batch, so entities of a batch
+     * must not be used after the consumer returns. Must be called in a transaction,
+     * otherwise the driver reads the whole result at once.
+     */
+    public void scrollCertificates(int fetchSize, Consumer<List<Certificate>> batches) {
+        Query<?> query = em.createQuery(SQL_FIND_ALL_CERTIFICATES, Certificate.class)
+                .unwrap(Query.class)
+                .setFetchSize(fetchSize)
+                .setReadOnly(true)
+                .setCacheMode(CacheMode.IGNORE);
+        try (ScrollableResults results = query.scroll(ScrollMode.FORWARD_ONLY)) {
+            List<Certificate> batch = new ArrayList<>(fetchSize);
+            while (results.next()) {
+                batch.add((Certificate) results.get(0));
+                if (batch.size() == fetchSize) {
+                    batches.accept(batch);
+                    batch.clear();
+                    em.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                batches.accept(batch);
+                em.clear();
+            }
+        }
+    }
+
     public Optional<Certificate> findNonInactiveCertificateByName(String name) {
         TypedQuery<Certificate> typedQuery = em.createQuery(
                 SQL_FIND_NON_INACTIVE_CERTIFICATE_BY_NAME,
@@ -132,4 +427,18 @@ public class CertificateDao {
             return Optional.empty();
         }
     }
+
+    /**
+     * @return those of the names which are used by non inactive certificates
+     */
+    public List<String> findNonInactiveCertificateNames(Collection<String> names) {
+        if (names.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return em.createQuery(SQL_FIND_NON_INACTIVE_CERTIFICATE_NAMES, String.class)
+                .setParameter("active", CertificateStatus.ACTIVE)
+                .setParameter("published", CertificateStatus.PUBLISHED)
+                .setParameter("names", names)
+                .getResultList();
+    }
 }
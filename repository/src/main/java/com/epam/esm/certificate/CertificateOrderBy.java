@@ -2,19 +2,31 @@ package com.epam.esm.certificate;
 
 import lombok.Getter;
 
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Getter
 public enum CertificateOrderBy {
-    ID("id"),
-    CREATION_DATE("creation_date"),
-    MODIFICATION_DATE("modification_date"),
-    NAME("name"),
-    DESCRIPTION("description"),
-    PRICE("price"),
-    DURATION("duration");
+    ID("id", "id"),
+    CREATION_DATE("creation_date", "creationDate"),
+    MODIFICATION_DATE("modification_date", "modificationDate"),
+    NAME("name", "name"),
+    DESCRIPTION("description", "description"),
+    PRICE("price", "price"),
+    DURATION("duration", "duration"),
+    RELEVANCE("relevance", null);
 
     private final String orderByFieldName;
+    private final String attributeName;
 
-    CertificateOrderBy(String orderByFieldName) {
+    CertificateOrderBy(String orderByFieldName, String attributeName) {
         this.orderByFieldName = orderByFieldName;
+        this.attributeName = attributeName;
+    }
+
+    public static Optional<CertificateOrderBy> find(String orderByFieldName) {
+        return Stream.of(values())
+                .filter(value -> value.orderByFieldName.equals(orderByFieldName))
+                .findFirst();
     }
 }
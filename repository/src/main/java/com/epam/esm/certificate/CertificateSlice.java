@@ -0,0 +1,16 @@
+package com.epam.esm.certificate;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Page of the keyset certificate search, nextCursor is null on the last page.
+ */
+@AllArgsConstructor
+@Getter
+public class CertificateSlice {
+    private final List<Certificate> content;
+    private final CertificateCursor nextCursor;
+}
@@ -0,0 +1,29 @@
+package com.epam.esm.certificate;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Record of a deleted certificate, kept so the deletion shows up in the change feed.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+@Entity
+@Table(name = "certificate_tombstone", indexes = @Index(name = "certificate_tombstone_deletion_date_id_idx",
+        columnList = "deletion_date, certificate_id"))
+public class CertificateTombstone {
+    @Id
+    @Column(name = "certificate_id")
+    private long certificateId;
+    @Column(name = "deletion_date", nullable = false)
+    private LocalDateTime deletionDate;
+}
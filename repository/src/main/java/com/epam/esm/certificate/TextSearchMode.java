@@ -0,0 +1,12 @@
+package com.epam.esm.certificate;
+
+public enum TextSearchMode {
+    /**
+     * name or description contains textPart, LIKE '%textPart%' backed by trigram indexes.
+     */
+    SUBSTRING,
+    /**
+     * name and description contain all words of textPart, backed by the tsvector index.
+     */
+    FULL_TEXT
+}
@@ -0,0 +1,23 @@
+package com.epam.esm.dialect;
+
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.function.SQLFunctionTemplate;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * H2 dialect for tests. H2 has no tsvector, so the full-text functions
+ * fall back to a case insensitive substring search, the rank is higher
+ * the closer the match is to the beginning of the text.
+ */
+public class CertificateH2Dialect extends H2Dialect {
+    private static final String TEXT = "lower(concat(?1, ' ', ?2))";
+    private static final String QUERY = "lower(?3)";
+
+    public CertificateH2Dialect() {
+        super();
+        registerFunction(TextSearchFunctions.MATCH, new SQLFunctionTemplate(StandardBasicTypes.BOOLEAN,
+                "(locate(" + QUERY + ", " + TEXT + ") > 0)"));
+        registerFunction(TextSearchFunctions.RANK, new SQLFunctionTemplate(StandardBasicTypes.DOUBLE,
+                "CAST(1.0 / (locate(" + QUERY + ", " + TEXT + ") + 1) AS DOUBLE)"));
+    }
+}
@@ -0,0 +1,25 @@
+package com.epam.esm.dialect;
+
+import org.hibernate.dialect.PostgreSQL9Dialect;
+import org.hibernate.dialect.function.SQLFunctionTemplate;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * PostgreSQL dialect with the full-text search functions.
+ * The tsvector expression is the same as in the GIN index from
+ * db/postgresql/001_certificate_text_search_indexes.sql, so the planner can use it.
+ * ts_rank returns a real, the rank is cast to double precision so a relevance cursor key read
+ * as a Double compares equal to the rank it was read from.
+ */
+public class CertificatePostgreSQLDialect extends PostgreSQL9Dialect {
+    private static final String TS_VECTOR = "to_tsvector('simple', ?1 || ' ' || ?2)";
+    private static final String TS_QUERY = "plainto_tsquery('simple', ?3)";
+
+    public CertificatePostgreSQLDialect() {
+        super();
+        registerFunction(TextSearchFunctions.MATCH, new SQLFunctionTemplate(StandardBasicTypes.BOOLEAN,
+                "(" + TS_VECTOR + " @@ " + TS_QUERY + ")"));
+        registerFunction(TextSearchFunctions.RANK, new SQLFunctionTemplate(StandardBasicTypes.DOUBLE,
+                "CAST(ts_rank(" + TS_VECTOR + ", " + TS_QUERY + ") AS double precision)"));
+    }
+}
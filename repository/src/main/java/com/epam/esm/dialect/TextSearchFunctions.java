@@ -0,0 +1,20 @@
+package com.epam.esm.dialect;
+
+/**
+ * Names of the SQL functions used by the certificate full-text search.
+ * Every dialect used by the application registers both of them, so
+ * the criteria queries stay the same for PostgreSQL and H2.
+ */
+public final class TextSearchFunctions {
+    /**
+     * (name, description, query) - boolean, true if the text matches the query.
+     */
+    public static final String MATCH = "text_search_match";
+    /**
+     * (name, description, query) - relevance of the text for the query, bigger is better.
+     */
+    public static final String RANK = "text_search_rank";
+
+    private TextSearchFunctions() {
+    }
+}
@@ -0,0 +1,36 @@
+package com.epam.esm.id;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+/**
+ * Sequence generator which takes a block of ids per sequence call and hands them out in memory.
+ * <p>
+ * The sequence value is the first id of a block of {@value #ALLOCATION_SIZE} ids, 50 by default,
+ * so the sequence itself must be incremented by the same size. Changing the allocation size requires
+ * altering the increment of all entity sequences, see db/postgresql/004_entity_id_sequences.sql.
+ * </p>
+ * Usage: {@code @GenericGenerator(strategy = PooledLoSequenceGenerator.STRATEGY,
+ * parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "tag_id_seq"))}.
+ */
+public class PooledLoSequenceGenerator extends SequenceStyleGenerator {
+    public static final String STRATEGY = "com.epam.esm.id.PooledLoSequenceGenerator";
+    public static final String ALLOCATION_SIZE = "com.epam.esm.id.allocation_size";
+    public static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        int allocationSize = ConfigurationHelper.getInt(ALLOCATION_SIZE,
+                serviceRegistry.getService(ConfigurationService.class).getSettings(), DEFAULT_ALLOCATION_SIZE);
+        params.setProperty(INCREMENT_PARAM, String.valueOf(allocationSize));
+        params.setProperty(OPT_PARAM, StandardOptimizerDescriptor.POOLED_LO.getExternalName());
+        super.configure(type, params, serviceRegistry);
+    }
+}
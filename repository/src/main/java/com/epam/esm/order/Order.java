@@ -1,8 +1,12 @@
 package com.epam.esm.order;
 
 import com.epam.esm.certificate.Certificate;
+import com.epam.esm.id.PooledLoSequenceGenerator;
 import com.epam.esm.user.User;
 import lombok.*;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 import javax.persistence.*;
 import java.math.BigDecimal;
@@ -15,10 +19,13 @@ import java.util.List;
 @Setter
 @EqualsAndHashCode
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = @Index(name = "orders_user_id_purchase_date_id_idx",
+        columnList = "user_id, purchase_date, id"))
 public class Order {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_id")
+    @GenericGenerator(name = "order_id", strategy = PooledLoSequenceGenerator.STRATEGY,
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "orders_id_seq"))
     private long id;
     @Column(name = "purchase_date")
     private LocalDateTime purchaseDate;
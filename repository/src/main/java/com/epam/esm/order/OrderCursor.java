@@ -0,0 +1,47 @@
+package com.epam.esm.order;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Position in a user's order history ordered by (purchaseDate desc, id desc).
+ * Clients get it as an opaque url-safe token.
+ */
+@AllArgsConstructor
+@Getter
+@EqualsAndHashCode
+public class OrderCursor {
+    private static final String SEPARATOR = ",";
+
+    private final LocalDateTime purchaseDate;
+    private final long id;
+
+    public static OrderCursor of(Order order) {
+        return new OrderCursor(order.getPurchaseDate(), order.getId());
+    }
+
+    public String encode() {
+        String cursor = purchaseDate + SEPARATOR + id;
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static OrderCursor decode(String token) {
+        try {
+            String cursor = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = cursor.split(SEPARATOR);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException();
+            }
+            return new OrderCursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Invalid cursor '" + token + "'");
+        }
+    }
+}
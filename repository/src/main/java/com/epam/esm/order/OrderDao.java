@@ -9,6 +9,8 @@ import javax.persistence.NoResultException;
 import javax.persistence.PersistenceContext;
 import javax.persistence.TypedQuery;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,7 +19,14 @@ import java.util.Optional;
 public class OrderDao {
     @PersistenceContext
     private final EntityManager em;
-    private static final String SQL_FIND_ORDER_BY_USER_ID = "select o from Order o where o.user.id =: id";
+    private static final String SQL_FIND_ORDER_BY_USER_ID = "select o from Order o where o.user.id =: id" +
+            " order by o.purchaseDate desc, o.id desc";
+    private static final String SQL_FIND_ORDERS_AFTER = "select o from Order o where o.user.id = :id" +
+            " and (o.purchaseDate < :purchaseDate or (o.purchaseDate = :purchaseDate and o.id < :orderId))" +
+            " order by o.purchaseDate desc, o.id desc";
+    private static final String SQL_FIND_ORDERS_BEFORE = "select o from Order o where o.user.id = :id" +
+            " and (o.purchaseDate > :purchaseDate or (o.purchaseDate = :purchaseDate and o.id > :orderId))" +
+            " order by o.purchaseDate asc, o.id asc";
     private static final String SQL_COUNT_OF_ORDERS = "select count(o) from Order o where o.user.id =: id";
     private static final String SQL_FIND_BY_USER_ID_AND_ORDER_ID = "select o from Order o where o.id =: orderId " +
             "and o.user.id =: userId";
@@ -37,13 +46,63 @@ public class OrderDao {
     }
 
     public List<Order> getOrdersByUserId(long userId, int page, int perPage) {
+        return getOrdersByUserId(userId, page, perPage, perPage);
+    }
+
+    /**
+     * Reads up to limit orders starting from the first one of the page,
+     * limit perPage + 1 tells if there is a next page without counting.
+     */
+    public List<Order> getOrdersByUserId(long userId, int page, int perPage, int limit) {
         TypedQuery<Order> query = em.createQuery(SQL_FIND_ORDER_BY_USER_ID,
                 Order.class);
         query.setParameter("id", userId);
         return query
                 .setFirstResult((page-1) * perPage)
-                .setMaxResults(perPage)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Keyset variant of {@link #getOrdersByUserId(long, int, int)}, newest orders first.
+     * Reads one row more than limit to know if there is a page further in the requested direction.
+     *
+     * @param after  cursor of the last order of the previous page, returns older orders
+     * @param before cursor of the first order of the next page, returns newer orders; used when after is null
+     */
+    public OrderSlice getOrdersByUserId(long userId, OrderCursor after, OrderCursor before, int limit) {
+        if (after == null && before == null) {
+            List<Order> orders = em.createQuery(SQL_FIND_ORDER_BY_USER_ID, Order.class)
+                    .setParameter("id", userId)
+                    .setMaxResults(limit + 1)
+                    .getResultList();
+            return toSlice(orders, limit, false, false);
+        }
+        boolean backward = after == null;
+        OrderCursor cursor = backward ? before : after;
+        List<Order> orders = em.createQuery(backward ? SQL_FIND_ORDERS_BEFORE : SQL_FIND_ORDERS_AFTER, Order.class)
+                .setParameter("id", userId)
+                .setParameter("purchaseDate", cursor.getPurchaseDate())
+                .setParameter("orderId", cursor.getId())
+                .setMaxResults(limit + 1)
                 .getResultList();
+        return toSlice(orders, limit, backward, true);
+    }
+
+    private OrderSlice toSlice(List<Order> orders, int limit, boolean backward, boolean hasCursor) {
+        boolean hasMore = orders.size() > limit;
+        List<Order> content = new ArrayList<>(hasMore ? orders.subList(0, limit) : orders);
+        if (backward) {
+            Collections.reverse(content);
+        }
+        if (content.isEmpty()) {
+            return new OrderSlice(content, null, null);
+        }
+        boolean hasNext = backward ? hasCursor : hasMore;
+        boolean hasPrevious = backward ? hasMore : hasCursor;
+        return new OrderSlice(content,
+                hasNext ? OrderCursor.of(content.get(content.size() - 1)) : null,
+                hasPrevious ? OrderCursor.of(content.get(0)) : null);
     }
 
     public Long getCountOfUsersOrders(long userId) {
@@ -0,0 +1,17 @@
+package com.epam.esm.order;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Page of the keyset order history, a cursor is null if there is no page in its direction.
+ */
+@AllArgsConstructor
+@Getter
+public class OrderSlice {
+    private final List<Order> content;
+    private final OrderCursor nextCursor;
+    private final OrderCursor previousCursor;
+}
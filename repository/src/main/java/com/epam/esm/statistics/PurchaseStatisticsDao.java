@@ -0,0 +1,117 @@
+package com.epam.esm.statistics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Per-user purchase aggregates, writers of a user's aggregates are expected to hold the lock of the user's row.
+ */
+@Slf4j
+@Repository
+public class PurchaseStatisticsDao {
+    @PersistenceContext
+    private final EntityManager em;
+    private static final String SQL_FIND_TOP_SPENDER_ID = "select s.userId from UserSpending s" +
+            " order by s.totalSpent desc, s.userId";
+    private static final String SQL_FIND_MOST_PURCHASED_TAG_ID = "select p.tagId from UserTagPurchase p" +
+            " where p.userId = :userId order by p.purchaseCount desc, p.tagId";
+    private static final String SQL_FIND_TAG_PURCHASES = "select p from UserTagPurchase p" +
+            " where p.userId = :userId and p.tagId in :tagIds";
+    private static final String SQL_DELETE_TAG_PURCHASES_BY_TAG_ID = "delete from UserTagPurchase p" +
+            " where p.tagId = :tagId";
+    private static final String SQL_LOCK_USERS = "select u.id from users u for update";
+    private static final String SQL_DELETE_SPENDINGS = "delete from UserSpending";
+    private static final String SQL_DELETE_TAG_PURCHASES = "delete from UserTagPurchase";
+    private static final String SQL_REBUILD_SPENDINGS = "insert into user_spending (user_id, total_spent)\n" +
+            "select o.user_id, sum(o.total_price) from orders o group by o.user_id";
+    private static final String SQL_REBUILD_TAG_PURCHASES = "insert into user_tag_purchase" +
+            " (user_id, tag_id, purchase_count)\n" +
+            "select o.user_id, ct.tag_id, count(*) from orders o\n" +
+            "    inner join order_certificate oc on o.id = oc.order_id\n" +
+            "    inner join certificate_tag ct on oc.certificate_id = ct.certificate_id\n" +
+            "group by o.user_id, ct.tag_id";
+
+    @Autowired
+    public PurchaseStatisticsDao(EntityManager em) {
+        this.em = em;
+    }
+
+    public void addSpending(long userId, BigDecimal amount) {
+        UserSpending spending = em.find(UserSpending.class, userId);
+        if (spending == null) {
+            em.persist(new UserSpending(userId, amount));
+        } else {
+            spending.setTotalSpent(spending.getTotalSpent().add(amount));
+        }
+    }
+
+    public void addTagPurchases(long userId, Map<Long, Long> purchasesByTagId) {
+        if (purchasesByTagId.isEmpty()) {
+            return;
+        }
+        Map<Long, UserTagPurchase> purchases = em.createQuery(SQL_FIND_TAG_PURCHASES, UserTagPurchase.class)
+                .setParameter("userId", userId)
+                .setParameter("tagIds", purchasesByTagId.keySet())
+                .getResultList()
+                .stream()
+                .collect(Collectors.toMap(UserTagPurchase::getTagId, Function.identity()));
+        purchasesByTagId.forEach((tagId, count) -> {
+            UserTagPurchase purchase = purchases.get(tagId);
+            if (purchase == null) {
+                em.persist(new UserTagPurchase(userId, tagId, count));
+            } else {
+                purchase.setPurchaseCount(purchase.getPurchaseCount() + count);
+            }
+        });
+    }
+
+    /**
+     * @return id of the user with the highest total spending, the lowest id among equal spendings
+     */
+    public Optional<Long> findTopSpenderId() {
+        List<Long> ids = em.createQuery(SQL_FIND_TOP_SPENDER_ID, Long.class)
+                .setMaxResults(1)
+                .getResultList();
+        return ids.stream().findFirst();
+    }
+
+    /**
+     * @return id of the tag the user bought most, the lowest id among equal counts
+     */
+    public Optional<Long> findMostPurchasedTagId(long userId) {
+        List<Long> ids = em.createQuery(SQL_FIND_MOST_PURCHASED_TAG_ID, Long.class)
+                .setParameter("userId", userId)
+                .setMaxResults(1)
+                .getResultList();
+        return ids.stream().findFirst();
+    }
+
+    public void deleteTagPurchases(long tagId) {
+        em.createQuery(SQL_DELETE_TAG_PURCHASES_BY_TAG_ID)
+                .setParameter("tagId", tagId)
+                .executeUpdate();
+    }
+
+    /**
+     * Recomputes all aggregates from the orders. The user rows are locked first, so orders created
+     * meanwhile wait for the rebuild instead of updating aggregates that are being replaced.
+     */
+    public void rebuild() {
+        em.createNativeQuery(SQL_LOCK_USERS).getResultList();
+        em.createQuery(SQL_DELETE_TAG_PURCHASES).executeUpdate();
+        em.createQuery(SQL_DELETE_SPENDINGS).executeUpdate();
+        int spendings = em.createNativeQuery(SQL_REBUILD_SPENDINGS).executeUpdate();
+        int tagPurchases = em.createNativeQuery(SQL_REBUILD_TAG_PURCHASES).executeUpdate();
+        log.info("Rebuilt purchase statistics: {} user spendings, {} user tag purchases", spendings, tagPurchases);
+    }
+}
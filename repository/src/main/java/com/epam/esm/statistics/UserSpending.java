@@ -0,0 +1,25 @@
+package com.epam.esm.statistics;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+
+/**
+ * Sum of the total prices of the user's orders.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+@Entity
+@Table(name = "user_spending", indexes = @Index(name = "user_spending_total_spent_user_id_idx",
+        columnList = "total_spent DESC, user_id"))
+public class UserSpending {
+    @Id
+    @Column(name = "user_id")
+    private long userId;
+    @Column(name = "total_spent", nullable = false)
+    private BigDecimal totalSpent;
+}
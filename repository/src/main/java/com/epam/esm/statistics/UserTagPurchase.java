@@ -0,0 +1,39 @@
+package com.epam.esm.statistics;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.io.Serializable;
+
+/**
+ * Number of certificates with the tag in the user's orders, a certificate ordered twice is counted twice.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+@Entity
+@IdClass(UserTagPurchase.Key.class)
+@Table(name = "user_tag_purchase", indexes = @Index(name = "user_tag_purchase_user_id_purchase_count_idx",
+        columnList = "user_id, purchase_count DESC, tag_id"))
+public class UserTagPurchase {
+    @Id
+    @Column(name = "user_id")
+    private long userId;
+    @Id
+    @Column(name = "tag_id")
+    private long tagId;
+    @Column(name = "purchase_count", nullable = false)
+    private long purchaseCount;
+
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Getter
+    @Setter
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private long userId;
+        private long tagId;
+    }
+}
@@ -1,6 +1,7 @@
 package com.epam.esm.tag;
 
 import com.epam.esm.certificate.Certificate;
+import com.epam.esm.id.PooledLoSequenceGenerator;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -8,6 +9,11 @@ import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import lombok.EqualsAndHashCode;
 import lombok.NonNull;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 import javax.persistence.*;
 import javax.validation.constraints.NotBlank;
@@ -20,10 +26,14 @@ import java.util.List;
 @Setter
 @EqualsAndHashCode
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "tag")
 public class Tag {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tag_id")
+    @GenericGenerator(name = "tag_id", strategy = PooledLoSequenceGenerator.STRATEGY,
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "tag_id_seq"))
     private long id;
     @NonNull
     @NotBlank
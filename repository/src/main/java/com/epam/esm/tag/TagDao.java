@@ -1,11 +1,17 @@
 package com.epam.esm.tag;
 
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.annotations.QueryHints;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
 import javax.persistence.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Slf4j
@@ -13,24 +19,17 @@ import java.util.Optional;
 public class TagDao {
     @PersistenceContext
     private final EntityManager em;
-    private static final String SQL_FIND_TAGS = "select t from Tag t";
+    private static final String CERTIFICATE_TAGS_CACHE_REGION = "com.epam.esm.certificate.Certificate.tags";
+    private static final String SQL_FIND_TAGS = "select t from Tag t order by t.id";
     private static final String SQL_FIND_COUNT_OF_TAGS = "select count(t) from Tag t";
     private static final String SQL_FIND_BY_CERTIFICATE_ID = "SELECT t from Tag t" +
             " inner join t.certificates c where c.id =: id";
+    private static final String SQL_FIND_NAMES_BY_CERTIFICATE_IDS = "select c.id, t.name from Tag t" +
+            " inner join t.certificates c where c.id in :ids";
+    private static final String SQL_FIND_BY_CERTIFICATE_IDS = "select c.id, t from Tag t" +
+            " inner join t.certificates c where c.id in :ids";
     private static final String SQL_FIND_BY_NAME = "select t from Tag t where t.name =: name";
-    private static final String SQL_VALUED_TAG = "select t.id , t.name from tag t\n" +
-            "                              inner join certificate_tag ct on t.id = ct.tag_id\n" +
-            "                              inner join certificate c on ct.certificate_id = c.id\n" +
-            "                              inner join order_certificate oc on c.id = oc.certificate_id\n" +
-            "                              inner join orders o on oc.order_id = o.id\n" +
-            "                              inner join users u on o.user_id = u.id\n" +
-            "where u.id = (select rm.l from (SELECT u.id l, SUM(o.total_price) SumPrice\n" +
-            "                                FROM users u\n" +
-            "                                         inner join orders o on u.id = o.user_id\n" +
-            "                                         inner join order_certificate on o.id = order_certificate.order_id\n" +
-            "                                         inner join certificate c on order_certificate.certificate_id = c.id\n" +
-            "                                GROUP BY u.id order by SumPrice desc limit 1) rm)  group by t.id order by count(t.id)\n" +
-            "    desc limit 1";
+    private static final String SQL_FIND_BY_NAMES = "select t from Tag t where t.name in :names";
 
     @Autowired
     public TagDao(EntityManager em) {
@@ -41,8 +40,15 @@ public class TagDao {
         em.persist(tag);
     }
 
+    /**
+     * Removes the tag and drops the cached certificate tag collections, which may still reference it.
+     */
     public void delete(Tag tag) {
         em.remove(tag);
+        em.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getCache()
+                .evictCollectionData(CERTIFICATE_TAGS_CACHE_REGION);
     }
 
     public Optional<Tag> find(long id) {
@@ -50,9 +56,17 @@ public class TagDao {
     }
 
     public List<Tag> findTags(Integer page, Integer perPage) {
+        return findTags(page, perPage, perPage);
+    }
+
+    /**
+     * Reads up to limit tags starting from the first one of the page,
+     * limit perPage + 1 tells if there is a next page without counting.
+     */
+    public List<Tag> findTags(Integer page, Integer perPage, int limit) {
         return em.createQuery(SQL_FIND_TAGS, Tag.class)
                 .setFirstResult((page-1) * perPage)
-                .setMaxResults(perPage)
+                .setMaxResults(limit)
                 .getResultList();
     }
 
@@ -68,25 +82,55 @@ public class TagDao {
         return query.getResultList();
     }
 
+    public Map<Long, List<String>> findNamesByCertificateIds(Collection<Long> ids) {
+        Map<Long, List<String>> namesByCertificateId = new HashMap<>();
+        if (ids.isEmpty()) {
+            return namesByCertificateId;
+        }
+        List<Object[]> rows = em.createQuery(SQL_FIND_NAMES_BY_CERTIFICATE_IDS, Object[].class)
+                .setParameter("ids", ids)
+                .getResultList();
+        for (Object[] row : rows) {
+            namesByCertificateId.computeIfAbsent((Long) row[0], id -> new ArrayList<>())
+                    .add((String) row[1]);
+        }
+        return namesByCertificateId;
+    }
+
+    public Map<Long, List<Tag>> findByCertificateIds(Collection<Long> ids) {
+        Map<Long, List<Tag>> tagsByCertificateId = new HashMap<>();
+        if (ids.isEmpty()) {
+            return tagsByCertificateId;
+        }
+        List<Object[]> rows = em.createQuery(SQL_FIND_BY_CERTIFICATE_IDS, Object[].class)
+                .setParameter("ids", ids)
+                .getResultList();
+        for (Object[] row : rows) {
+            tagsByCertificateId.computeIfAbsent((Long) row[0], id -> new ArrayList<>())
+                    .add((Tag) row[1]);
+        }
+        return tagsByCertificateId;
+    }
+
     public Optional<Tag> findByName(String name) {
         TypedQuery<Tag> query = em.createQuery(
                 SQL_FIND_BY_NAME,
                 Tag.class);
         query.setParameter("name", name);
+        query.setHint(QueryHints.CACHEABLE, true);
         List<Tag> result = query.getResultList();
         Tag tag = result.size() == 0 ?
                 null : result.get(0);
         return Optional.ofNullable(tag);
     }
 
-    public Optional<Tag> GetValuedUsersMostPopularTag() {
-        Query query = em.createNativeQuery(SQL_VALUED_TAG, Tag.class);
-        try {
-            Tag tag = (Tag) query.getSingleResult();
-            return Optional.ofNullable(tag);
-        } catch (NoResultException ex) {
-            return Optional.empty();
+    public List<Tag> findByNames(Collection<String> names) {
+        if (names.isEmpty()) {
+            return new ArrayList<>();
         }
+        return em.createQuery(SQL_FIND_BY_NAMES, Tag.class)
+                .setParameter("names", names)
+                .getResultList();
     }
 
 }
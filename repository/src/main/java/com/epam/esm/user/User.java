@@ -1,7 +1,13 @@
 package com.epam.esm.user;
 
+import com.epam.esm.id.PooledLoSequenceGenerator;
 import com.epam.esm.order.Order;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 import javax.persistence.*;
 import java.util.List;
@@ -13,10 +19,14 @@ import java.util.List;
 @Setter
 @EqualsAndHashCode
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "users")
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_id")
+    @GenericGenerator(name = "user_id", strategy = PooledLoSequenceGenerator.STRATEGY,
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "users_id_seq"))
     private long id;
     @Column(name = "first_name")
     private String firstName;
@@ -5,6 +5,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
 import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
 import javax.persistence.NoResultException;
 import javax.persistence.PersistenceContext;
 import javax.persistence.TypedQuery;
@@ -38,19 +39,35 @@ public class UserDao {
         em.remove(user);
     }
 
+    /**
+     * Locks the user's row until the end of the transaction, serializing writes made on behalf of the user.
+     */
+    public void lock(User user) {
+        em.lock(user, LockModeType.PESSIMISTIC_WRITE);
+    }
+
     public Optional<User> find(long id) {
         return Optional.ofNullable(em.find(User.class,id));
     }
 
     public List<User> findUsers(Integer page, Integer perPage) {
+        return findUsers(page, perPage, perPage);
+    }
+
+    /**
+     * Reads up to limit users starting from the first one of the page,
+     * limit perPage + 1 tells if there is a next page without counting.
+     */
+    public List<User> findUsers(Integer page, Integer perPage, int limit) {
         CriteriaBuilder cb = em.getCriteriaBuilder();
         CriteriaQuery<User> query = cb.createQuery(User.class);
         Root<User> root = query.from(User.class);
-        query.select(root);
+        query.select(root)
+                .orderBy(cb.asc(root.get(User_.id)));
 
         return em.createQuery(query)
                 .setFirstResult((page-1) * perPage)
-                .setMaxResults(perPage)
+                .setMaxResults(limit)
                 .getResultList();
     }
 
@@ -0,0 +1,9 @@
+-- Indexes for GET /api/v1/certificates?textPart=
+-- Scripts in this directory are idempotent, apply them in order with psql.
+-- pg_trgm lets the SUBSTRING mode (name LIKE '%x%' or description LIKE '%x%') use GIN indexes.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS certificate_name_trgm_idx ON certificate USING gin (name gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS certificate_description_trgm_idx ON certificate USING gin (description gin_trgm_ops);
+-- FULL_TEXT mode, must be the same expression as in CertificatePostgreSQLDialect.
+CREATE INDEX IF NOT EXISTS certificate_text_search_idx ON certificate
+    USING gin (to_tsvector('simple', name || ' ' || description));
@@ -0,0 +1,3 @@
+-- Index for GET /api/v1/users/me/orders, history is read by user newest first
+-- and paged by seeking past the (purchase_date, id) of the last returned order.
+CREATE INDEX IF NOT EXISTS orders_user_id_purchase_date_id_idx ON orders (user_id, purchase_date, id);
@@ -0,0 +1,28 @@
+-- Aggregates for GET /api/v1/tags/most-widely-tag, kept up to date by every order.
+-- Creates the tables if the schema was not updated by Hibernate and fills them from the existing orders,
+-- the same recomputation as POST /api/v1/tags/most-widely-tag/rebuild.
+CREATE TABLE IF NOT EXISTS user_spending (
+    user_id BIGINT PRIMARY KEY,
+    total_spent NUMERIC(19, 2) NOT NULL
+);
+CREATE INDEX IF NOT EXISTS user_spending_total_spent_user_id_idx ON user_spending (total_spent DESC, user_id);
+CREATE TABLE IF NOT EXISTS user_tag_purchase (
+    user_id BIGINT NOT NULL,
+    tag_id BIGINT NOT NULL,
+    purchase_count BIGINT NOT NULL,
+    PRIMARY KEY (user_id, tag_id)
+);
+CREATE INDEX IF NOT EXISTS user_tag_purchase_user_id_purchase_count_idx
+    ON user_tag_purchase (user_id, purchase_count DESC, tag_id);
+BEGIN;
+SELECT id FROM users FOR UPDATE;
+DELETE FROM user_tag_purchase;
+DELETE FROM user_spending;
+INSERT INTO user_spending (user_id, total_spent)
+SELECT o.user_id, sum(o.total_price) FROM orders o GROUP BY o.user_id;
+INSERT INTO user_tag_purchase (user_id, tag_id, purchase_count)
+SELECT o.user_id, ct.tag_id, count(*) FROM orders o
+    INNER JOIN order_certificate oc ON o.id = oc.order_id
+    INNER JOIN certificate_tag ct ON oc.certificate_id = ct.certificate_id
+GROUP BY o.user_id, ct.tag_id;
+COMMIT;
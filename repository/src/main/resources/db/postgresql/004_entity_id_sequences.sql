@@ -0,0 +1,21 @@
+-- Per-entity id sequences for PooledLoSequenceGenerator, replacing the shared hibernate_sequence.
+-- Apply before starting the version that uses them, otherwise Hibernate creates the sequences starting at 1.
+-- INCREMENT BY must equal spring.jpa.properties.com.epam.esm.id.allocation_size, rerun with the new value
+-- after changing it. Every sequence continues after the highest existing id.
+CREATE SEQUENCE IF NOT EXISTS certificate_id_seq;
+CREATE SEQUENCE IF NOT EXISTS tag_id_seq;
+CREATE SEQUENCE IF NOT EXISTS orders_id_seq;
+CREATE SEQUENCE IF NOT EXISTS users_id_seq;
+ALTER SEQUENCE certificate_id_seq INCREMENT BY 50;
+ALTER SEQUENCE tag_id_seq INCREMENT BY 50;
+ALTER SEQUENCE orders_id_seq INCREMENT BY 50;
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
+-- Blocks already handed out by running instances stay below the next value, so the script can be rerun.
+SELECT setval('certificate_id_seq', GREATEST((SELECT COALESCE(MAX(id), 0) + 1 FROM certificate),
+    (SELECT last_value + 50 FROM certificate_id_seq)), false);
+SELECT setval('tag_id_seq', GREATEST((SELECT COALESCE(MAX(id), 0) + 1 FROM tag),
+    (SELECT last_value + 50 FROM tag_id_seq)), false);
+SELECT setval('orders_id_seq', GREATEST((SELECT COALESCE(MAX(id), 0) + 1 FROM orders),
+    (SELECT last_value + 50 FROM orders_id_seq)), false);
+SELECT setval('users_id_seq', GREATEST((SELECT COALESCE(MAX(id), 0) + 1 FROM users),
+    (SELECT last_value + 50 FROM users_id_seq)), false);
@@ -0,0 +1,11 @@
+-- Change feed for GET /api/v1/certificates/changes.
+-- Certificates are read by (modification_date, id), which is now also set on creation, so the dates of
+-- certificates that were never modified are filled in. Deleted certificates are kept as tombstones.
+UPDATE certificate SET modification_date = creation_date WHERE modification_date IS NULL;
+CREATE INDEX IF NOT EXISTS certificate_modification_date_id_idx ON certificate (modification_date, id);
+CREATE TABLE IF NOT EXISTS certificate_tombstone (
+    certificate_id BIGINT PRIMARY KEY,
+    deletion_date TIMESTAMP NOT NULL
+);
+CREATE INDEX IF NOT EXISTS certificate_tombstone_deletion_date_id_idx
+    ON certificate_tombstone (deletion_date, certificate_id);
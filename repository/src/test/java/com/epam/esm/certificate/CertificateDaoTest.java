@@ -0,0 +1,103 @@
+package com.epam.esm.certificate;
+
+import com.epam.esm.dialect.CertificateH2Dialect;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.util.ReflectionUtils;
+
+import javax.persistence.EntityManager;
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+public class CertificateDaoTest {
+    private EmbeddedDatabase database;
+    private LocalContainerEntityManagerFactoryBean entityManagerFactory;
+    private EntityManager em;
+    private CertificateDao certificateDao;
+
+    @Before
+    public void init() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        Properties properties = new Properties();
+        properties.setProperty("hibernate.dialect", CertificateH2Dialect.class.getName());
+        properties.setProperty("hibernate.hbm2ddl.auto", "create-drop");
+        properties.setProperty("hibernate.cache.use_second_level_cache", "false");
+        properties.setProperty("javax.persistence.validation.mode", "none");
+        entityManagerFactory = new LocalContainerEntityManagerFactoryBean();
+        entityManagerFactory.setDataSource(database);
+        entityManagerFactory.setPackagesToScan("com.epam.esm");
+        entityManagerFactory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        entityManagerFactory.setJpaProperties(properties);
+        entityManagerFactory.afterPropertiesSet();
+        em = entityManagerFactory.getObject().createEntityManager();
+        em.getTransaction().begin();
+        certificateDao = new CertificateDao(em);
+        setTextSearchMode(TextSearchMode.FULL_TEXT);
+    }
+
+    @After
+    public void close() {
+        em.getTransaction().rollback();
+        em.close();
+        entityManagerFactory.destroy();
+        database.shutdown();
+    }
+
+    @Test
+    public void findCertificates_relevanceCursorOnTiedRanks_shouldReadEveryRowOnce() {
+        //Given
+        List<Long> expected = new ArrayList<>();
+        expected.add(create("spa first", "description"));
+        for (int i = 0; i < 5; i++) {
+            expected.add(create("tied spa " + i, "description"));
+        }
+        expected.add(create("last", "with spa"));
+        em.flush();
+        em.clear();
+
+        //When
+        List<Long> ids = new ArrayList<>();
+        CertificateCursor cursor = null;
+        do {
+            CertificateSlice slice = certificateDao.findCertificates(Collections.emptyList(), "spa",
+                    "relevance", cursor, 2);
+            ids.addAll(slice.getContent().stream()
+                    .map(Certificate::getId)
+                    .collect(Collectors.toList()));
+            cursor = slice.getNextCursor() == null ? null : CertificateCursor.decode(slice.getNextCursor().encode());
+        } while (cursor != null);
+
+        //Then
+        assertEquals(expected, ids);
+    }
+
+    private long create(String name, String description) {
+        Certificate certificate = new Certificate(name, description, BigDecimal.TEN, 5);
+        certificate.setStatus(CertificateStatus.ACTIVE);
+        certificate.setTags(new ArrayList<>());
+        certificateDao.create(certificate);
+        return certificate.getId();
+    }
+
+    private void setTextSearchMode(TextSearchMode textSearchMode) {
+        Field field = ReflectionUtils.findField(CertificateDao.class, "textSearchMode");
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, certificateDao, textSearchMode);
+    }
+}
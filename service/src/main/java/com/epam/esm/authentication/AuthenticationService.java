@@ -1,13 +1,13 @@
 package com.epam.esm.authentication;
 
 import com.epam.esm.jwt.JwtTokenProvider;
-import com.epam.esm.user.User;
-import com.epam.esm.user.UserDao;
+import com.epam.esm.jwt.JwtUser;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.stereotype.Service;
 
@@ -15,26 +15,22 @@ import org.springframework.stereotype.Service;
 public class AuthenticationService {
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider jwtTokenProvider;
-    private final UserDao userDao;
     @Value("${jwt.token.expired}")
     private long validityInMilliseconds;
 
     @Autowired
     public AuthenticationService(AuthenticationManager authenticationManager,
-                                 JwtTokenProvider jwtTokenProvider,
-                                 UserDao userDao) {
+                                 JwtTokenProvider jwtTokenProvider) {
         this.authenticationManager = authenticationManager;
         this.jwtTokenProvider = jwtTokenProvider;
-        this.userDao = userDao;
     }
 
     public AuthenticationResultDto getAuthenticationResult(AuthenticationRequestDto requestDto) {
         try {
             String username = requestDto.getUsername();
-            authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(username, requestDto.getPassword()));
-            User user = userDao.findUserByLogin(username)
-                    .orElseThrow(() -> new BadCredentialsException("Invalid username or password"));
-            String token = jwtTokenProvider.createToken(username, user.getRole());
+            Authentication authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(username, requestDto.getPassword()));
+            String token = jwtTokenProvider.createToken((JwtUser) authentication.getPrincipal());
             return new AuthenticationResultDto(token, validityInMilliseconds);
         } catch (AuthenticationException e) {
             throw new BadCredentialsException("Invalid username or password");
@@ -0,0 +1,106 @@
+package com.epam.esm.certificate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Feed of certificate changes in (change date, id) order, read from the indexed modification date
+ * of certificates and from the tombstones of deleted ones.
+ * <p>
+ * Every certificate appears once with its current state, at the time of its last change. Changes newer
+ * than certificate.changes.settle-time are held back, so a transaction that stamped its change before
+ * a later one but committed after it is not skipped by clients that already moved past it.
+ * </p>
+ */
+@Service
+@Transactional
+public class CertificateChangeService {
+    public static final int MAX_LIMIT = 1000;
+
+    private final CertificateDao certificateDao;
+    private final CertificateDtoMapper certificateDtoMapper;
+    private final Duration settleTime;
+
+    @Autowired
+    public CertificateChangeService(CertificateDao certificateDao,
+                                    CertificateDtoMapper certificateDtoMapper,
+                                    @Value("${certificate.changes.settle-time:5s}") Duration settleTime) {
+        this.certificateDao = certificateDao;
+        this.certificateDtoMapper = certificateDtoMapper;
+        this.settleTime = settleTime;
+    }
+
+    /**
+     * @param since cursor from the previous page, null or empty to read from the first change
+     */
+    public CertificateChangesDto findChanges(String since, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        CertificateChangeCursor after = since == null || since.isEmpty() ?
+                null : CertificateChangeCursor.decode(since);
+        LocalDateTime until = LocalDateTime.now().minus(settleTime);
+        List<Certificate> certificates = certificateDao.findCertificatesChangedAfter(after, until, limit + 1);
+        List<CertificateTombstone> tombstones = certificateDao.findTombstonesAfter(after, until, limit + 1);
+
+        List<Certificate> changedCertificates = new ArrayList<>();
+        List<CertificateChangeDto> changes = new ArrayList<>();
+        int certificateIndex = 0;
+        int tombstoneIndex = 0;
+        while (changes.size() < limit
+                && (certificateIndex < certificates.size() || tombstoneIndex < tombstones.size())) {
+            Certificate certificate = certificateIndex < certificates.size()
+                    ? certificates.get(certificateIndex) : null;
+            CertificateTombstone tombstone = tombstoneIndex < tombstones.size()
+                    ? tombstones.get(tombstoneIndex) : null;
+            if (tombstone == null || (certificate != null && isBefore(certificate, tombstone))) {
+                changedCertificates.add(certificate);
+                changes.add(new CertificateChangeDto(changeType(certificate), certificate.getId(),
+                        certificate.getModificationDate(), null));
+                certificateIndex++;
+            } else {
+                changes.add(new CertificateChangeDto(CertificateChangeDto.DELETED, tombstone.getCertificateId(),
+                        tombstone.getDeletionDate(), null));
+                tombstoneIndex++;
+            }
+        }
+        boolean hasMore = certificateIndex < certificates.size() || tombstoneIndex < tombstones.size();
+
+        List<CertificateDto> certificateDtos = certificateDtoMapper.toDtos(changedCertificates);
+        int dtoIndex = 0;
+        for (CertificateChangeDto change : changes) {
+            if (!CertificateChangeDto.DELETED.equals(change.getType())) {
+                change.setCertificate(certificateDtos.get(dtoIndex++));
+            }
+        }
+
+        String next = since;
+        if (!changes.isEmpty()) {
+            CertificateChangeDto last = changes.get(changes.size() - 1);
+            next = new CertificateChangeCursor(last.getDate(), last.getId()).encode();
+        }
+        return new CertificateChangesDto(changes, next, hasMore);
+    }
+
+    private static boolean isBefore(Certificate certificate, CertificateTombstone tombstone) {
+        int byDate = certificate.getModificationDate().compareTo(tombstone.getDeletionDate());
+        return byDate < 0 || (byDate == 0 && certificate.getId() < tombstone.getCertificateId());
+    }
+
+    private static String changeType(Certificate certificate) {
+        if (certificate.getStatus() == CertificateStatus.INACTIVE) {
+            return CertificateChangeDto.DEACTIVATED;
+        }
+        if (certificate.getModificationDate().equals(certificate.getCreationDate())) {
+            return CertificateChangeDto.CREATED;
+        }
+        return CertificateChangeDto.UPDATED;
+    }
+}
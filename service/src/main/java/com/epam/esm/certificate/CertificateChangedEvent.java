@@ -0,0 +1,14 @@
+package com.epam.esm.certificate;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by {@link CertificateService} after a certificate or its tags were changed.
+ * Listeners that keep copies of certificates should react to it after the commit.
+ */
+@AllArgsConstructor
+@Getter
+public class CertificateChangedEvent {
+    private final CertificateSnapshot certificate;
+}
@@ -0,0 +1,24 @@
+package com.epam.esm.certificate;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Page of the certificate change feed. next is the cursor to ask for the following changes with, it stays
+ * the same while there are no new changes, hasMore tells if more changes can be read right away.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+public class CertificateChangesDto {
+    private List<CertificateChangeDto> changes;
+    private String next;
+    private boolean hasMore;
+}
@@ -2,68 +2,86 @@ package com.epam.esm.certificate;
 
 import com.epam.esm.tag.Tag;
 import com.epam.esm.tag.TagDao;
-import org.modelmapper.Converter;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Component
 public class CertificateDtoMapper{
-    private final ModelMapper mapper;
     private final TagDao tagDao;
 
     @Autowired
-    public CertificateDtoMapper(ModelMapper modelMapper,
-                                TagDao tagDao) {
-        this.mapper = modelMapper;
+    public CertificateDtoMapper(TagDao tagDao) {
         this.tagDao = tagDao;
     }
 
-    @PostConstruct
-    public void setupMapper() {
-        mapper.createTypeMap(Certificate.class, CertificateDto.class)
-                .addMappings(m -> m.skip(CertificateDto::setTags)).setPostConverter(toDtoConverter());
-        mapper.createTypeMap(CertificateDto.class, Certificate.class)
-                .addMappings(m-> m.skip(Certificate::setTags)).setPostConverter(toEntityConverter());
+    public CertificateDto toDto(Certificate source) {
+        return toDtos(Collections.singletonList(source)).get(0);
     }
 
-    public Converter<Certificate, CertificateDto> toDtoConverter() {
-        return context -> {
-            Certificate source = context.getSource();
-            CertificateDto destination = context.getDestination();
-            mapSpecificFields(source, destination);
-            return context.getDestination();
-        };
+    /**
+     * Maps certificates with the tag names of all of them read by one query.
+     */
+    public List<CertificateDto> toDtos(List<Certificate> certificates) {
+        Map<Long, List<String>> tagNames = tagDao.findNamesByCertificateIds(certificates.stream()
+                .map(Certificate::getId)
+                .collect(Collectors.toList()));
+        return certificates.stream()
+                .map(certificate -> toDto(certificate,
+                        tagNames.getOrDefault(certificate.getId(), new ArrayList<>())))
+                .collect(Collectors.toList());
     }
 
-    public Converter<CertificateDto, Certificate> toEntityConverter() {
-        return context -> {
-            CertificateDto source = context.getSource();
-            Certificate destination = context.getDestination();
-            mapSpecificFields(source, destination);
-            return context.getDestination();
-        };
+    public CertificateDto toDto(CertificateSnapshot source) {
+        return new CertificateDto(source.getId(), source.getName(), source.getDescription(), source.getPrice(),
+                source.getCreationDate(), source.getModificationDate(), source.getDuration(), source.getStatus(),
+                new ArrayList<>(source.getTags()));
     }
 
-    public void mapSpecificFields(Certificate source, CertificateDto destination) {
-        List<Tag> certificateTags = tagDao.findByCertificateId(source.getId());
-        destination.setTags(certificateTags.stream()
-                .map(Tag::getName)
-                .collect(Collectors.toList()));
+    /**
+     * Maps the certificate with distinct tags, tags that already exist are read by name.
+     */
+    public Certificate toEntity(CertificateDto source) {
+        return toEntity(source, name -> tagDao.findByName(name).orElse(new Tag(name)));
+    }
+
+    /**
+     * Maps the certificate with distinct tags taken from tagsByName, which must contain all its tag names.
+     */
+    public Certificate toEntity(CertificateDto source, Map<String, Tag> tagsByName) {
+        return toEntity(source, tagsByName::get);
     }
 
-    public void mapSpecificFields(CertificateDto source, Certificate destination) {
-        List<String> tagsAsString = source.getTags()
+    private Certificate toEntity(CertificateDto source, Function<String, Tag> tagByName) {
+        Certificate destination = new Certificate();
+        destination.setId(source.getId());
+        destination.setName(source.getName());
+        destination.setDescription(source.getDescription());
+        destination.setPrice(source.getPrice());
+        destination.setCreationDate(source.getCreationDate());
+        destination.setModificationDate(source.getModificationDate());
+        if(source.getDuration() != null) {
+            destination.setDuration(source.getDuration());
+        }
+        destination.setStatus(source.getStatus());
+        List<Tag> tags = source.getTags()
                 .stream()
                 .distinct()
+                .map(tagByName)
                 .collect(Collectors.toList());
-        List<Tag> tagsAsObjects = tagsAsString.stream()
-                .map(name -> tagDao.findByName(name).orElse(new Tag(name)))
-                .collect(Collectors.toList());
-        destination.setTags(tagsAsObjects);
+        destination.setTags(tags);
+        return destination;
+    }
+
+    private static CertificateDto toDto(Certificate source, List<String> tags) {
+        return new CertificateDto(source.getId(), source.getName(), source.getDescription(), source.getPrice(),
+                source.getCreationDate(), source.getModificationDate(), source.getDuration(), source.getStatus(),
+                tags);
     }
 }
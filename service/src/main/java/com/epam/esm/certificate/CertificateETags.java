@@ -0,0 +1,76 @@
+package com.epam.esm.certificate;
+
+import com.epam.esm.http.ETags;
+import com.epam.esm.pagination.SlicedModel;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.http.MediaType;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ETags of the public certificate reads, used by GET /api/v1/certificates and GET /api/v1/certificates/{id}
+ * of both the servlet and the catalog application, so a conditional GET routed to either of them matches.
+ */
+public final class CertificateETags {
+
+    private CertificateETags() {
+    }
+
+    /**
+     * Links of the page only depend on the request, so the ETag is made of the versions of the certificates
+     * and the position of the page.
+     */
+    public static String page(PagedModel<CertificateDto> pagedModel) {
+        List<Object> parts = new ArrayList<>();
+        if (pagedModel instanceof SlicedModel) {
+            SlicedModel<CertificateDto> slicedModel = (SlicedModel<CertificateDto>) pagedModel;
+            parts.add(slicedModel.getNumber());
+            parts.add(slicedModel.hasNext());
+            parts.add(slicedModel.getNextCursor());
+            parts.add(slicedModel.getPreviousCursor());
+        } else {
+            parts.add(pagedModel.getMetadata());
+        }
+        for (CertificateDto certificate : pagedModel.getContent()) {
+            parts.add(certificate.getId());
+            parts.add(version(certificate));
+        }
+        return ETags.of(parts.toArray());
+    }
+
+    /**
+     * @param mediaType content type of the body, see {@link #mediaType(List)}
+     * @param gzip      whether the body is gzip encoded
+     */
+    public static String certificate(CertificateDto certificate, MediaType mediaType, boolean gzip) {
+        return ETags.of(certificate.getId(), version(certificate), mediaType, gzip);
+    }
+
+    /**
+     * HAL unless the client only accepts plain JSON, like MVC chooses for other certificate responses.
+     *
+     * @param accepted media types of the Accept header, empty when there is none
+     */
+    public static MediaType mediaType(List<MediaType> accepted) {
+        List<MediaType> sorted = new ArrayList<>(accepted);
+        MediaType.sortBySpecificityAndQuality(sorted);
+        for (MediaType mediaType : sorted) {
+            if (mediaType.isCompatibleWith(MediaTypes.HAL_JSON)) {
+                return MediaTypes.HAL_JSON;
+            }
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return MediaType.APPLICATION_JSON;
+            }
+        }
+        return MediaTypes.HAL_JSON;
+    }
+
+    private static LocalDateTime version(CertificateDto certificate) {
+        return certificate.getModificationDate() != null
+                ? certificate.getModificationDate()
+                : certificate.getCreationDate();
+    }
+}
@@ -0,0 +1,153 @@
+package com.epam.esm.certificate;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Writes the whole certificate catalog in id order as NDJSON or CSV.
+ * <p>
+ * Certificates are read through a forward-only cursor in batches of certificate.export.fetch-size,
+ * with the tag names of a batch read by one query, and written before the next batch is read,
+ * so memory use doesn't depend on the size of the catalog. The export runs in one read only
+ * transaction and sees the catalog as of its first query.
+ * </p>
+ */
+@Service
+public class CertificateExportService {
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final String CSV_HEADER = "id,name,description,price,creationDate,modificationDate," +
+            "duration,status,tags";
+    private static final String CSV_TAG_SEPARATOR = "|";
+
+    private final CertificateDao certificateDao;
+    private final CertificateDtoMapper certificateDtoMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectWriter certificateWriter;
+    private final int fetchSize;
+
+    @Autowired
+    public CertificateExportService(CertificateDao certificateDao,
+                                    CertificateDtoMapper certificateDtoMapper,
+                                    PlatformTransactionManager transactionManager,
+                                    ObjectMapper objectMapper,
+                                    @Value("${certificate.export.fetch-size:500}") int fetchSize) {
+        this.certificateDao = certificateDao;
+        this.certificateDtoMapper = certificateDtoMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.certificateWriter = objectMapper.copy()
+                .addMixIn(CertificateDto.class, WithoutLinks.class)
+                .writerFor(CertificateDto.class);
+        this.fetchSize = fetchSize;
+    }
+
+    public enum Format {
+        NDJSON("ndjson"),
+        CSV("csv");
+
+        private final String name;
+
+        Format(String name) {
+            this.name = name;
+        }
+
+        public static Optional<Format> find(String name) {
+            return Stream.of(values())
+                    .filter(value -> value.name.equals(name))
+                    .findFirst();
+        }
+    }
+
+    @JsonIgnoreProperties("links")
+    private abstract static class WithoutLinks {
+    }
+
+    /**
+     * Writes all certificates to output, which is flushed after every batch but not closed.
+     */
+    public void export(Format format, OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        if (format == Format.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write("\r\n");
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> certificateDao.scrollCertificates(fetchSize,
+                    certificates -> write(format, certificateDtoMapper.toDtos(certificates), writer)));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private void write(Format format, List<CertificateDto> certificates, Writer writer) {
+        try {
+            for (CertificateDto certificate : certificates) {
+                if (format == Format.CSV) {
+                    writeCsv(certificate, writer);
+                } else {
+                    writer.write(certificateWriter.writeValueAsString(certificate));
+                    writer.write('\n');
+                }
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeCsv(CertificateDto certificate, Writer writer) throws IOException {
+        writer.write(Long.toString(certificate.getId()));
+        writer.write(',');
+        writer.write(csvField(certificate.getName()));
+        writer.write(',');
+        writer.write(csvField(certificate.getDescription()));
+        writer.write(',');
+        writer.write(certificate.getPrice().toPlainString());
+        writer.write(',');
+        writer.write(csvDate(certificate.getCreationDate()));
+        writer.write(',');
+        writer.write(csvDate(certificate.getModificationDate()));
+        writer.write(',');
+        writer.write(Integer.toString(certificate.getDuration()));
+        writer.write(',');
+        writer.write(certificate.getStatus() == null ? "" : certificate.getStatus().name());
+        writer.write(',');
+        writer.write(csvField(String.join(CSV_TAG_SEPARATOR, certificate.getTags())));
+        writer.write("\r\n");
+    }
+
+    private static String csvDate(LocalDateTime date) {
+        return date == null ? "" : DATE_FORMAT.format(date);
+    }
+
+    /**
+     * Quotes the value as in RFC 4180 if it contains a separator, quote or line break.
+     */
+    private static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+                && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
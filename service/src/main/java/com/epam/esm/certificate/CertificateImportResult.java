@@ -0,0 +1,35 @@
+package com.epam.esm.certificate;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Outcome of one line of a certificate import, id is set for created certificates and error for failed ones.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CertificateImportResult {
+    public static final String CREATED = "CREATED";
+    public static final String FAILED = "FAILED";
+
+    private int line;
+    private String status;
+    private Long id;
+    private String error;
+
+    public static CertificateImportResult created(int line, long id) {
+        return new CertificateImportResult(line, CREATED, id, null);
+    }
+
+    public static CertificateImportResult failed(int line, String error) {
+        return new CertificateImportResult(line, FAILED, null, error);
+    }
+}
@@ -0,0 +1,189 @@
+package com.epam.esm.certificate;
+
+import com.epam.esm.pagination.CountCache;
+import com.epam.esm.tag.Tag;
+import com.epam.esm.tag.TagDao;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Creates certificates from NDJSON, one {@link CertificateDto} per line, reading the input as a stream.
+ * <p>
+ * Valid lines are imported in chunks of certificate.import.chunk-size, each chunk in its own transaction
+ * with one query for taken names, one for existing tags and batched inserts. A chunk that fails to commit
+ * is imported again line by line, so a bad line only fails itself. Lines that were imported before
+ * stay imported when a later line fails. Results are reported at least every chunk-size lines, invalid lines
+ * included, so a long run of invalid lines isn't held until the end of the input.
+ * </p>
+ */
+@Slf4j
+@Service
+public class CertificateImportService {
+    private final CertificateDao certificateDao;
+    private final TagDao tagDao;
+    private final CertificateDtoMapper certificateDtoMapper;
+    private final CountCache countCache;
+    private final CertificateSearchCache certificateSearchCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int chunkSize;
+
+    @Autowired
+    public CertificateImportService(CertificateDao certificateDao,
+                                    TagDao tagDao,
+                                    CertificateDtoMapper certificateDtoMapper,
+                                    CountCache countCache,
+                                    CertificateSearchCache certificateSearchCache,
+                                    ApplicationEventPublisher eventPublisher,
+                                    PlatformTransactionManager transactionManager,
+                                    ObjectMapper objectMapper,
+                                    Validator validator,
+                                    @Value("${certificate.import.chunk-size:500}") int chunkSize) {
+        this.certificateDao = certificateDao;
+        this.tagDao = tagDao;
+        this.certificateDtoMapper = certificateDtoMapper;
+        this.countCache = countCache;
+        this.certificateSearchCache = certificateSearchCache;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+    }
+
+    @AllArgsConstructor
+    private static class ImportLine {
+        private final int line;
+        private final CertificateDto certificate;
+    }
+
+    /**
+     * @param results called after every chunk-size lines with their results in line order
+     */
+    public void importCertificates(Reader input, Consumer<List<CertificateImportResult>> results)
+            throws IOException {
+        BufferedReader reader = new BufferedReader(input);
+        List<ImportLine> chunk = new ArrayList<>();
+        List<CertificateImportResult> invalid = new ArrayList<>();
+        int line = 0;
+        String text;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (text.trim().isEmpty()) {
+                continue;
+            }
+            CertificateDto certificate = null;
+            try {
+                certificate = objectMapper.readValue(text, CertificateDto.class);
+            } catch (JsonProcessingException e) {
+                invalid.add(CertificateImportResult.failed(line, "Malformed certificate: " + e.getOriginalMessage()));
+            }
+            if (certificate != null) {
+                Set<ConstraintViolation<CertificateDto>> violations = validator.validate(certificate);
+                if (violations.isEmpty()) {
+                    chunk.add(new ImportLine(line, certificate));
+                } else {
+                    invalid.add(CertificateImportResult.failed(line, violations.stream()
+                            .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                            .sorted()
+                            .collect(Collectors.joining(", "))));
+                }
+            }
+            if (chunk.size() + invalid.size() >= chunkSize) {
+                results.accept(inLineOrder(importChunk(chunk), invalid));
+                chunk.clear();
+                invalid.clear();
+            }
+        }
+        if (!chunk.isEmpty() || !invalid.isEmpty()) {
+            results.accept(inLineOrder(importChunk(chunk), invalid));
+        }
+    }
+
+    private List<CertificateImportResult> importChunk(List<ImportLine> chunk) {
+        if (chunk.isEmpty()) {
+            return Collections.emptyList();
+        }
+        try {
+            return transactionTemplate.execute(status -> create(chunk));
+        } catch (RuntimeException e) {
+            if (chunk.size() == 1) {
+                return Collections.singletonList(CertificateImportResult.failed(chunk.get(0).line,
+                        NestedExceptionUtils.getMostSpecificCause(e).getMessage()));
+            }
+            log.warn("Import of lines {}-{} failed, importing them one by one", chunk.get(0).line,
+                    chunk.get(chunk.size() - 1).line, e);
+            return chunk.stream()
+                    .flatMap(importLine -> importChunk(Collections.singletonList(importLine)).stream())
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private List<CertificateImportResult> create(List<ImportLine> chunk) {
+        Set<String> takenNames = new HashSet<>(certificateDao.findNonInactiveCertificateNames(chunk.stream()
+                .map(importLine -> importLine.certificate.getName())
+                .collect(Collectors.toSet())));
+        Map<String, Tag> tags = tagDao.findByNames(chunk.stream()
+                .flatMap(importLine -> importLine.certificate.getTags().stream())
+                .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Tag::getName, Function.identity()));
+        List<CertificateImportResult> results = new ArrayList<>();
+        long newTagsCount = 0;
+        for (ImportLine importLine : chunk) {
+            CertificateDto certificateDto = importLine.certificate;
+            String name = certificateDto.getName();
+            if (!takenNames.add(name)) {
+                results.add(CertificateImportResult.failed(importLine.line,
+                        "Certificate with name '" + name + "' already exists"));
+                continue;
+            }
+            for (String tagName : certificateDto.getTags()) {
+                if (!tags.containsKey(tagName)) {
+                    Tag tag = new Tag(tagName);
+                    tagDao.create(tag);
+                    tags.put(tagName, tag);
+                    newTagsCount++;
+                }
+            }
+            certificateDto.setId(0);
+            Certificate certificate = certificateDtoMapper.toEntity(certificateDto, tags);
+            certificateDao.create(certificate);
+            eventPublisher.publishEvent(new CertificateChangedEvent(CertificateSnapshot.of(certificate)));
+            results.add(CertificateImportResult.created(importLine.line, certificate.getId()));
+        }
+        countCache.adjust(CountCache.TAGS, CountCache.NO_FILTER, newTagsCount);
+        countCache.invalidate(CountCache.CERTIFICATES);
+        certificateSearchCache.invalidate();
+        return results;
+    }
+
+    private static List<CertificateImportResult> inLineOrder(List<CertificateImportResult> imported,
+                                                             List<CertificateImportResult> invalid) {
+        List<CertificateImportResult> results = new ArrayList<>(imported);
+        results.addAll(invalid);
+        results.sort(Comparator.comparingInt(CertificateImportResult::getLine));
+        return results;
+    }
+}
@@ -0,0 +1,128 @@
+package com.epam.esm.certificate;
+
+import com.epam.esm.pagination.SlicedModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.web.util.UriUtils;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Links of the public certificate reads, added by the servlet and the catalog application alike,
+ * so clients follow them to either of the applications. Each application only resolves the base URI
+ * of its request.
+ * <p>
+ * Path variables and query parameters are encoded the same way as by an expanded link of the HATEOAS
+ * link builder, array elements are joined by commas.
+ * </p>
+ */
+public final class CertificateLinks {
+    public static final String CERTIFICATES = "/api/v1/certificates";
+
+    private CertificateLinks() {
+    }
+
+    /**
+     * @param baseUri scheme, host, port and context path of the request, empty for relative links
+     */
+    public static void addPaginationLinks(PagedModel<CertificateDto> model, String baseUri, String[] tagNames,
+                                          String textPart, String orderBy, String after) {
+        if (model instanceof SlicedModel) {
+            SlicedModel<CertificateDto> slice = (SlicedModel<CertificateDto>) model;
+            if (slice.isCursorBased()) {
+                addCursorLinks(slice, baseUri, tagNames, textPart, orderBy, after);
+            } else {
+                addSliceLinks(slice, baseUri, tagNames, textPart, orderBy);
+            }
+            return;
+        }
+        PagedModel.PageMetadata metadata = model.getMetadata();
+        int curPage = (int) metadata.getNumber();
+        int size = (int) metadata.getSize();
+        int totalPages = (int) metadata.getTotalPages();
+        if (curPage < totalPages) {
+            model.add(Link.of(certificates(baseUri, tagNames, textPart, orderBy, curPage + 1, size, null, null),
+                    "next"));
+            model.add(Link.of(certificates(baseUri, tagNames, textPart, orderBy, totalPages, size, null, null),
+                    "last"));
+        }
+        if (curPage > 1) {
+            model.add(Link.of(certificates(baseUri, tagNames, textPart, orderBy, curPage - 1, size, null, null),
+                    "prev"));
+        }
+        model.add(Link.of(certificates(baseUri, tagNames, textPart, orderBy, curPage, size, null, null),
+                IanaLinkRelations.SELF));
+        model.getContent().forEach(certificate -> addSelfRelLinks(certificate, baseUri));
+    }
+
+    private static void addCursorLinks(SlicedModel<CertificateDto> model, String baseUri, String[] tagNames,
+                                       String textPart, String orderBy, String after) {
+        int size = model.getSize();
+        if (model.hasNext()) {
+            model.add(Link.of(certificates(baseUri, tagNames, textPart, orderBy, null, size, null,
+                    model.getNextCursor()), "next"));
+        }
+        model.add(Link.of(certificates(baseUri, tagNames, textPart, orderBy, null, size, null, after),
+                IanaLinkRelations.SELF));
+        model.getContent().forEach(certificate -> addSelfRelLinks(certificate, baseUri));
+    }
+
+    private static void addSliceLinks(SlicedModel<CertificateDto> model, String baseUri, String[] tagNames,
+                                      String textPart, String orderBy) {
+        int curPage = (int) model.getNumber();
+        int size = model.getSize();
+        if (model.hasNext()) {
+            model.add(Link.of(certificates(baseUri, tagNames, textPart, orderBy, curPage + 1, size, false, null),
+                    "next"));
+        }
+        if (curPage > 1) {
+            model.add(Link.of(certificates(baseUri, tagNames, textPart, orderBy, curPage - 1, size, false, null),
+                    "prev"));
+        }
+        model.add(Link.of(certificates(baseUri, tagNames, textPart, orderBy, curPage, size, false, null),
+                IanaLinkRelations.SELF));
+        model.getContent().forEach(certificate -> addSelfRelLinks(certificate, baseUri));
+    }
+
+    /**
+     * @param baseUri scheme, host, port and context path of the request, empty for relative links
+     */
+    public static CertificateDto addSelfRelLinks(CertificateDto certificate, String baseUri) {
+        String href = baseUri + CERTIFICATES + "/"
+                + UriUtils.encodePathSegment(String.valueOf(certificate.getId()), StandardCharsets.UTF_8);
+        certificate.add(Link.of(href, IanaLinkRelations.SELF));
+        certificate.add(Link.of(href + "/tags", "certificateTags"));
+        return certificate;
+    }
+
+    private static String certificates(String baseUri, String[] tagNames, String textPart, String orderBy,
+                                       Integer page, int size, Boolean withCount, String after) {
+        StringBuilder href = new StringBuilder(128).append(baseUri).append(CERTIFICATES);
+        param(href, "tagNames", tagNames);
+        param(href, "textPart", textPart);
+        param(href, "orderBy", orderBy);
+        param(href, "page", page);
+        param(href, "perPage", size);
+        param(href, "withCount", withCount);
+        param(href, "after", after);
+        return href.toString();
+    }
+
+    /**
+     * Adds a query parameter unless the value is null.
+     */
+    private static void param(StringBuilder href, String name, Object value) {
+        if (value == null) {
+            return;
+        }
+        href.append(href.indexOf("?") < 0 ? '?' : '&').append(name).append('=');
+        Object[] values = value instanceof Object[] ? (Object[]) value : new Object[]{value};
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                href.append(',');
+            }
+            href.append(UriUtils.encodeQueryParam(String.valueOf(values[i]), StandardCharsets.UTF_8));
+        }
+    }
+}
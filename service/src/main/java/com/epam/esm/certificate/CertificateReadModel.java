@@ -0,0 +1,484 @@
+package com.epam.esm.certificate;
+
+import com.epam.esm.tag.TagDao;
+import com.epam.esm.tag.TagDeletedEvent;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory copy of the searchable certificate fields with a tag name to certificate ids bitmap index.
+ * Tag filters become bitmap intersections, text filtering, ordering and paging run over the snapshot,
+ * so {@link CertificateService#findCertificates} can be served without the database.
+ * <p>
+ * Enabled with certificate.read-model.enabled. The snapshot is loaded when the application is ready
+ * and then updated from {@link CertificateChangedEvent}s and {@link TagDeletedEvent}s after commit,
+ * until it is loaded searches go to SQL.
+ * </p>
+ */
+@Slf4j
+@Component
+public class CertificateReadModel {
+    private static final int LOAD_BATCH_SIZE = 1000;
+    /**
+     * Matches are sorted directly while they are less than 1/8 of the catalog,
+     * bigger result sets are paged by walking the presorted ids.
+     */
+    private static final int SORT_MATCHES_RATIO = 8;
+
+    private final CertificateDao certificateDao;
+    private final TagDao tagDao;
+    private final TransactionTemplate transactionTemplate;
+    @Value("${certificate.read-model.enabled:false}")
+    private boolean enabled;
+    @Value("${certificate.search.text-mode:SUBSTRING}")
+    private TextSearchMode textSearchMode = TextSearchMode.SUBSTRING;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, CertificateSnapshot> certificates = new HashMap<>();
+    private final Map<String, RoaringBitmap> tagIndex = new HashMap<>();
+    private final RoaringBitmap allIds = new RoaringBitmap();
+    private final Map<CertificateOrderBy, int[]> sortedIds = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    @Autowired
+    public CertificateReadModel(CertificateDao certificateDao,
+                                TagDao tagDao,
+                                PlatformTransactionManager transactionManager) {
+        this.certificateDao = certificateDao;
+        this.tagDao = tagDao;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @AllArgsConstructor
+    @Getter
+    public static class SearchResult {
+        private final List<CertificateSnapshot> content;
+        private final int totalElements;
+        private final CertificateCursor nextCursor;
+    }
+
+    /**
+     * @return true if the snapshot is loaded and gives the same matches for textPart as the SQL search.
+     */
+    public boolean canServe(String textPart) {
+        return enabled && loaded
+                && (textSearchMode == TextSearchMode.SUBSTRING || textPart == null || textPart.trim().isEmpty());
+    }
+
+    public SearchResult search(List<String> tagNames, String textPart, String orderBy, int page, int perPage) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap matches = match(tagNames, textPart);
+            int totalElements = matches.getCardinality();
+            long offset = (long) (page - 1) * perPage;
+            if (offset >= totalElements) {
+                return new SearchResult(Collections.emptyList(), totalElements, null);
+            }
+            CertificateOrderBy order = toKeysetOrder(orderBy);
+            List<CertificateSnapshot> content;
+            if (order == CertificateOrderBy.ID) {
+                content = selectInIdOrder(matches, (int) offset, perPage);
+            } else if ((long) totalElements * SORT_MATCHES_RATIO < certificates.size()) {
+                content = selectBySorting(matches, order, (int) offset, perPage);
+            } else {
+                content = selectFromSortedIds(matches, order, (int) offset, perPage);
+            }
+            return new SearchResult(content, totalElements, null);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Keyset variant of the search with the same cursors as {@link CertificateDao#findCertificates}.
+     *
+     * @param after cursor of the previous page, null for the first page
+     */
+    public SearchResult search(List<String> tagNames, String textPart, String orderBy,
+                               CertificateCursor after, int perPage) {
+        CertificateOrderBy order = toKeysetOrder(orderBy);
+        if (after != null && after.getOrderBy() != order) {
+            throw new IllegalArgumentException("Cursor doesn't match orderBy '" + orderBy + "'");
+        }
+        lock.readLock().lock();
+        try {
+            RoaringBitmap matches = match(tagNames, textPart);
+            int totalElements = matches.getCardinality();
+            List<CertificateSnapshot> content;
+            if (order == CertificateOrderBy.ID) {
+                content = selectInIdOrder(matches, after, perPage + 1);
+            } else if ((long) totalElements * SORT_MATCHES_RATIO < certificates.size()) {
+                content = selectBySorting(matches, after, order, perPage + 1);
+            } else {
+                content = selectFromSortedIds(matches, after, order, perPage + 1);
+            }
+            CertificateCursor nextCursor = null;
+            if (content.size() > perPage) {
+                content = new ArrayList<>(content.subList(0, perPage));
+                CertificateSnapshot last = content.get(perPage - 1);
+                nextCursor = new CertificateCursor(order, keyOf(last, order), last.getId());
+            }
+            return new SearchResult(content, totalElements, nextCursor);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onCertificateChanged(CertificateChangedEvent event) {
+        if (enabled) {
+            put(event.getCertificate());
+        }
+    }
+
+    @TransactionalEventListener
+    public void onTagDeleted(TagDeletedEvent event) {
+        if (enabled) {
+            removeTag(event.getTagName(), event.getModificationDate());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        long lastId = 0;
+        int loadedCount = 0;
+        List<CertificateSnapshot> batch;
+        do {
+            long afterId = lastId;
+            batch = transactionTemplate.execute(status -> loadBatch(afterId));
+            lock.writeLock().lock();
+            try {
+                batch.forEach(this::putIfNewer);
+                sortedIds.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (!batch.isEmpty()) {
+                lastId = batch.get(batch.size() - 1).getId();
+                loadedCount += batch.size();
+            }
+        } while (batch.size() == LOAD_BATCH_SIZE);
+        loaded = true;
+        log.info("Certificate read model loaded {} certificates", loadedCount);
+    }
+
+    public void put(CertificateSnapshot certificate) {
+        lock.writeLock().lock();
+        try {
+            remove(certificate.getId());
+            insert(certificate);
+            sortedIds.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the tag from the index and from the certificates that had it.
+     *
+     * @param modificationDate new modification date of these certificates
+     */
+    public void removeTag(String tagName, LocalDateTime modificationDate) {
+        lock.writeLock().lock();
+        try {
+            RoaringBitmap ids = tagIndex.remove(tagName);
+            if (ids == null) {
+                return;
+            }
+            ids.forEach((int id) -> certificates.computeIfPresent((long) id,
+                    (certificateId, certificate) -> certificate.withoutTag(tagName, modificationDate)));
+            sortedIds.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private List<CertificateSnapshot> loadBatch(long afterId) {
+        List<Certificate> batch = certificateDao.findCertificatesAfterId(afterId, LOAD_BATCH_SIZE);
+        Map<Long, List<String>> tagNames = tagDao.findNamesByCertificateIds(batch.stream()
+                .map(Certificate::getId)
+                .collect(Collectors.toList()));
+        return batch.stream()
+                .map(certificate -> CertificateSnapshot.of(certificate,
+                        tagNames.getOrDefault(certificate.getId(), Collections.emptyList())))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Keeps a certificate that was put by an event while the snapshot was loading.
+     */
+    private void putIfNewer(CertificateSnapshot certificate) {
+        CertificateSnapshot current = certificates.get(certificate.getId());
+        if (current != null && current.getVersion() != null && (certificate.getVersion() == null
+                || !current.getVersion().isBefore(certificate.getVersion()))) {
+            return;
+        }
+        remove(certificate.getId());
+        insert(certificate);
+    }
+
+    private void insert(CertificateSnapshot certificate) {
+        int id = Math.toIntExact(certificate.getId());
+        certificates.put(certificate.getId(), certificate);
+        allIds.add(id);
+        certificate.getTags().forEach(tag -> tagIndex.computeIfAbsent(tag, name -> new RoaringBitmap()).add(id));
+    }
+
+    private void remove(long certificateId) {
+        CertificateSnapshot previous = certificates.remove(certificateId);
+        if (previous == null) {
+            return;
+        }
+        int id = Math.toIntExact(certificateId);
+        allIds.remove(id);
+        previous.getTags().forEach(tag -> {
+            RoaringBitmap ids = tagIndex.get(tag);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    tagIndex.remove(tag);
+                }
+            }
+        });
+    }
+
+    private RoaringBitmap match(List<String> tagNames, String textPart) {
+        RoaringBitmap matches = matchTags(tagNames);
+        if (textPart != null && !textPart.isEmpty()) {
+            matches = matchText(matches, textPart);
+        }
+        return matches;
+    }
+
+    private RoaringBitmap matchTags(List<String> tagNames) {
+        if (tagNames == null || tagNames.isEmpty()) {
+            return allIds.clone();
+        }
+        List<RoaringBitmap> bitmaps = new ArrayList<>();
+        for (String tagName : new LinkedHashSet<>(tagNames)) {
+            RoaringBitmap ids = tagIndex.get(tagName);
+            if (ids == null) {
+                return new RoaringBitmap();
+            }
+            bitmaps.add(ids);
+        }
+        bitmaps.sort(Comparator.comparingInt(RoaringBitmap::getCardinality));
+        RoaringBitmap matches = bitmaps.get(0).clone();
+        for (int i = 1; i < bitmaps.size() && !matches.isEmpty(); i++) {
+            matches.and(bitmaps.get(i));
+        }
+        return matches;
+    }
+
+    private RoaringBitmap matchText(RoaringBitmap candidates, String textPart) {
+        RoaringBitmap matches = new RoaringBitmap();
+        IntIterator iterator = candidates.getIntIterator();
+        while (iterator.hasNext()) {
+            int id = iterator.next();
+            CertificateSnapshot certificate = certificates.get((long) id);
+            if (certificate.getName().contains(textPart) || certificate.getDescription().contains(textPart)) {
+                matches.add(id);
+            }
+        }
+        return matches;
+    }
+
+    private List<CertificateSnapshot> selectInIdOrder(RoaringBitmap matches, int offset, int perPage) {
+        List<CertificateSnapshot> content = new ArrayList<>(Math.min(perPage, matches.getCardinality() - offset));
+        PeekableIntIterator iterator = matches.getIntIterator();
+        iterator.advanceIfNeeded(matches.select(offset));
+        while (iterator.hasNext() && content.size() < perPage) {
+            content.add(certificates.get((long) iterator.next()));
+        }
+        return content;
+    }
+
+    private List<CertificateSnapshot> selectBySorting(RoaringBitmap matches, CertificateOrderBy orderBy,
+                                                      int offset, int perPage) {
+        List<CertificateSnapshot> sorted = new ArrayList<>(matches.getCardinality());
+        matches.forEach((int id) -> sorted.add(certificates.get((long) id)));
+        sorted.sort(comparator(orderBy));
+        return new ArrayList<>(sorted.subList(offset, Math.min(offset + perPage, sorted.size())));
+    }
+
+    private List<CertificateSnapshot> selectFromSortedIds(RoaringBitmap matches, CertificateOrderBy orderBy,
+                                                          int offset, int perPage) {
+        int[] ids = sortedIds(orderBy);
+        List<CertificateSnapshot> content = new ArrayList<>(perPage);
+        int skipped = 0;
+        for (int i = 0; i < ids.length && content.size() < perPage; i++) {
+            if (matches.contains(ids[i])) {
+                if (skipped < offset) {
+                    skipped++;
+                } else {
+                    content.add(certificates.get((long) ids[i]));
+                }
+            }
+        }
+        return content;
+    }
+
+    private List<CertificateSnapshot> selectInIdOrder(RoaringBitmap matches, CertificateCursor after, int limit) {
+        List<CertificateSnapshot> content = new ArrayList<>(Math.min(limit, matches.getCardinality()));
+        PeekableIntIterator iterator = matches.getIntIterator();
+        if (after != null) {
+            if (after.getId() >= Integer.MAX_VALUE) {
+                return content;
+            }
+            iterator.advanceIfNeeded((int) Math.max(after.getId() + 1, 0));
+        }
+        while (iterator.hasNext() && content.size() < limit) {
+            content.add(certificates.get((long) iterator.next()));
+        }
+        return content;
+    }
+
+    private List<CertificateSnapshot> selectBySorting(RoaringBitmap matches, CertificateCursor after,
+                                                      CertificateOrderBy orderBy, int limit) {
+        List<CertificateSnapshot> sorted = new ArrayList<>(matches.getCardinality());
+        matches.forEach((int id) -> {
+            CertificateSnapshot certificate = certificates.get((long) id);
+            if (after == null || isAfter(certificate, after)) {
+                sorted.add(certificate);
+            }
+        });
+        sorted.sort(comparator(orderBy));
+        return new ArrayList<>(sorted.subList(0, Math.min(limit, sorted.size())));
+    }
+
+    private List<CertificateSnapshot> selectFromSortedIds(RoaringBitmap matches, CertificateCursor after,
+                                                          CertificateOrderBy orderBy, int limit) {
+        int[] ids = sortedIds(orderBy);
+        int from = 0;
+        if (after != null) {
+            int to = ids.length;
+            while (from < to) {
+                int middle = (from + to) >>> 1;
+                if (isAfter(certificates.get((long) ids[middle]), after)) {
+                    to = middle;
+                } else {
+                    from = middle + 1;
+                }
+            }
+        }
+        List<CertificateSnapshot> content = new ArrayList<>(limit);
+        for (int i = from; i < ids.length && content.size() < limit; i++) {
+            if (matches.contains(ids[i])) {
+                content.add(certificates.get((long) ids[i]));
+            }
+        }
+        return content;
+    }
+
+    private int[] sortedIds(CertificateOrderBy orderBy) {
+        return sortedIds.computeIfAbsent(orderBy, order -> certificates.values().stream()
+                .sorted(comparator(order))
+                .mapToInt(certificate -> (int) certificate.getId())
+                .toArray());
+    }
+
+    /**
+     * Relevance is only defined for full-text search which isn't served here, so it falls back to id order.
+     */
+    private static CertificateOrderBy toKeysetOrder(String orderBy) {
+        return CertificateOrderBy.find(orderBy)
+                .filter(value -> value != CertificateOrderBy.RELEVANCE)
+                .orElse(CertificateOrderBy.ID);
+    }
+
+    /**
+     * True if the certificate goes after the cursor in (sort key, id) order with null keys last.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static boolean isAfter(CertificateSnapshot certificate, CertificateCursor cursor) {
+        Comparable key = (Comparable) keyOf(certificate, cursor.getOrderBy());
+        Object cursorKey = cursor.getKey();
+        int comparison;
+        if (key == null || cursorKey == null) {
+            comparison = key == cursorKey ? 0 : (key == null ? 1 : -1);
+        } else {
+            comparison = key.compareTo(cursorKey);
+        }
+        return comparison > 0 || comparison == 0 && certificate.getId() > cursor.getId();
+    }
+
+    private static Object keyOf(CertificateSnapshot certificate, CertificateOrderBy orderBy) {
+        switch (orderBy) {
+            case CREATION_DATE:
+                return certificate.getCreationDate();
+            case MODIFICATION_DATE:
+                return certificate.getModificationDate();
+            case NAME:
+                return certificate.getName();
+            case DESCRIPTION:
+                return certificate.getDescription();
+            case PRICE:
+                return certificate.getPrice();
+            case DURATION:
+                return certificate.getDuration();
+            default:
+                return certificate.getId();
+        }
+    }
+
+    /**
+     * Same ordering as the SQL search, nulls go last, equal keys are ordered by id.
+     */
+    private static Comparator<CertificateSnapshot> comparator(CertificateOrderBy orderBy) {
+        Comparator<CertificateSnapshot> comparator;
+        switch (orderBy) {
+            case CREATION_DATE:
+                comparator = Comparator.comparing(CertificateSnapshot::getCreationDate,
+                        Comparator.nullsLast(Comparator.naturalOrder()));
+                break;
+            case MODIFICATION_DATE:
+                comparator = Comparator.comparing(CertificateSnapshot::getModificationDate,
+                        Comparator.nullsLast(Comparator.naturalOrder()));
+                break;
+            case NAME:
+                comparator = Comparator.comparing(CertificateSnapshot::getName);
+                break;
+            case DESCRIPTION:
+                comparator = Comparator.comparing(CertificateSnapshot::getDescription);
+                break;
+            case PRICE:
+                comparator = Comparator.comparing(CertificateSnapshot::getPrice);
+                break;
+            case DURATION:
+                comparator = Comparator.comparingInt(CertificateSnapshot::getDuration);
+                break;
+            default:
+                comparator = (first, second) -> 0;
+        }
+        return comparator.thenComparingLong(CertificateSnapshot::getId);
+    }
+}
@@ -0,0 +1,137 @@
+package com.epam.esm.certificate;
+
+import com.epam.esm.transaction.AfterCommit;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Pages of offset certificate searches keyed by normalized query.
+ * <p>
+ * A missing page is loaded once by the first caller in a read-only transaction opened for the load,
+ * concurrent callers of the same query wait for that load instead of querying the database. Callers are
+ * expected to have no transaction of their own, so waiting doesn't hold a connection. Certificate and tag writes
+ * invalidate all pages after commit; a load that started before the invalidation is stored under the
+ * previous generation and is never read. Least recently used pages are evicted above
+ * certificate.search-cache.maximum-size. Hit and miss statistics are published as the
+ * "certificate-searches" cache metrics.
+ * </p>
+ */
+@Component
+public class CertificateSearchCache {
+    private final AsyncCache<SearchKey, SearchPage> pages;
+    private final AtomicLong generation = new AtomicLong();
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public CertificateSearchCache(MeterRegistry meterRegistry,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${certificate.search-cache.ttl:10m}") Duration ttl,
+                                  @Value("${certificate.search-cache.maximum-size:1000}") long maximumSize) {
+        pages = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maximumSize)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, pages, "certificate-searches");
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static class SearchKey {
+        private final long generation;
+        private final List<String> tagNames;
+        private final String textPart;
+        private final String orderBy;
+        private final int page;
+        private final int perPage;
+        private final boolean withCount;
+    }
+
+    /**
+     * Content of a cached page, totalElements is only set for counted searches.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class SearchPage {
+        private final List<CertificateDto> content;
+        private final long totalElements;
+        private final boolean hasNext;
+    }
+
+    /**
+     * @param tagNames sorted distinct tag names
+     * @param textPart trimmed text, empty when the search has none
+     * @param search  loads the page, called in a read-only transaction on a miss
+     * @return page with copies of the cached certificates, callers are free to add links to them
+     */
+    public SearchPage get(List<String> tagNames, String textPart, String orderBy, int page, int perPage,
+                          boolean withCount, Supplier<SearchPage> search) {
+        SearchKey key = new SearchKey(generation.get(), tagNames, textPart, orderBy, page, perPage, withCount);
+        CompletableFuture<SearchPage> load = new CompletableFuture<>();
+        CompletableFuture<SearchPage> cached = pages.get(key, (searchKey, executor) -> load);
+        if (cached == load) {
+            try {
+                SearchPage result = transactionTemplate.execute(status -> search.get());
+                load.complete(new SearchPage(Collections.unmodifiableList(copy(result.getContent())),
+                        result.getTotalElements(), result.isHasNext()));
+            } catch (RuntimeException e) {
+                load.completeExceptionally(e);
+                throw e;
+            }
+        }
+        SearchPage result = join(cached);
+        return new SearchPage(copy(result.getContent()), result.getTotalElements(), result.isHasNext());
+    }
+
+    /**
+     * Drops all pages, used when a write may change the result of any search.
+     */
+    public void invalidate() {
+        AfterCommit.run(() -> {
+            generation.incrementAndGet();
+            pages.synchronous().invalidateAll();
+        });
+    }
+
+    private static SearchPage join(CompletableFuture<SearchPage> page) {
+        try {
+            return page.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static List<CertificateDto> copy(List<CertificateDto> certificates) {
+        return certificates.stream()
+                .map(certificate -> new CertificateDto(certificate.getId(), certificate.getName(),
+                        certificate.getDescription(), certificate.getPrice(), certificate.getCreationDate(),
+                        certificate.getModificationDate(), certificate.getDuration(), certificate.getStatus(),
+                        new ArrayList<>(certificate.getTags())))
+                .collect(Collectors.toList());
+    }
+}
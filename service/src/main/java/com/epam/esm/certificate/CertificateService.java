@@ -1,12 +1,17 @@
 package com.epam.esm.certificate;
 
+import com.epam.esm.pagination.ConcurrentCounts;
+import com.epam.esm.pagination.CountCache;
+import com.epam.esm.pagination.SlicedModel;
 import com.epam.esm.tag.Tag;
 import com.epam.esm.tag.TagDao;
 import com.epam.esm.tag.TagDto;
+import com.epam.esm.tag.TagDtoMapper;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.hateoas.PagedModel;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.validation.ConstraintViolation;
@@ -23,14 +28,32 @@ import java.util.stream.Collectors;
 public class CertificateService {
     private final CertificateDao certificateDao;
     private final TagDao tagDao;
-    private final ModelMapper modelMapper;
+    private final CertificateDtoMapper certificateDtoMapper;
+    private final TagDtoMapper tagDtoMapper;
+    private final CertificateReadModel certificateReadModel;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CountCache countCache;
+    private final CertificateSearchCache certificateSearchCache;
+    private final ConcurrentCounts concurrentCounts;
 
     public CertificateService(TagDao tagDao,
                               CertificateDao certificateDao,
-                              ModelMapper modelMapper) {
+                              CertificateDtoMapper certificateDtoMapper,
+                              TagDtoMapper tagDtoMapper,
+                              CertificateReadModel certificateReadModel,
+                              ApplicationEventPublisher eventPublisher,
+                              CountCache countCache,
+                              CertificateSearchCache certificateSearchCache,
+                              ConcurrentCounts concurrentCounts) {
         this.tagDao = tagDao;
         this.certificateDao = certificateDao;
-        this.modelMapper = modelMapper;
+        this.certificateDtoMapper = certificateDtoMapper;
+        this.tagDtoMapper = tagDtoMapper;
+        this.certificateReadModel = certificateReadModel;
+        this.eventPublisher = eventPublisher;
+        this.countCache = countCache;
+        this.certificateSearchCache = certificateSearchCache;
+        this.concurrentCounts = concurrentCounts;
     }
 
     public CertificateDto create(CertificateDto certificateDto) {
@@ -39,13 +62,16 @@ public class CertificateService {
         if(certificateWithSuchName.isPresent()) {
             throw new CertificateConflictException("Certificate with name '" + name + "' already exists");
         }
-        Certificate certificate = modelMapper.map(certificateDto, Certificate.class);
+        Certificate certificate = certificateDtoMapper.toEntity(certificateDto);
+        long newTagsCount = countNewTags(certificate);
         certificateDao.create(certificate);
-        return modelMapper.map(certificate, CertificateDto.class);
+        countCache.adjust(CountCache.TAGS, CountCache.NO_FILTER, newTagsCount);
+        publishChange(certificate);
+        return certificateDtoMapper.toDto(certificate);
     }
 
     public void update(CertificateDto certificateDto) {
-        Certificate certificate = modelMapper.map(certificateDto, Certificate.class);
+        Certificate certificate = certificateDtoMapper.toEntity(certificateDto);
         long certificateId = certificate.getId();
         Certificate beforeUpdate = certificateDao.find(certificateId)
                 .orElseThrow(() -> new CertificateNotFoundException("Certificate with id "
@@ -74,14 +100,17 @@ public class CertificateService {
             }
         }
         certificate.setCreationDate(beforeUpdate.getCreationDate());
+        long newTagsCount = countNewTags(certificate);
         certificateDao.update(certificate);
+        countCache.adjust(CountCache.TAGS, CountCache.NO_FILTER, newTagsCount);
+        publishChange(certificate);
     }
 
     public void patch(long id, CertificateDto changes) {
         Certificate certificate = certificateDao.find(id).orElseThrow(() ->
                 new CertificateNotFoundException("Certificate with id = " + id + " doesn't exist")
         );
-        CertificateDto certificateDto = modelMapper.map(certificate, CertificateDto.class);
+        CertificateDto certificateDto = certificateDtoMapper.toDto(certificate);
         mergeObjects(certificateDto, changes);
 
         Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
@@ -122,25 +151,123 @@ public class CertificateService {
     public CertificateDto find(long id) {
         Optional<Certificate> certificate = certificateDao.find(id);
         if (certificate.isPresent()) {
-            return modelMapper.map(certificate.get(), CertificateDto.class);
+            return certificateDtoMapper.toDto(certificate.get());
         } else {
             throw new CertificateNotFoundException("Certificate with id = " + id + " doesn't exist");
         }
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public PagedModel<CertificateDto> findCertificates(String[] tagNames, String textPart, String orderBy,
                                                        int page, int perPage) {
-        List<String> tags;
-        if (tagNames != null) {
-            tags = Arrays.asList(tagNames);
-        } else tags = Collections.emptyList();
-        List<CertificateDto> resultList = certificateDao.findCertificates(tags, textPart, orderBy, page, perPage)
-                .stream()
-                .map(certificate -> modelMapper.map(certificate, CertificateDto.class))
+        return findCertificates(tagNames, textPart, orderBy, page, perPage, true);
+    }
+
+    /**
+     * Pages searched in the database are cached by the normalized query, tags are sorted and
+     * deduplicated and the text is trimmed. A missing count is run alongside the page query,
+     * see {@link ConcurrentCounts}.
+     * <p>
+     * Runs without a transaction, so callers waiting for a page loaded by another caller don't hold
+     * a connection, {@link CertificateSearchCache} opens one for the load.
+     * </p>
+     *
+     * @param withCount false skips counting, the page only tells if there is a next one
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public PagedModel<CertificateDto> findCertificates(String[] tagNames, String textPart, String orderBy,
+                                                       int page, int perPage, boolean withCount) {
+        List<String> tags = normalizeTags(tagNames);
+        String text = normalizeText(textPart);
+        if (certificateReadModel.canServe(text)) {
+            CertificateReadModel.SearchResult result = certificateReadModel.search(tags, text, orderBy,
+                    page, perPage);
+            List<CertificateDto> resultList = result.getContent()
+                    .stream()
+                    .map(certificateDtoMapper::toDto)
+                    .collect(Collectors.toList());
+            if (!withCount) {
+                return SlicedModel.ofPage(resultList, page, perPage,
+                        (long) page * perPage < result.getTotalElements());
+            }
+            PagedModel.PageMetadata pageMetadata = new PagedModel.PageMetadata(perPage, page,
+                    result.getTotalElements());
+            return PagedModel.of(resultList, pageMetadata);
+        }
+        CertificateSearchCache.SearchPage result = certificateSearchCache.get(tags, text, orderBy,
+                page, perPage, withCount, () -> searchPage(tags, text, orderBy, page, perPage, withCount));
+        if (!withCount) {
+            return SlicedModel.ofPage(result.getContent(), page, perPage, result.isHasNext());
+        }
+        PagedModel.PageMetadata pageMetadata = new PagedModel.PageMetadata(perPage, page,
+                result.getTotalElements());
+        return PagedModel.of(result.getContent(), pageMetadata);
+    }
+
+    private CertificateSearchCache.SearchPage searchPage(List<String> tags, String text, String orderBy,
+                                                         int page, int perPage, boolean withCount) {
+        if (!withCount) {
+            List<Certificate> certificates = certificateDao.findCertificates(tags, text, orderBy,
+                    page, perPage, perPage + 1);
+            boolean hasNext = certificates.size() > perPage;
+            List<CertificateDto> resultList = certificateDtoMapper.toDtos(hasNext
+                    ? certificates.subList(0, perPage)
+                    : certificates);
+            return new CertificateSearchCache.SearchPage(resultList, 0, hasNext);
+        }
+        List<Object> filter = Arrays.asList(tags, text);
+        ConcurrentCounts.PendingCount count = concurrentCounts.start(CountCache.CERTIFICATES, filter,
+                () -> certificateDao.getTotalElementsCountFromCertificateSearch(tags, text));
+        List<CertificateDto> resultList = certificateDtoMapper.toDtos(certificateDao.findCertificates(tags, text,
+                orderBy, page, perPage));
+        long totalElements = count.join();
+        return new CertificateSearchCache.SearchPage(resultList, totalElements,
+                (long) page * perPage < totalElements);
+    }
+
+    /**
+     * Keyset variant of the search, pages are not counted and are addressed by the cursor of the previous page.
+     *
+     * @param after cursor token from the previous page, empty for the first page
+     */
+    public PagedModel<CertificateDto> findCertificates(String[] tagNames, String textPart, String orderBy,
+                                                       String after, int perPage) {
+        List<String> tags = normalizeTags(tagNames);
+        String text = normalizeText(textPart);
+        CertificateCursor cursor = after.isEmpty() ? null : CertificateCursor.decode(after);
+        List<CertificateDto> resultList;
+        CertificateCursor nextCursor;
+        if (certificateReadModel.canServe(text)) {
+            CertificateReadModel.SearchResult result = certificateReadModel.search(tags, text, orderBy,
+                    cursor, perPage);
+            resultList = result.getContent()
+                    .stream()
+                    .map(certificateDtoMapper::toDto)
+                    .collect(Collectors.toList());
+            nextCursor = result.getNextCursor();
+        } else {
+            CertificateSlice slice = certificateDao.findCertificates(tags, text, orderBy, cursor, perPage);
+            resultList = certificateDtoMapper.toDtos(slice.getContent());
+            nextCursor = slice.getNextCursor();
+        }
+        return SlicedModel.ofCursor(resultList, perPage, nextCursor == null ? null : nextCursor.encode());
+    }
+
+    /**
+     * Tags are sorted and deduplicated, as the search matches certificates having all of them.
+     */
+    private static List<String> normalizeTags(String[] tagNames) {
+        if (tagNames == null) {
+            return Collections.emptyList();
+        }
+        return Arrays.stream(tagNames)
+                .distinct()
+                .sorted()
                 .collect(Collectors.toList());
-        int totalElements = certificateDao.getTotalElementsCountFromCertificateSearch(tags, textPart);
-        PagedModel.PageMetadata pageMetadata = new PagedModel.PageMetadata(perPage, page, totalElements);
-        return PagedModel.of(resultList, pageMetadata);
+    }
+
+    private static String normalizeText(String textPart) {
+        return textPart == null ? "" : textPart.trim();
     }
 
     public void addCertificateTag(TagDto tagDto, long certificateId) {
@@ -151,9 +278,10 @@ public class CertificateService {
         if(status == CertificateStatus.ACTIVE || status == CertificateStatus.INACTIVE) {
             throw new CertificateConflictException("Cannot update certificate with status " + status);
         }
-        Tag tag = modelMapper.map(tagDto, Tag.class);
+        Tag tag = tagDtoMapper.toEntity(tagDto);
         Tag tagToAdd = tagDao.findByName(tag.getName()).orElseGet(() -> {
             tagDao.create(tag);
+            countCache.adjust(CountCache.TAGS, CountCache.NO_FILTER, 1);
             return tag;
         });
         if (certificate.getTags().contains(tagToAdd)) {
@@ -161,6 +289,7 @@ public class CertificateService {
         } else {
             certificate.getTags().add(tagToAdd);
             certificateDao.update(certificate);
+            publishChange(certificate);
         }
     }
 
@@ -178,5 +307,19 @@ public class CertificateService {
             certificateTags.removeIf(tag -> tag.getId() == tagId);
         }
         certificateDao.update(certificate);
+        publishChange(certificate);
+    }
+
+    private static long countNewTags(Certificate certificate) {
+        return certificate.getTags()
+                .stream()
+                .filter(tag -> tag.getId() == 0)
+                .count();
+    }
+
+    private void publishChange(Certificate certificate) {
+        countCache.invalidate(CountCache.CERTIFICATES);
+        certificateSearchCache.invalidate();
+        eventPublisher.publishEvent(new CertificateChangedEvent(CertificateSnapshot.of(certificate)));
     }
 }
@@ -0,0 +1,62 @@
+package com.epam.esm.certificate;
+
+import com.epam.esm.tag.Tag;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable copy of the searchable certificate fields, detached from the persistence context.
+ */
+@AllArgsConstructor
+@Getter
+@EqualsAndHashCode
+public class CertificateSnapshot {
+    private final long id;
+    private final String name;
+    private final String description;
+    private final BigDecimal price;
+    private final LocalDateTime creationDate;
+    private final LocalDateTime modificationDate;
+    private final int duration;
+    private final CertificateStatus status;
+    private final List<String> tags;
+
+    public static CertificateSnapshot of(Certificate certificate) {
+        List<String> tagNames = certificate.getTags() == null ?
+                Collections.emptyList() : certificate.getTags().stream()
+                .map(Tag::getName)
+                .collect(Collectors.toList());
+        return of(certificate, tagNames);
+    }
+
+    public static CertificateSnapshot of(Certificate certificate, List<String> tagNames) {
+        return new CertificateSnapshot(certificate.getId(), certificate.getName(), certificate.getDescription(),
+                certificate.getPrice(), certificate.getCreationDate(), certificate.getModificationDate(),
+                certificate.getDuration(), certificate.getStatus(),
+                Collections.unmodifiableList(tagNames));
+    }
+
+    /**
+     * @return copy of the certificate without the tag, modified at modificationDate
+     */
+    public CertificateSnapshot withoutTag(String tagName, LocalDateTime modificationDate) {
+        return new CertificateSnapshot(id, name, description, price, creationDate, modificationDate, duration, status,
+                Collections.unmodifiableList(tags.stream()
+                        .filter(tag -> !tag.equals(tagName))
+                        .collect(Collectors.toList())));
+    }
+
+    /**
+     * @return the last time the certificate was written.
+     */
+    public LocalDateTime getVersion() {
+        return modificationDate != null ? modificationDate : creationDate;
+    }
+}
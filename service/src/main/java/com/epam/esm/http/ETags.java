@@ -0,0 +1,27 @@
+package com.epam.esm.http;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Strong ETags shared by the servlet and the reactive catalog application, so the same representation
+ * gets the same ETag from either of them.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    /**
+     * @param parts values that change whenever the representation changes, like the id and the version
+     * @return quoted strong ETag
+     */
+    public static String of(Object... parts) {
+        StringBuilder value = new StringBuilder();
+        for (Object part : parts) {
+            value.append(part).append('\n');
+        }
+        return '"' + DigestUtils.md5DigestAsHex(value.toString().getBytes(StandardCharsets.UTF_8)) + '"';
+    }
+}
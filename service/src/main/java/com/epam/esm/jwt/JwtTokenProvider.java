@@ -1,43 +1,103 @@
 package com.epam.esm.jwt;
 
 import com.epam.esm.user.Role;
+import com.epam.esm.user.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
-import lombok.extern.slf4j.Slf4j;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
 
-import javax.annotation.PostConstruct;
+import javax.crypto.spec.SecretKeySpec;
 import javax.servlet.http.HttpServletRequest;
-import java.util.Base64;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Issues and verifies tokens. A token carries the user id, login and role, so a verified token
+ * is turned into a {@link JwtUser} without reading the user. Verified tokens are cached until they expire,
+ * the cache is published as the "jwt-tokens" cache metrics.
+ */
 @Component
-@Slf4j
 public class JwtTokenProvider {
+    private static final String ID_CLAIM = "id";
+    private static final String ROLE_CLAIM = "roles";
 
     private final JwtUserDetailsService userDetailsService;
-    @Value("${jwt.token.secret}")
-    private String secret;
-    @Value("${jwt.token.expired}")
-    private long validityInMilliseconds;
+    private final Key signingKey;
+    private final long validityInMilliseconds;
+    private final Cache<String, VerifiedToken> verifiedTokens;
 
     @Autowired
-    public JwtTokenProvider(JwtUserDetailsService userDetailsService) {
+    public JwtTokenProvider(JwtUserDetailsService userDetailsService,
+                            MeterRegistry meterRegistry,
+                            @Value("${jwt.token.secret}") String secret,
+                            @Value("${jwt.token.expired}") long validityInMilliseconds,
+                            @Value("${jwt.token.cache.maximum-size:10000}") long cacheMaximumSize) {
         this.userDetailsService = userDetailsService;
+        this.signingKey = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8),
+                SignatureAlgorithm.HS256.getJcaName());
+        this.validityInMilliseconds = validityInMilliseconds;
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaximumSize)
+                .expireAfter(new UntilTokenExpiration())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwt-tokens");
     }
 
-    @PostConstruct
-    protected void init() {
-        secret = Base64.getEncoder().encodeToString(secret.getBytes());
+    private static class VerifiedToken {
+        private final JwtUser user;
+        private final long expiresAtMillis;
+
+        private VerifiedToken(JwtUser user, long expiresAtMillis) {
+            this.user = user;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+
+    private static class UntilTokenExpiration implements Expiry<String, VerifiedToken> {
+        @Override
+        public long expireAfterCreate(String token, VerifiedToken verifiedToken, long currentTime) {
+            long millisLeft = verifiedToken.expiresAtMillis - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(millisLeft, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, VerifiedToken verifiedToken, long currentTime,
+                                      long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String token, VerifiedToken verifiedToken, long currentTime,
+                                    long currentDuration) {
+            return currentDuration;
+        }
     }
 
-    public String createToken(String username, Role role) {
-        Claims claims = Jwts.claims().setSubject(username);
-        claims.put("roles", role);
+    public String createToken(User user) {
+        return createToken(user.getId(), user.getLogin(), user.getRole().name());
+    }
+
+    public String createToken(JwtUser user) {
+        String role = user.getAuthorities().iterator().next().getAuthority();
+        return createToken(user.getId(), user.getUsername(), role);
+    }
+
+    private String createToken(long id, String login, String role) {
+        Claims claims = Jwts.claims().setSubject(login);
+        claims.put(ID_CLAIM, id);
+        claims.put(ROLE_CLAIM, role);
 
         Date now = new Date();
         Date validity = new Date(now.getTime() + validityInMilliseconds);
@@ -46,43 +106,76 @@ public class JwtTokenProvider {
                 .setClaims(claims)
                 .setIssuedAt(now)
                 .setExpiration(validity)
-                .signWith(SignatureAlgorithm.HS256, secret)
+                .signWith(SignatureAlgorithm.HS256, signingKey)
                 .compact();
     }
 
+    /**
+     * Verifies the token and returns its user.
+     *
+     * @throws JwtAuthenticationException if the token is expired or invalid
+     */
     public Authentication getAuthentication(String token) {
-        UserDetails userDetails = this.userDetailsService
-                .loadUserByUsername(getUsername(token));
-        return new UsernamePasswordAuthenticationToken(userDetails, "", userDetails.getAuthorities());
+        JwtUser user = verify(token);
+        return new UsernamePasswordAuthenticationToken(user, "", user.getAuthorities());
     }
 
     public String getUsername(String token) {
-        return Jwts.parser()
-                .setSigningKey(secret)
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return verify(token).getUsername();
     }
 
     public String resolveToken(HttpServletRequest req) {
         String bearerToken = req.getHeader("Authorization");
         if (bearerToken != null && bearerToken.startsWith("Bearer") && bearerToken.length() > 8) {
-            log.info("IN resolveToken - token: {}", bearerToken.substring(7));
             return bearerToken.substring(7);
         }
         return null;
     }
 
     public boolean validateToken(String token) {
+        verify(token);
+        return true;
+    }
+
+    private JwtUser verify(String token) {
+        VerifiedToken verifiedToken = verifiedTokens.getIfPresent(token);
+        if (verifiedToken == null || verifiedToken.expiresAtMillis <= System.currentTimeMillis()) {
+            verifiedToken = parse(token);
+            verifiedTokens.put(token, verifiedToken);
+        }
+        return verifiedToken.user;
+    }
+
+    private VerifiedToken parse(String token) {
+        Claims claims;
         try {
-            Jws<Claims> claims = Jwts.parser()
-                    .setSigningKey(secret)
-                    .parseClaimsJws(token);
-            return !claims.getBody()
-                    .getExpiration()
-                    .before(new Date());
+            claims = Jwts.parser()
+                    .setSigningKey(signingKey)
+                    .parseClaimsJws(token)
+                    .getBody();
         } catch (JwtException | IllegalArgumentException e) {
             throw new JwtAuthenticationException("JWT token is expired or invalid");
         }
+        Date expiration = claims.getExpiration();
+        if (expiration == null) {
+            throw new JwtAuthenticationException("JWT token is expired or invalid");
+        }
+        return new VerifiedToken(toUser(claims), expiration.getTime());
+    }
+
+    /**
+     * Tokens issued before they carried the user id are resolved by login.
+     */
+    private JwtUser toUser(Claims claims) {
+        Number id = claims.get(ID_CLAIM, Number.class);
+        String role = claims.get(ROLE_CLAIM, String.class);
+        if (id == null || role == null) {
+            try {
+                return (JwtUser) userDetailsService.loadUserByUsername(claims.getSubject());
+            } catch (UsernameNotFoundException e) {
+                throw new JwtAuthenticationException("JWT token is expired or invalid");
+            }
+        }
+        return JwtUserFactory.create(id.longValue(), claims.getSubject(), Role.valueOf(role));
     }
 }
@@ -1,33 +1,69 @@
 package com.epam.esm.jwt;
 
+import com.epam.esm.transaction.AfterCommit;
 import com.epam.esm.user.User;
 import com.epam.esm.user.UserDao;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.util.Optional;
 
+/**
+ * Loads users by login through a cache bounded by jwt.user-details-cache.maximum-size and
+ * jwt.user-details-cache.ttl. Writes that change a user's login, password or role evict it with
+ * {@link #evict(String)}. Hits, misses and evictions are published as the "user-details" cache metrics.
+ * <p>
+ * The class is not transactional so that a cache hit doesn't take a connection, misses are single reads.
+ * </p>
+ */
 @Service
-@Transactional
 public class JwtUserDetailsService implements UserDetailsService {
     private final UserDao userDao;
+    private final Cache<String, JwtUser> users;
 
     @Autowired
-    public JwtUserDetailsService(UserDao userDao) {
+    public JwtUserDetailsService(UserDao userDao,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${jwt.user-details-cache.ttl:10m}") Duration ttl,
+                                 @Value("${jwt.user-details-cache.maximum-size:100000}") long maximumSize) {
         this.userDao = userDao;
+        this.users = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, users, "user-details");
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        Optional<User> optionalUser = userDao.findUserByLogin(username);
-        if (!optionalUser.isPresent()) {
+        JwtUser user = users.get(username, this::findUser);
+        if (user == null) {
             throw new UsernameNotFoundException("User with username: " + username + " not found");
         }
-        User user = optionalUser.get();
-        return JwtUserFactory.create(user);
+        return user;
+    }
+
+    /**
+     * Drops the cached user now and again after the current transaction commits,
+     * so a read racing with the write doesn't keep the old user.
+     */
+    public void evict(String username) {
+        users.invalidate(username);
+        AfterCommit.run(() -> users.invalidate(username));
+    }
+
+    private JwtUser findUser(String username) {
+        Optional<User> optionalUser = userDao.findUserByLogin(username);
+        return optionalUser.map(JwtUserFactory::create).orElse(null);
     }
 }
@@ -18,6 +18,17 @@ public class JwtUserFactory {
                 mapToGrantedAuthorities(user.getRole()));
     }
 
+    /**
+     * Creates the user of a verified token, it has no password.
+     */
+    public static JwtUser create(long id, String login, Role role) {
+        return new JwtUser(
+                id,
+                login,
+                null,
+                mapToGrantedAuthorities(role));
+    }
+
     private static List<GrantedAuthority> mapToGrantedAuthorities(Role userRole) {
         List<GrantedAuthority> authorities = new ArrayList<>();
         authorities.add(new SimpleGrantedAuthority(userRole.toString()));
@@ -0,0 +1,21 @@
+package com.epam.esm.order;
+
+import com.epam.esm.certificate.CertificateSnapshot;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Published by {@link OrderService} when an order was created, listeners should react to it after the commit.
+ */
+@AllArgsConstructor
+@Getter
+public class OrderCreatedEvent {
+    private final long orderId;
+    private final long userId;
+    /**
+     * Ordered certificates, a certificate ordered twice is listed twice.
+     */
+    private final List<CertificateSnapshot> certificates;
+}
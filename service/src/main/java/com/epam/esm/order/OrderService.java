@@ -1,18 +1,30 @@
 package com.epam.esm.order;
 
 import com.epam.esm.certificate.Certificate;
+import com.epam.esm.certificate.CertificateDao;
+import com.epam.esm.certificate.CertificateSnapshot;
 import com.epam.esm.certificate.CertificateStatus;
+import com.epam.esm.pagination.CountCache;
+import com.epam.esm.pagination.SlicedModel;
+import com.epam.esm.statistics.PurchaseStatisticsService;
+import com.epam.esm.tag.Tag;
+import com.epam.esm.tag.TagDao;
+import com.epam.esm.user.User;
 import com.epam.esm.user.UserDao;
 import com.epam.esm.user.UserNotFoundException;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.hateoas.PagedModel;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 
@@ -21,52 +33,139 @@ import java.util.stream.Collectors;
 @Transactional
 public class OrderService {
     private final OrderDao orderDao;
-    private final ModelMapper modelMapper;
+    private final OrderDtoMapper orderDtoMapper;
     private final UserDao userDao;
+    private final CertificateDao certificateDao;
+    private final CountCache countCache;
+    private final PurchaseStatisticsService purchaseStatisticsService;
+    private final TagDao tagDao;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
     public OrderService(OrderDao orderDao,
-                        ModelMapper modelMapper,
-                        UserDao userDao) {
-        this.modelMapper = modelMapper;
+                        OrderDtoMapper orderDtoMapper,
+                        UserDao userDao,
+                        CertificateDao certificateDao,
+                        CountCache countCache,
+                        PurchaseStatisticsService purchaseStatisticsService,
+                        TagDao tagDao,
+                        ApplicationEventPublisher eventPublisher) {
+        this.orderDtoMapper = orderDtoMapper;
         this.orderDao = orderDao;
         this.userDao = userDao;
+        this.certificateDao = certificateDao;
+        this.countCache = countCache;
+        this.purchaseStatisticsService = purchaseStatisticsService;
+        this.tagDao = tagDao;
+        this.eventPublisher = eventPublisher;
     }
 
     public OrderDto create(OrderDto orderDto, long userId) {
         orderDto.setUserId(userId);
-        userDao.find(userId).orElseThrow(()->
+        User user = userDao.find(userId).orElseThrow(()->
                 new UserNotFoundException("User with id " + userId + " doesn't exist"));
-        Order order = modelMapper.map(orderDto, Order.class);
-        order.getCertificates().forEach(certificate -> {
-            if(certificate.getStatus() == CertificateStatus.INACTIVE ||
-            certificate.getStatus() == CertificateStatus.PUBLISHED) {
-                throw new OrderConflictException("Cannot make order with non active certificates");
-            }
-        });
+        List<Long> certificateIds = orderDto.getCertificatesIds();
+        Map<Long, Certificate> certificates = certificateDao.findByIds(new HashSet<>(certificateIds))
+                .stream()
+                .collect(Collectors.toMap(Certificate::getId, Function.identity()));
+        List<Long> nonexistentIds = certificateIds.stream()
+                .filter(id -> !certificates.containsKey(id))
+                .distinct()
+                .collect(Collectors.toList());
+        if (!nonexistentIds.isEmpty()) {
+            throw new IllegalArgumentException("Certificates with ids " + nonexistentIds + " don't exist");
+        }
+        if (certificates.values().stream()
+                .anyMatch(certificate -> certificate.getStatus() == CertificateStatus.INACTIVE ||
+                        certificate.getStatus() == CertificateStatus.PUBLISHED)) {
+            throw new OrderConflictException("Cannot make order with non active certificates");
+        }
+        Order order = new Order();
+        order.setUser(user);
+        order.setCertificates(certificateIds.stream()
+                .map(certificates::get)
+                .collect(Collectors.toList()));
         BigDecimal totalPrice = order.getCertificates()
                 .stream()
                 .map(Certificate::getPrice)
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
         order.setTotalPrice(totalPrice);
         orderDao.create(order);
-        return modelMapper.map(order, OrderDto.class);
+        Map<Long, List<Tag>> tags = tagDao.findByCertificateIds(certificates.keySet());
+        purchaseStatisticsService.addOrder(order, tags);
+        countCache.adjust(CountCache.ORDERS, userId, 1);
+        publishCreated(order, tags);
+        return orderDtoMapper.toDto(order);
+    }
+
+    private void publishCreated(Order order, Map<Long, List<Tag>> tags) {
+        List<CertificateSnapshot> certificates = order.getCertificates()
+                .stream()
+                .map(certificate -> CertificateSnapshot.of(certificate,
+                        tags.getOrDefault(certificate.getId(), Collections.emptyList())
+                                .stream()
+                                .map(Tag::getName)
+                                .collect(Collectors.toList())))
+                .collect(Collectors.toList());
+        eventPublisher.publishEvent(new OrderCreatedEvent(order.getId(), order.getUser().getId(), certificates));
     }
 
     public PagedModel<OrderDto> findByUserId(long userId, int page, int perPage) {
+        return findByUserId(userId, page, perPage, true);
+    }
+
+    /**
+     * @param withCount false skips counting, the page only tells if there is a next one
+     */
+    public PagedModel<OrderDto> findByUserId(long userId, int page, int perPage, boolean withCount) {
+        if (!withCount) {
+            List<Order> orders = orderDao.getOrdersByUserId(userId, page, perPage, perPage + 1);
+            boolean hasNext = orders.size() > perPage;
+            List<OrderDto> orderDtos = orders.stream()
+                    .limit(perPage)
+                    .map(orderDtoMapper::toDto)
+                    .collect(Collectors.toList());
+            return SlicedModel.ofPage(orderDtos, page, perPage, hasNext);
+        }
         List<OrderDto> orders = orderDao.getOrdersByUserId(userId, page, perPage).stream()
-                .map(order -> modelMapper.map(order, OrderDto.class))
+                .map(orderDtoMapper::toDto)
                 .collect(Collectors.toList());
-        int totalOrdersCount = orderDao.getCountOfUsersOrders(userId).intValue();
+        int totalOrdersCount = (int) countCache.get(CountCache.ORDERS, userId,
+                () -> orderDao.getCountOfUsersOrders(userId));
         PagedModel.PageMetadata pageMetadata = new PagedModel.PageMetadata(perPage, page, totalOrdersCount);
         return PagedModel.of(orders, pageMetadata);
     }
 
+    /**
+     * Keyset variant of the order history, pages are not counted and are addressed by the cursors
+     * of the neighbouring pages.
+     *
+     * @param after  cursor of the previous page's last order, returns older orders
+     * @param before cursor of the next page's first order, returns newer orders
+     */
+    public PagedModel<OrderDto> findByUserId(long userId, String after, String before, int perPage) {
+        if (after != null && before != null) {
+            throw new IllegalArgumentException("Only one of after and before cursors can be specified");
+        }
+        OrderCursor afterCursor = after == null || after.isEmpty() ? null : OrderCursor.decode(after);
+        OrderCursor beforeCursor = before == null || before.isEmpty() ? null : OrderCursor.decode(before);
+        OrderSlice slice = orderDao.getOrdersByUserId(userId, afterCursor, beforeCursor, perPage);
+        List<OrderDto> orders = slice.getContent().stream()
+                .map(orderDtoMapper::toDto)
+                .collect(Collectors.toList());
+        return SlicedModel.ofCursor(orders, perPage, encode(slice.getNextCursor()),
+                encode(slice.getPreviousCursor()));
+    }
+
+    private static String encode(OrderCursor cursor) {
+        return cursor == null ? null : cursor.encode();
+    }
+
     public OrderDto getOrderByUserIdAndOrderId(long userId, long orderId) {
         userDao.find(userId).orElseThrow(()->
                 new UserNotFoundException("User with id " + userId + " doesn't exist"));
         Order order = orderDao.findOrderByUserIdAndOrderId(userId, orderId).orElseThrow(()->
                 new OrderNotFoundException("User with id " + userId + " doesn't have order with id " + orderId));
-        return modelMapper.map(order, OrderDto.class);
+        return orderDtoMapper.toDto(order);
     }
 }
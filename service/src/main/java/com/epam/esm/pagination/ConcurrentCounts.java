@@ -0,0 +1,199 @@
+package com.epam.esm.pagination;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongSupplier;
+
+/**
+ * Counts of paged searches run concurrently with the page query, so a counted page takes about
+ * the longer of the two queries instead of their sum.
+ * <p>
+ * A count missing from the {@link CountCache} is started on a bounded executor of
+ * pagination.concurrent-count.threads threads, in a new read only transaction on its own connection,
+ * and joined when the page is ready. It may see changes committed after the page query started.
+ * The caller holds its own connection while it waits, so a count is only started when the connection pool
+ * has an idle connection; otherwise, or when the queue of pagination.concurrent-count.queue-capacity counts
+ * is full, the caller counts in its own transaction, as it does when pagination.concurrent-count.enabled
+ * is false. A saturated pool then makes counted searches slower instead of failing them. A count that
+ * takes longer than pagination.concurrent-count.timeout is rolled back and the search fails with
+ * {@link CountTimeoutException}.
+ * </p>
+ * <p>
+ * Count times are published as the "pagination.count" timer by entity and mode, concurrent or inline,
+ * the time callers wait for a concurrent count as "pagination.count.wait" and timeouts as
+ * "pagination.count.timeouts". The executor is published as "pagination-counts".
+ * </p>
+ */
+@Component
+public class ConcurrentCounts {
+    private static final String CONCURRENT = "concurrent";
+    private static final String INLINE = "inline";
+
+    private final CountCache countCache;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+    /**
+     * Pool of the connections, null when the data source isn't a Hikari pool and its idle connections are unknown.
+     */
+    private final HikariDataSource pool;
+
+    @Autowired
+    public ConcurrentCounts(CountCache countCache,
+                            MeterRegistry meterRegistry,
+                            PlatformTransactionManager transactionManager,
+                            DataSource dataSource,
+                            @Value("${pagination.concurrent-count.enabled:false}") boolean enabled,
+                            @Value("${pagination.concurrent-count.threads:8}") int threads,
+                            @Value("${pagination.concurrent-count.queue-capacity:32}") int queueCapacity,
+                            @Value("${pagination.concurrent-count.timeout:5s}") Duration timeout) {
+        this.countCache = countCache;
+        this.meterRegistry = meterRegistry;
+        this.timeout = timeout;
+        this.pool = hikariPool(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+        this.transactionTemplate.setTimeout((int) Math.max(1, (timeout.toMillis() + 999) / 1000));
+        if (enabled) {
+            executor = new ThreadPoolExecutor(threads, threads, 1, TimeUnit.MINUTES,
+                    new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("pagination-count-"));
+            executor.allowCoreThreadTimeOut(true);
+            ExecutorServiceMetrics.monitor(meterRegistry, executor, "pagination-counts");
+        } else {
+            executor = null;
+        }
+    }
+
+    /**
+     * Count being run, or already known.
+     */
+    public final class PendingCount {
+        private final String entity;
+        private final LongSupplier inline;
+        private final Future<Long> future;
+
+        private PendingCount(String entity, LongSupplier inline, Future<Long> future) {
+            this.entity = entity;
+            this.inline = inline;
+            this.future = future;
+        }
+
+        /**
+         * Waits for a concurrent count, or counts in the caller's transaction if it wasn't started.
+         */
+        public long join() {
+            if (future == null) {
+                return inline.getAsLong();
+            }
+            long start = System.nanoTime();
+            try {
+                return future.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                Counter.builder("pagination.count.timeouts")
+                        .tag("entity", entity)
+                        .register(meterRegistry)
+                        .increment();
+                throw new CountTimeoutException("Counting " + entity + " took longer than " + timeout);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new IllegalStateException(e.getCause());
+            } catch (InterruptedException e) {
+                future.cancel(true);
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while counting " + entity, e);
+            } finally {
+                Timer.builder("pagination.count.wait")
+                        .tag("entity", entity)
+                        .register(meterRegistry)
+                        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    /**
+     * Starts counting unless the count is cached, call {@link PendingCount#join()} for the result.
+     *
+     * @param filter normalized filter, the key of the count in the {@link CountCache}
+     */
+    public PendingCount start(String entity, Object filter, LongSupplier count) {
+        Long cached = countCache.getIfPresent(entity, filter);
+        if (cached != null) {
+            return new PendingCount(entity, () -> cached, null);
+        }
+        PendingCount inline = new PendingCount(entity,
+                () -> countCache.get(entity, filter, () -> timed(entity, INLINE, count)), null);
+        if (executor == null || !hasIdleConnection()) {
+            return inline;
+        }
+        try {
+            return new PendingCount(entity, null, executor.submit(() -> transactionTemplate.execute(
+                    status -> countCache.get(entity, filter, () -> timed(entity, CONCURRENT, count)))));
+        } catch (RejectedExecutionException e) {
+            return inline;
+        }
+    }
+
+    private boolean hasIdleConnection() {
+        if (pool == null) {
+            return true;
+        }
+        HikariPoolMXBean poolBean = pool.getHikariPoolMXBean();
+        return poolBean == null || poolBean.getIdleConnections() > 0;
+    }
+
+    private static HikariDataSource hikariPool(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+
+    private long timed(String entity, String mode, LongSupplier count) {
+        long start = System.nanoTime();
+        try {
+            return count.getAsLong();
+        } finally {
+            Timer.builder("pagination.count")
+                    .tag("entity", entity)
+                    .tag("mode", mode)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.epam.esm.pagination;
+
+import com.epam.esm.transaction.AfterCommit;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Total element counts of paged searches keyed by entity and normalized filter.
+ * <p>
+ * Write methods adjust or invalidate the counts they change, the changes are applied after commit.
+ * A count read concurrently with a write can still be cached stale, so entries also expire
+ * pagination.count-cache.ttl after they were computed. Hit and miss statistics are published
+ * as the "paged-counts" cache metrics.
+ * </p>
+ */
+@Component
+public class CountCache {
+    public static final String CERTIFICATES = "certificates";
+    public static final String TAGS = "tags";
+    public static final String USERS = "users";
+    public static final String ORDERS = "orders";
+    public static final String NO_FILTER = "";
+
+    private final Cache<CountKey, Long> counts;
+
+    @Autowired
+    public CountCache(MeterRegistry meterRegistry,
+                      @Value("${pagination.count-cache.ttl:30s}") Duration ttl,
+                      @Value("${pagination.count-cache.maximum-size:10000}") long maximumSize) {
+        counts = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, counts, "paged-counts");
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static class CountKey {
+        private final String entity;
+        private final Object filter;
+    }
+
+    public long get(String entity, Object filter, LongSupplier count) {
+        return counts.get(new CountKey(entity, filter), key -> count.getAsLong());
+    }
+
+    /**
+     * @return the cached count, null if it isn't cached
+     */
+    public Long getIfPresent(String entity, Object filter) {
+        return counts.getIfPresent(new CountKey(entity, filter));
+    }
+
+    /**
+     * Changes a cached count by delta, used when a write changes a count by a known amount.
+     */
+    public void adjust(String entity, Object filter, long delta) {
+        CountKey countKey = new CountKey(entity, filter);
+        AfterCommit.run(() -> counts.asMap().computeIfPresent(countKey, (key, count) -> count + delta));
+    }
+
+    /**
+     * Drops all counts of the entity, used when a write may change counts for any filter.
+     */
+    public void invalidate(String entity) {
+        AfterCommit.run(() -> counts.asMap().keySet().removeIf(key -> key.entity.equals(entity)));
+    }
+}
@@ -0,0 +1,8 @@
+package com.epam.esm.pagination;
+
+public class CountTimeoutException extends RuntimeException {
+
+    public CountTimeoutException(String s) {
+        super(s);
+    }
+}
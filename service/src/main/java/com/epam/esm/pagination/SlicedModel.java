@@ -0,0 +1,74 @@
+package com.epam.esm.pagination;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.PagedModel;
+
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Page of a search that wasn't counted, so it has no page metadata, only the knowledge whether a next page exists.
+ * Pages are addressed either by number or, in keyset mode, by nextCursor and previousCursor tokens.
+ */
+public class SlicedModel<T> extends PagedModel<T> {
+    private final long number;
+    private final int size;
+    private final boolean hasNext;
+    private final String nextCursor;
+    private final String previousCursor;
+
+    @SuppressWarnings("deprecation")
+    private SlicedModel(Collection<T> content, long number, int size, boolean hasNext,
+                        String nextCursor, String previousCursor) {
+        super(content, null, Collections.<Link>emptyList());
+        this.number = number;
+        this.size = size;
+        this.hasNext = hasNext;
+        this.nextCursor = nextCursor;
+        this.previousCursor = previousCursor;
+    }
+
+    public static <T> SlicedModel<T> ofCursor(Collection<T> content, int size, String nextCursor) {
+        return ofCursor(content, size, nextCursor, null);
+    }
+
+    public static <T> SlicedModel<T> ofCursor(Collection<T> content, int size, String nextCursor,
+                                              String previousCursor) {
+        return new SlicedModel<>(content, 0, size, nextCursor != null, nextCursor, previousCursor);
+    }
+
+    public static <T> SlicedModel<T> ofPage(Collection<T> content, long number, int size, boolean hasNext) {
+        return new SlicedModel<>(content, number, size, hasNext, null, null);
+    }
+
+    @JsonIgnore
+    public boolean isCursorBased() {
+        return number == 0;
+    }
+
+    @JsonIgnore
+    public long getNumber() {
+        return number;
+    }
+
+    @JsonIgnore
+    public int getSize() {
+        return size;
+    }
+
+    @JsonIgnore
+    public boolean hasNext() {
+        return hasNext;
+    }
+
+    @JsonIgnore
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    @JsonIgnore
+    public String getPreviousCursor() {
+        return previousCursor;
+    }
+}
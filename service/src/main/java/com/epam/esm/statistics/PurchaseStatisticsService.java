@@ -0,0 +1,75 @@
+package com.epam.esm.statistics;
+
+import com.epam.esm.certificate.Certificate;
+import com.epam.esm.order.Order;
+import com.epam.esm.tag.Tag;
+import com.epam.esm.tag.TagDao;
+import com.epam.esm.user.UserDao;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Keeps per-user spending and tag purchase counts up to date with the orders, so the most purchased tag
+ * of the top spender is read from two indexed rows instead of aggregating all orders.
+ * <p>
+ * Orders are added in the transaction that creates them. The aggregates are recomputed from the orders
+ * by statistics.rebuild.cron, or on demand, to reconcile any drift.
+ * </p>
+ */
+@Slf4j
+@Service
+@Transactional
+public class PurchaseStatisticsService {
+    private final PurchaseStatisticsDao purchaseStatisticsDao;
+    private final UserDao userDao;
+    private final TagDao tagDao;
+
+    @Autowired
+    public PurchaseStatisticsService(PurchaseStatisticsDao purchaseStatisticsDao,
+                                     UserDao userDao,
+                                     TagDao tagDao) {
+        this.purchaseStatisticsDao = purchaseStatisticsDao;
+        this.userDao = userDao;
+        this.tagDao = tagDao;
+    }
+
+    /**
+     * @param tagsByCertificateId tags of the ordered certificates, read once by the order creation
+     */
+    public void addOrder(Order order, Map<Long, List<Tag>> tagsByCertificateId) {
+        long userId = order.getUser().getId();
+        userDao.lock(order.getUser());
+        purchaseStatisticsDao.addSpending(userId, order.getTotalPrice());
+        Map<Long, Long> purchasesByTagId = new HashMap<>();
+        for (Certificate certificate : order.getCertificates()) {
+            for (Tag tag : tagsByCertificateId.getOrDefault(certificate.getId(), Collections.emptyList())) {
+                purchasesByTagId.merge(tag.getId(), 1L, Long::sum);
+            }
+        }
+        purchaseStatisticsDao.addTagPurchases(userId, purchasesByTagId);
+    }
+
+    public void deleteTag(long tagId) {
+        purchaseStatisticsDao.deleteTagPurchases(tagId);
+    }
+
+    public Optional<Tag> findTopSpendersMostPurchasedTag() {
+        return purchaseStatisticsDao.findTopSpenderId()
+                .flatMap(purchaseStatisticsDao::findMostPurchasedTagId)
+                .flatMap(tagDao::find);
+    }
+
+    @Scheduled(cron = "${statistics.rebuild.cron:0 0 4 * * *}")
+    public void rebuild() {
+        purchaseStatisticsDao.rebuild();
+    }
+}
@@ -0,0 +1,75 @@
+package com.epam.esm.statistics;
+
+import lombok.Getter;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.BiConsumer;
+
+/**
+ * Space-Saving heavy hitters sketch, counts at most capacity keys.
+ * <p>
+ * A key that is not counted replaces the key with the smallest count and takes over that count as its error,
+ * so a counted key's true total lies between count - error and count. A key that is not counted has a true
+ * total of at most {@link #getMinCount()}, and every error is at most the total weight divided by capacity.
+ * The sketch is not thread safe.
+ * </p>
+ */
+public class SpaceSavingSketch<K> {
+    private final int capacity;
+    private final Map<K, Counter<K>> counters = new HashMap<>();
+    private final TreeSet<Counter<K>> byCount = new TreeSet<>(Comparator.<Counter<K>>comparingLong(Counter::getCount)
+            .thenComparingLong(Counter::getSequence));
+    private long sequence;
+
+    public SpaceSavingSketch(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Sketch capacity must be positive");
+        }
+        this.capacity = capacity;
+    }
+
+    @Getter
+    public static class Counter<K> {
+        private K key;
+        private long count;
+        private long error;
+        private long sequence;
+    }
+
+    public void add(K key, long weight) {
+        Counter<K> counter = counters.get(key);
+        if (counter == null) {
+            if (counters.size() < capacity) {
+                counter = new Counter<>();
+            } else {
+                counter = byCount.pollFirst();
+                counters.remove(counter.key);
+                counter.error = counter.count;
+            }
+            counter.key = key;
+            counters.put(key, counter);
+        } else {
+            byCount.remove(counter);
+        }
+        counter.count += weight;
+        counter.sequence = sequence++;
+        byCount.add(counter);
+    }
+
+    /**
+     * @return upper bound of the total of a key that is not counted, 0 until the sketch is full
+     */
+    public long getMinCount() {
+        return counters.size() < capacity ? 0 : byCount.first().count;
+    }
+
+    /**
+     * Passes every counted key to the action with its estimated total and error.
+     */
+    public void forEach(BiConsumer<K, Counter<K>> action) {
+        counters.forEach(action);
+    }
+}
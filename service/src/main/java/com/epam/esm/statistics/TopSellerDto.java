@@ -0,0 +1,29 @@
+package com.epam.esm.statistics;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+/**
+ * Estimated sales of a certificate or tag, the exact value lies within value +/- error.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TopSellerDto {
+    /**
+     * Certificate id, not set for tags.
+     */
+    private Long id;
+    private String name;
+    private BigDecimal value;
+    private BigDecimal error;
+}
@@ -0,0 +1,205 @@
+package com.epam.esm.statistics;
+
+import com.epam.esm.certificate.CertificateSnapshot;
+import com.epam.esm.order.OrderCreatedEvent;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Approximate best sellers over sliding windows, kept in memory from {@link OrderCreatedEvent}s after commit.
+ * <p>
+ * Sales are counted in time buckets of statistics.top-sellers.bucket, kept for statistics.top-sellers.retention.
+ * Every bucket has a {@link SpaceSavingSketch} of statistics.top-sellers.capacity keys for certificate units,
+ * certificate revenue and tag purchases, so memory is bounded by 3 * capacity * retention / bucket counters.
+ * A window is rounded up to whole buckets, including the current one, and its sketches are merged on read.
+ * The error of a bucket is at most its total divided by capacity. Counts are local to the instance
+ * and start from zero on every start.
+ * </p>
+ */
+@Service
+public class TopSellersService {
+    public static final String UNITS = "units";
+    public static final String REVENUE = "revenue";
+    private static final int REVENUE_SCALE = 2;
+
+    private final Clock clock;
+    private final long bucketMillis;
+    private final int capacity;
+    private final Duration retention;
+    private final AtomicReferenceArray<Bucket> buckets;
+
+    @Autowired
+    public TopSellersService(@Value("${statistics.top-sellers.bucket:10m}") Duration bucket,
+                             @Value("${statistics.top-sellers.retention:7d}") Duration retention,
+                             @Value("${statistics.top-sellers.capacity:100}") int capacity) {
+        this(bucket, retention, capacity, Clock.systemUTC());
+    }
+
+    TopSellersService(Duration bucket, Duration retention, int capacity, Clock clock) {
+        if (bucket.isNegative() || bucket.isZero() || retention.compareTo(bucket) < 0) {
+            throw new IllegalArgumentException("Top sellers retention must be at least one positive bucket");
+        }
+        this.clock = clock;
+        this.bucketMillis = bucket.toMillis();
+        this.capacity = capacity;
+        this.retention = retention;
+        this.buckets = new AtomicReferenceArray<>(bucketCount(retention));
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static class CertificateKey {
+        private final long id;
+        private final String name;
+    }
+
+    private class Bucket {
+        private final long number;
+        private final SpaceSavingSketch<CertificateKey> units = new SpaceSavingSketch<>(capacity);
+        private final SpaceSavingSketch<CertificateKey> revenue = new SpaceSavingSketch<>(capacity);
+        private final SpaceSavingSketch<String> tags = new SpaceSavingSketch<>(capacity);
+
+        private Bucket(long number) {
+            this.number = number;
+        }
+
+        private synchronized void add(List<CertificateSnapshot> certificates) {
+            for (CertificateSnapshot certificate : certificates) {
+                CertificateKey key = new CertificateKey(certificate.getId(), certificate.getName());
+                units.add(key, 1);
+                revenue.add(key, certificate.getPrice()
+                        .setScale(REVENUE_SCALE, RoundingMode.HALF_UP)
+                        .unscaledValue()
+                        .longValueExact());
+                certificate.getTags().forEach(tag -> tags.add(tag, 1));
+            }
+        }
+    }
+
+    private static class Estimate {
+        private long count;
+        private long error;
+        private long coveredMinCounts;
+    }
+
+    @TransactionalEventListener
+    public void onOrderCreated(OrderCreatedEvent event) {
+        bucket(clock.millis() / bucketMillis).add(event.getCertificates());
+    }
+
+    /**
+     * @param window sliding window like 1h, 24h or 7d, at most statistics.top-sellers.retention
+     * @param by     {@link #UNITS} or {@link #REVENUE}
+     */
+    public List<TopSellerDto> findTopCertificates(String window, String by, int limit) {
+        Function<Bucket, SpaceSavingSketch<CertificateKey>> sketch;
+        int scale;
+        if (UNITS.equals(by)) {
+            sketch = bucket -> bucket.units;
+            scale = 0;
+        } else if (REVENUE.equals(by)) {
+            sketch = bucket -> bucket.revenue;
+            scale = REVENUE_SCALE;
+        } else {
+            throw new IllegalArgumentException("Top certificates can be ordered by " + UNITS + " or " + REVENUE);
+        }
+        return top(window, limit, sketch).entrySet()
+                .stream()
+                .map(entry -> new TopSellerDto(entry.getKey().id, entry.getKey().name,
+                        BigDecimal.valueOf(entry.getValue().count, scale),
+                        BigDecimal.valueOf(entry.getValue().error, scale)))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @param window sliding window like 1h, 24h or 7d, at most statistics.top-sellers.retention
+     */
+    public List<TopSellerDto> findTopTags(String window, int limit) {
+        return top(window, limit, bucket -> bucket.tags).entrySet()
+                .stream()
+                .map(entry -> new TopSellerDto(null, entry.getKey(),
+                        BigDecimal.valueOf(entry.getValue().count),
+                        BigDecimal.valueOf(entry.getValue().error)))
+                .collect(Collectors.toList());
+    }
+
+    private <K> Map<K, Estimate> top(String window, int limit, Function<Bucket, SpaceSavingSketch<K>> sketch) {
+        if (limit < 1 || limit > capacity) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + capacity);
+        }
+        Duration duration = DurationStyle.detectAndParse(window);
+        if (duration.isNegative() || duration.isZero() || duration.compareTo(retention) > 0) {
+            throw new IllegalArgumentException("Window must be positive and at most " + retention);
+        }
+        long current = clock.millis() / bucketMillis;
+        Map<K, Estimate> estimates = new HashMap<>();
+        long minCounts = 0;
+        for (long number = current - bucketCount(duration) + 1; number <= current; number++) {
+            Bucket bucket = buckets.get(index(number));
+            if (bucket == null || bucket.number != number) {
+                continue;
+            }
+            synchronized (bucket) {
+                SpaceSavingSketch<K> bucketSketch = sketch.apply(bucket);
+                long minCount = bucketSketch.getMinCount();
+                minCounts += minCount;
+                bucketSketch.forEach((key, counter) -> {
+                    Estimate estimate = estimates.computeIfAbsent(key, k -> new Estimate());
+                    estimate.count += counter.getCount();
+                    estimate.error += counter.getError();
+                    estimate.coveredMinCounts += minCount;
+                });
+            }
+        }
+        long totalMinCounts = minCounts;
+        // a key missing from a full bucket may have sold up to that bucket's smallest count there
+        estimates.values().forEach(estimate -> estimate.error += totalMinCounts - estimate.coveredMinCounts);
+        return estimates.entrySet()
+                .stream()
+                .sorted(Comparator.comparingLong((Map.Entry<K, Estimate> entry) -> entry.getValue().count)
+                        .reversed())
+                .limit(limit)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue,
+                        (first, second) -> first, LinkedHashMap::new));
+    }
+
+    private Bucket bucket(long number) {
+        int index = index(number);
+        while (true) {
+            Bucket bucket = buckets.get(index);
+            if (bucket != null && bucket.number >= number) {
+                return bucket;
+            }
+            Bucket next = new Bucket(number);
+            if (buckets.compareAndSet(index, bucket, next)) {
+                return next;
+            }
+        }
+    }
+
+    private int index(long number) {
+        return (int) (number % buckets.length());
+    }
+
+    private int bucketCount(Duration duration) {
+        return (int) ((duration.toMillis() + bucketMillis - 1) / bucketMillis);
+    }
+}
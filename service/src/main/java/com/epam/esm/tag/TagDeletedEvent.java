@@ -0,0 +1,23 @@
+package com.epam.esm.tag;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by {@link TagService} when a tag was deleted and so removed from all its certificates,
+ * listeners should react to it after the commit.
+ */
+@AllArgsConstructor
+@EqualsAndHashCode
+@Getter
+public class TagDeletedEvent {
+    private final long tagId;
+    private final String tagName;
+    /**
+     * New modification date of the certificates that had the tag.
+     */
+    private final LocalDateTime modificationDate;
+}
@@ -1,37 +1,24 @@
 package com.epam.esm.tag;
 
-import org.modelmapper.Converter;
-import org.modelmapper.ModelMapper;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import javax.annotation.PostConstruct;
 import java.util.Collections;
 
 @Component
 public class TagDtoMapper {
-    private final ModelMapper mapper;
 
-    @Autowired
-    public TagDtoMapper(ModelMapper modelMapper) {
-        this.mapper = modelMapper;
+    public TagDto toDto(Tag source) {
+        TagDto destination = new TagDto();
+        destination.setId(source.getId());
+        destination.setName(source.getName());
+        return destination;
     }
 
-    @PostConstruct
-    public void setupMapper() {
-        mapper.createTypeMap(TagDto.class, Tag.class)
-                .addMappings(m-> m.skip(Tag::setCertificates)).setPostConverter(toEntityConverter());
-    }
-
-    public Converter<TagDto, Tag> toEntityConverter() {
-        return context -> {
-            Tag destination = context.getDestination();
-            mapSpecificFields(destination);
-            return context.getDestination();
-        };
-    }
-
-    public void mapSpecificFields(Tag destination) {
+    public Tag toEntity(TagDto source) {
+        Tag destination = new Tag();
+        destination.setId(source.getId());
+        destination.setName(source.getName());
         destination.setCertificates(Collections.emptyList());
+        return destination;
     }
 }
@@ -2,12 +2,17 @@ package com.epam.esm.tag;
 
 import com.epam.esm.certificate.CertificateDao;
 import com.epam.esm.certificate.CertificateNotFoundException;
+import com.epam.esm.certificate.CertificateSearchCache;
+import com.epam.esm.pagination.CountCache;
+import com.epam.esm.pagination.SlicedModel;
+import com.epam.esm.statistics.PurchaseStatisticsService;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.hateoas.PagedModel;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -18,19 +23,32 @@ import java.util.stream.Collectors;
 public class TagService {
     private final TagDao tagDao;
     private final CertificateDao certificateDao;
-    private final ModelMapper modelMapper;
+    private final TagDtoMapper tagDtoMapper;
+    private final CountCache countCache;
+    private final CertificateSearchCache certificateSearchCache;
+    private final PurchaseStatisticsService purchaseStatisticsService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public TagService(TagDao tagDao,
                       CertificateDao certificateDao,
-                      ModelMapper modelMapper) {
+                      TagDtoMapper tagDtoMapper,
+                      CountCache countCache,
+                      CertificateSearchCache certificateSearchCache,
+                      PurchaseStatisticsService purchaseStatisticsService,
+                      ApplicationEventPublisher eventPublisher) {
         this.tagDao = tagDao;
         this.certificateDao = certificateDao;
-        this.modelMapper = modelMapper;
+        this.tagDtoMapper = tagDtoMapper;
+        this.countCache = countCache;
+        this.certificateSearchCache = certificateSearchCache;
+        this.purchaseStatisticsService = purchaseStatisticsService;
+        this.eventPublisher = eventPublisher;
     }
 
     public TagDto create(TagDto tagDto) {
-        Tag tag = modelMapper.map(tagDto, Tag.class);
+        Tag tag = tagDtoMapper.toEntity(tagDto);
             tagDao.create(tag);
+            countCache.adjust(CountCache.TAGS, CountCache.NO_FILTER, 1);
             tagDto.setId(tag.getId());
             return tagDto;
     }
@@ -39,38 +57,71 @@ public class TagService {
             Tag tag = tagDao.find(id).orElseThrow(() ->
                  new TagNotFoundException("There is no tag with id " + id)
             );
+            LocalDateTime modificationDate = certificateDao.touchCertificatesByTagId(id);
             tagDao.delete(tag);
+            purchaseStatisticsService.deleteTag(id);
+            countCache.adjust(CountCache.TAGS, CountCache.NO_FILTER, -1);
+            countCache.invalidate(CountCache.CERTIFICATES);
+            certificateSearchCache.invalidate();
+            eventPublisher.publishEvent(new TagDeletedEvent(id, tag.getName(), modificationDate));
     }
 
     public TagDto find(long id) {
         Optional<Tag> tag = tagDao.find(id);
         if(tag.isPresent()) {
-            return modelMapper.map(tag.get(),TagDto.class);
+            return tagDtoMapper.toDto(tag.get());
         } else {
             throw new TagNotFoundException("Tag with id = " + id + "doesn't exist");
         }
     }
 
     public PagedModel<TagDto> findTags(Integer page, Integer perPage) {
+        return findTags(page, perPage, true);
+    }
+
+    /**
+     * @param withCount false skips counting, the page only tells if there is a next one
+     */
+    public PagedModel<TagDto> findTags(Integer page, Integer perPage, boolean withCount) {
+        if (!withCount) {
+            List<Tag> tags = tagDao.findTags(page, perPage, perPage + 1);
+            boolean hasNext = tags.size() > perPage;
+            List<TagDto> tagDtos = tags.stream()
+                    .limit(perPage)
+                    .map(tagDtoMapper::toDto)
+                    .collect(Collectors.toList());
+            return SlicedModel.ofPage(tagDtos, page, perPage, hasNext);
+        }
         List<TagDto> tags = tagDao.findTags(page, perPage).stream()
-                .map(tag -> modelMapper.map(tag,TagDto.class))
+                .map(tagDtoMapper::toDto)
                 .collect(Collectors.toList());
-        return PagedModel.of(tags, new PagedModel.PageMetadata(perPage,page,tagDao.getCountOfTags()));
+        long totalTagsCount = countCache.get(CountCache.TAGS, CountCache.NO_FILTER, tagDao::getCountOfTags);
+        return PagedModel.of(tags, new PagedModel.PageMetadata(perPage,page,totalTagsCount));
     }
 
     public List<TagDto> findTagsByCertificateId(long id) {
         if(certificateDao.find(id).isPresent()) {
             return tagDao.findByCertificateId(id).stream()
-                    .map(tag -> modelMapper.map(tag, TagDto.class))
+                    .map(tagDtoMapper::toDto)
                     .collect(Collectors.toList());
         } else {
             throw new CertificateNotFoundException("There is no certificate with id = " + id);
         }
     }
 
+    /**
+     * Reads the tag from the purchase statistics, which are updated by every order.
+     */
     public TagDto GetValuedUsersMostPopularTag() {
-        Tag tag = tagDao.GetValuedUsersMostPopularTag().orElseThrow(()->
+        Tag tag = purchaseStatisticsService.findTopSpendersMostPurchasedTag().orElseThrow(()->
                 new TagNotFoundException("Cannot find tag. Not enough data."));
-        return modelMapper.map(tag, TagDto.class);
+        return tagDtoMapper.toDto(tag);
+    }
+
+    /**
+     * Recomputes the statistics read by GetValuedUsersMostPopularTag from all orders.
+     */
+    public void rebuildPurchaseStatistics() {
+        purchaseStatisticsService.rebuild();
     }
 }
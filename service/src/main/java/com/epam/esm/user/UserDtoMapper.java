@@ -1,59 +1,44 @@
 package com.epam.esm.user;
 
-import org.modelmapper.Converter;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
-import javax.annotation.PostConstruct;
-
 @Component
 public class UserDtoMapper {
-    private final ModelMapper mapper;
     private final PasswordEncoder passwordEncoder;
 
     @Autowired
-    public UserDtoMapper(ModelMapper modelMapper,
-                         PasswordEncoder passwordEncoder) {
-        this.mapper = modelMapper;
+    public UserDtoMapper(PasswordEncoder passwordEncoder) {
         this.passwordEncoder = passwordEncoder;
     }
 
-    @PostConstruct
-    public void setupMapper() {
-        mapper.createTypeMap(User.class, UserDto.class)
-                .addMappings(m -> m.skip(UserDto::setPassword)).setPostConverter(toDtoConverter());
-        mapper.createTypeMap(UserDto.class, User.class)
-                .addMappings(m-> m.skip(User::setOrders)).setPostConverter(toEntityConverter());
-    }
-
-    public Converter<User, UserDto> toDtoConverter() {
-        return context -> {
-            UserDto destination = context.getDestination();
-            mapSpecificFields(destination);
-            return context.getDestination();
-        };
-    }
-
-    public Converter<UserDto, User> toEntityConverter() {
-        return context -> {
-            UserDto source = context.getSource();
-            User destination = context.getDestination();
-            mapSpecificFields(source, destination);
-            return context.getDestination();
-        };
-    }
-
-    public void mapSpecificFields(UserDto destination) {
-        destination.setPassword(null);
+    /**
+     * Maps the user without the password.
+     */
+    public UserDto toDto(User source) {
+        UserDto destination = new UserDto();
+        destination.setId(source.getId());
+        destination.setFirstName(source.getFirstName());
+        destination.setLastName(source.getLastName());
+        destination.setLogin(source.getLogin());
+        return destination;
     }
 
-    public void mapSpecificFields(UserDto source, User destination) {
+    /**
+     * Maps the user with the encoded password and the {@link Role#ROLE_USER} role, orders are not mapped.
+     */
+    public User toEntity(UserDto source) {
+        User destination = new User();
+        destination.setId(source.getId());
+        destination.setFirstName(source.getFirstName());
+        destination.setLastName(source.getLastName());
+        destination.setLogin(source.getLogin());
         String password = source.getPassword();
         if(password != null) {
             destination.setPassword(passwordEncoder.encode(password));
         }
         destination.setRole(Role.ROLE_USER);
+        return destination;
     }
 }
@@ -1,7 +1,9 @@
 package com.epam.esm.user;
 
+import com.epam.esm.jwt.JwtUserDetailsService;
+import com.epam.esm.pagination.CountCache;
+import com.epam.esm.pagination.SlicedModel;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.hateoas.PagedModel;
 import org.springframework.stereotype.Service;
@@ -16,47 +18,73 @@ import java.util.stream.Collectors;
 @Transactional
 public class UserService {
     private final UserDao userDao;
-    private final ModelMapper modelMapper;
+    private final UserDtoMapper userDtoMapper;
+    private final CountCache countCache;
+    private final JwtUserDetailsService userDetailsService;
 
     @Autowired
     public UserService(UserDao userDao,
-                       ModelMapper modelMapper) {
-        this.modelMapper = modelMapper;
+                       UserDtoMapper userDtoMapper,
+                       CountCache countCache,
+                       JwtUserDetailsService userDetailsService) {
+        this.userDtoMapper = userDtoMapper;
         this.userDao = userDao;
+        this.countCache = countCache;
+        this.userDetailsService = userDetailsService;
     }
 
     public UserDto create(UserDto userDto) {
         userDto.setId(0);
-        User user = modelMapper.map(userDto, User.class);
+        User user = userDtoMapper.toEntity(userDto);
         userDao.create(user);
-        return modelMapper.map(user, UserDto.class);
+        countCache.adjust(CountCache.USERS, CountCache.NO_FILTER, 1);
+        return userDtoMapper.toDto(user);
     }
 
     public UserDto update(UserDto userDto, long id) {
         userDto.setId(id);
-        if (!userDao.find(id).isPresent()) {
-            throw new UserNotFoundException("User with id " + userDto.getId() + " doesn't exist");
-        }
-        User user = modelMapper.map(userDto, User.class);
+        User beforeUpdate = userDao.find(id).orElseThrow(() ->
+                new UserNotFoundException("User with id " + userDto.getId() + " doesn't exist"));
+        String loginBeforeUpdate = beforeUpdate.getLogin();
+        User user = userDtoMapper.toEntity(userDto);
         userDao.update(user);
-        return modelMapper.map(user, UserDto.class);
+        userDetailsService.evict(loginBeforeUpdate);
+        userDetailsService.evict(user.getLogin());
+        return userDtoMapper.toDto(user);
     }
 
     public UserDto find(long id) {
         Optional<User> user = userDao.find(id);
         if (user.isPresent()) {
-            return modelMapper.map(user.get(), UserDto.class);
+            return userDtoMapper.toDto(user.get());
         } else {
             throw new UserNotFoundException("User with id " + id + " doesn't exist");
         }
     }
 
     public PagedModel<UserDto> findUsers(int page, int perPage) {
+        return findUsers(page, perPage, true);
+    }
+
+    /**
+     * @param withCount false skips counting, the page only tells if there is a next one
+     */
+    public PagedModel<UserDto> findUsers(int page, int perPage, boolean withCount) {
+        if (!withCount) {
+            List<User> users = userDao.findUsers(page, perPage, perPage + 1);
+            boolean hasNext = users.size() > perPage;
+            List<UserDto> userDtos = users.stream()
+                    .limit(perPage)
+                    .map(user -> userDtoMapper.toDto(user))
+                    .collect(Collectors.toList());
+            return SlicedModel.ofPage(userDtos, page, perPage, hasNext);
+        }
         List<UserDto> users = userDao.findUsers(page, perPage)
                 .stream()
-                .map(user -> modelMapper.map(user, UserDto.class))
+                .map(user -> userDtoMapper.toDto(user))
                 .collect(Collectors.toList());
-        int totalUsersCount = userDao.findAllUserCount().intValue();
+        int totalUsersCount = (int) countCache.get(CountCache.USERS, CountCache.NO_FILTER,
+                userDao::findAllUserCount);
         PagedModel.PageMetadata pageMetadata = new PagedModel.PageMetadata(perPage, page, totalUsersCount);
         return PagedModel.of(users, pageMetadata);
     }
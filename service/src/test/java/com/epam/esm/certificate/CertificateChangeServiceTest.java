@@ -0,0 +1,117 @@
+package com.epam.esm.certificate;
+
+import com.epam.esm.tag.TagDao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static java.util.stream.Collectors.toList;
+
+public class CertificateChangeServiceTest {
+    private static final LocalDateTime START = LocalDateTime.of(2020, 7, 1, 10, 0);
+
+    CertificateChangeService certificateChangeService;
+    @Mock
+    CertificateDao certificateDao;
+    @Mock
+    TagDao tagDao;
+
+    @BeforeEach
+    public void init() {
+        MockitoAnnotations.initMocks(this);
+        certificateChangeService = new CertificateChangeService(certificateDao, new CertificateDtoMapper(tagDao),
+                Duration.ofSeconds(5));
+        doReturn(new HashMap<>()).when(tagDao).findNamesByCertificateIds(anyCollection());
+    }
+
+    @Test
+    public void findChanges_certificatesAndTombstones_shouldMergeThemInChangeOrder() {
+        //Given
+        doReturn(Arrays.asList(
+                certificate(1, START, START, CertificateStatus.PUBLISHED),
+                certificate(2, START, START.plusMinutes(2), CertificateStatus.INACTIVE),
+                certificate(3, START, START.plusMinutes(3), CertificateStatus.ACTIVE)))
+                .when(certificateDao).findCertificatesChangedAfter(any(), any(), anyInt());
+        doReturn(Collections.singletonList(new CertificateTombstone(4, START.plusMinutes(1))))
+                .when(certificateDao).findTombstonesAfter(any(), any(), anyInt());
+
+        //When
+        CertificateChangesDto changes = certificateChangeService.findChanges(null, 10);
+
+        //Then
+        assertEquals(Arrays.asList(CertificateChangeDto.CREATED, CertificateChangeDto.DELETED,
+                CertificateChangeDto.DEACTIVATED, CertificateChangeDto.UPDATED),
+                changes.getChanges().stream().map(CertificateChangeDto::getType).collect(toList()));
+        assertEquals(Arrays.asList(1L, 4L, 2L, 3L),
+                changes.getChanges().stream().map(CertificateChangeDto::getId).collect(toList()));
+        assertNull(changes.getChanges().get(1).getCertificate());
+        assertEquals("name 3", changes.getChanges().get(3).getCertificate().getName());
+        assertEquals(new CertificateChangeCursor(START.plusMinutes(3), 3),
+                CertificateChangeCursor.decode(changes.getNext()));
+        assertFalse(changes.isHasMore());
+    }
+
+    @Test
+    public void findChanges_moreChangesThanLimit_shouldReturnLimitAndCursorOfLastOne() {
+        //Given
+        CertificateChangeCursor since = new CertificateChangeCursor(START, 1);
+        doReturn(Arrays.asList(
+                certificate(2, START, START, CertificateStatus.PUBLISHED),
+                certificate(3, START, START.plusMinutes(1), CertificateStatus.PUBLISHED)))
+                .when(certificateDao).findCertificatesChangedAfter(eq(since), any(), eq(2));
+        doReturn(Collections.emptyList()).when(certificateDao).findTombstonesAfter(eq(since), any(), eq(2));
+
+        //When
+        CertificateChangesDto changes = certificateChangeService.findChanges(since.encode(), 1);
+
+        //Then
+        assertEquals(1, changes.getChanges().size());
+        assertEquals(new CertificateChangeCursor(START, 2), CertificateChangeCursor.decode(changes.getNext()));
+        assertTrue(changes.isHasMore());
+    }
+
+    @Test
+    public void findChanges_noNewChanges_shouldReturnSameCursor() {
+        //Given
+        String since = new CertificateChangeCursor(START, 1).encode();
+
+        //When
+        CertificateChangesDto changes = certificateChangeService.findChanges(since, 10);
+
+        //Then
+        assertTrue(changes.getChanges().isEmpty());
+        assertEquals(since, changes.getNext());
+        verify(certificateDao).findCertificatesChangedAfter(any(), argThat(until ->
+                until.isBefore(LocalDateTime.now().minusSeconds(4))), eq(11));
+    }
+
+    @Test
+    public void findChanges_invalidCursor_shouldThrowException() {
+        //When //Then
+        assertThrows(IllegalArgumentException.class, () -> certificateChangeService.findChanges("not a cursor", 10));
+    }
+
+    private static Certificate certificate(long id, LocalDateTime creationDate, LocalDateTime modificationDate,
+                                           CertificateStatus status) {
+        Certificate certificate = new Certificate("name " + id, "description", BigDecimal.TEN, 5);
+        certificate.setId(id);
+        certificate.setCreationDate(creationDate);
+        certificate.setModificationDate(modificationDate);
+        certificate.setStatus(status);
+        return certificate;
+    }
+}
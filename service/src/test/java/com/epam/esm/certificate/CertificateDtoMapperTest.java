@@ -0,0 +1,81 @@
+package com.epam.esm.certificate;
+
+import com.epam.esm.tag.TagDao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+public class CertificateDtoMapperTest {
+    @Mock
+    TagDao tagDao;
+    CertificateDtoMapper certificateDtoMapper;
+
+    @BeforeEach
+    public void init() {
+        MockitoAnnotations.initMocks(this);
+        certificateDtoMapper = new CertificateDtoMapper(tagDao);
+        doAnswer(invocation -> {
+            Map<Long, List<String>> tagNames = new HashMap<>();
+            invocation.<List<Long>>getArgument(0).forEach(id -> tagNames.put(id, Arrays.asList("tag" + id, "all")));
+            return tagNames;
+        }).when(tagDao).findNamesByCertificateIds(anyCollection());
+    }
+
+    @Test
+    public void toDtos_anyPageSize_shouldReadTagsWithOneQuery() {
+        //Given
+        List<Certificate> smallPage = certificates(2);
+        List<Certificate> bigPage = certificates(500);
+
+        //When
+        certificateDtoMapper.toDtos(smallPage);
+        List<CertificateDto> dtos = certificateDtoMapper.toDtos(bigPage);
+
+        //Then
+        verify(tagDao, times(2)).findNamesByCertificateIds(anyCollection());
+        verify(tagDao, never()).findByCertificateId(anyLong());
+        assertEquals(500, dtos.size());
+        assertEquals(Arrays.asList("tag500", "all"), dtos.get(499).getTags());
+        assertEquals("name500", dtos.get(499).getName());
+    }
+
+    @Test
+    public void toDtos_certificateWithoutTags_shouldReturnEmptyTags() {
+        //Given
+        doReturn(Collections.emptyMap()).when(tagDao).findNamesByCertificateIds(anyCollection());
+
+        //When
+        CertificateDto dto = certificateDtoMapper.toDto(certificates(1).get(0));
+
+        //Then
+        assertEquals(Collections.emptyList(), dto.getTags());
+        assertEquals(1, dto.getId());
+    }
+
+    private static List<Certificate> certificates(int count) {
+        return LongStream.rangeClosed(1, count)
+                .mapToObj(id -> {
+                    Certificate certificate = new Certificate("name" + id, "description",
+                            new BigDecimal("12.6"), 5);
+                    certificate.setId(id);
+                    certificate.setStatus(CertificateStatus.PUBLISHED);
+                    return certificate;
+                })
+                .collect(Collectors.toList());
+    }
+}
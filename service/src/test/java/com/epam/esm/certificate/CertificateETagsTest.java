@@ -0,0 +1,67 @@
+package com.epam.esm.certificate;
+
+import com.epam.esm.pagination.SlicedModel;
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.http.MediaType;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+public class CertificateETagsTest {
+
+    @Test
+    public void certificate_sameVersionAndRepresentation_shouldHaveSameETag() {
+        //Given
+        CertificateDto certificate = certificate(LocalDateTime.of(2020, 7, 1, 10, 0));
+        CertificateDto sameCertificate = certificate(LocalDateTime.of(2020, 7, 1, 10, 0));
+
+        //When
+        String eTag = CertificateETags.certificate(certificate, MediaTypes.HAL_JSON, false);
+
+        //Then
+        assertEquals(eTag, CertificateETags.certificate(sameCertificate, MediaTypes.HAL_JSON, false));
+        assertNotEquals(eTag, CertificateETags.certificate(certificate, MediaType.APPLICATION_JSON, false));
+        assertNotEquals(eTag, CertificateETags.certificate(certificate, MediaTypes.HAL_JSON, true));
+    }
+
+    @Test
+    public void page_modifiedCertificate_shouldChangeETag() {
+        //Given
+        PagedModel<CertificateDto> page = SlicedModel.ofPage(Collections.singletonList(
+                certificate(LocalDateTime.of(2020, 7, 1, 10, 0))), 1, 10, false);
+        PagedModel<CertificateDto> modifiedPage = SlicedModel.ofPage(Collections.singletonList(
+                certificate(LocalDateTime.of(2020, 7, 2, 10, 0))), 1, 10, false);
+
+        //When
+        String eTag = CertificateETags.page(page);
+
+        //Then
+        assertNotEquals(eTag, CertificateETags.page(modifiedPage));
+    }
+
+    @Test
+    public void mediaType_onlyPlainJsonAccepted_shouldChoosePlainJson() {
+        //When
+        MediaType plainJson = CertificateETags.mediaType(MediaType.parseMediaTypes("application/json"));
+        MediaType any = CertificateETags.mediaType(MediaType.parseMediaTypes("*/*"));
+        MediaType none = CertificateETags.mediaType(Collections.emptyList());
+
+        //Then
+        assertEquals(MediaType.APPLICATION_JSON, plainJson);
+        assertEquals(MediaTypes.HAL_JSON, any);
+        assertEquals(MediaTypes.HAL_JSON, none);
+    }
+
+    private static CertificateDto certificate(LocalDateTime modificationDate) {
+        CertificateDto certificate = new CertificateDto();
+        certificate.setId(1);
+        certificate.setCreationDate(LocalDateTime.of(2020, 6, 1, 10, 0));
+        certificate.setModificationDate(modificationDate);
+        return certificate;
+    }
+}
@@ -0,0 +1,108 @@
+package com.epam.esm.certificate;
+
+import com.epam.esm.tag.TagDao;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class CertificateExportServiceTest {
+    CertificateExportService certificateExportService;
+    @Mock
+    CertificateDao certificateDao;
+    @Mock
+    TagDao tagDao;
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    public void init() {
+        MockitoAnnotations.initMocks(this);
+        certificateExportService = new CertificateExportService(certificateDao, new CertificateDtoMapper(tagDao),
+                transactionManager, new ObjectMapper().findAndRegisterModules(), 2);
+        Map<Long, List<String>> tagNames = new HashMap<>();
+        tagNames.put(1L, Arrays.asList("sea", "sun"));
+        tagNames.put(3L, Collections.singletonList("ski"));
+        doReturn(tagNames).when(tagDao).findNamesByCertificateIds(anyCollection());
+        doAnswer(invocation -> {
+            Consumer<List<Certificate>> batches = invocation.getArgument(1);
+            batches.accept(new ArrayList<>(Arrays.asList(certificate(1, "first name"),
+                    certificate(2, "name, with \"quotes\""))));
+            batches.accept(new ArrayList<>(Collections.singletonList(certificate(3, "third name"))));
+            return null;
+        }).when(certificateDao).scrollCertificates(eq(2), any());
+    }
+
+    @Test
+    public void export_ndjson_shouldWriteOneCertificatePerLine() throws IOException {
+        //When
+        String[] lines = export(CertificateExportService.Format.NDJSON).split("\n");
+
+        //Then
+        assertEquals(3, lines.length);
+        assertEquals("{\"id\":1,\"name\":\"first name\",\"description\":\"description\",\"price\":10," +
+                "\"creationDate\":\"2020-07-01 10:30\",\"modificationDate\":null,\"duration\":5," +
+                "\"status\":\"PUBLISHED\",\"tags\":[\"sea\",\"sun\"]}", lines[0]);
+        assertEquals("{\"id\":3,\"name\":\"third name\",\"description\":\"description\",\"price\":10," +
+                "\"creationDate\":\"2020-07-01 10:30\",\"modificationDate\":null,\"duration\":5," +
+                "\"status\":\"PUBLISHED\",\"tags\":[\"ski\"]}", lines[2]);
+    }
+
+    @Test
+    public void export_csv_shouldWriteHeaderAndQuoteFields() throws IOException {
+        //When
+        String[] lines = export(CertificateExportService.Format.CSV).split("\r\n");
+
+        //Then
+        assertEquals(4, lines.length);
+        assertEquals("id,name,description,price,creationDate,modificationDate,duration,status,tags", lines[0]);
+        assertEquals("1,first name,description,10,2020-07-01 10:30,,5,PUBLISHED,sea|sun", lines[1]);
+        assertEquals("2,\"name, with \"\"quotes\"\"\",description,10,2020-07-01 10:30,,5,PUBLISHED,", lines[2]);
+    }
+
+    @Test
+    public void export_batches_shouldReadTagNamesOncePerBatch() throws IOException {
+        //When
+        export(CertificateExportService.Format.NDJSON);
+
+        //Then
+        verify(tagDao).findNamesByCertificateIds(Arrays.asList(1L, 2L));
+        verify(tagDao).findNamesByCertificateIds(Collections.singletonList(3L));
+        verify(transactionManager, times(1)).commit(any());
+    }
+
+    private String export(CertificateExportService.Format format) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        certificateExportService.export(format, output);
+        return new String(output.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static Certificate certificate(long id, String name) {
+        Certificate certificate = new Certificate(name, "description", BigDecimal.TEN, 5);
+        certificate.setId(id);
+        certificate.setCreationDate(LocalDateTime.of(2020, 7, 1, 10, 30));
+        certificate.setStatus(CertificateStatus.PUBLISHED);
+        return certificate;
+    }
+}
@@ -0,0 +1,188 @@
+package com.epam.esm.certificate;
+
+import com.epam.esm.pagination.CountCache;
+import com.epam.esm.tag.Tag;
+import com.epam.esm.tag.TagDao;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.validation.Validation;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+public class CertificateImportServiceTest {
+    CertificateImportService certificateImportService;
+    @Mock
+    CertificateDao certificateDao;
+    @Mock
+    TagDao tagDao;
+    @Mock
+    CountCache countCache;
+    @Mock
+    CertificateSearchCache certificateSearchCache;
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+    @Mock
+    PlatformTransactionManager transactionManager;
+    AtomicLong ids;
+
+    @BeforeEach
+    public void init() {
+        MockitoAnnotations.initMocks(this);
+        certificateImportService = new CertificateImportService(certificateDao, tagDao,
+                new CertificateDtoMapper(tagDao), countCache, certificateSearchCache, eventPublisher,
+                transactionManager, new ObjectMapper(), Validation.buildDefaultValidatorFactory().getValidator(),
+                2);
+        ids = new AtomicLong();
+        doAnswer(invocation -> {
+            Certificate certificate = invocation.getArgument(0);
+            certificate.setId(ids.incrementAndGet());
+            return null;
+        }).when(certificateDao).create(any());
+    }
+
+    @Test
+    public void importCertificates_validAndInvalidLines_shouldReportEveryLineInOrder() throws IOException {
+        //Given
+        String input = certificate("first name") + "\n"
+                + "{not json\n"
+                + "\n"
+                + "{\"name\":\"short\",\"description\":\"description\",\"price\":10,\"duration\":0," +
+                "\"status\":\"PUBLISHED\",\"tags\":[]}\n"
+                + certificate("second name") + "\n";
+
+        //When
+        List<CertificateImportResult> results = importCertificates(input);
+
+        //Then
+        assertEquals(4, results.size());
+        assertEquals(CertificateImportResult.created(1, 1), results.get(0));
+        assertEquals(CertificateImportResult.FAILED, results.get(1).getStatus());
+        assertEquals(2, results.get(1).getLine());
+        assertEquals(CertificateImportResult.failed(4, "duration must be greater than or equal to 1"),
+                results.get(2));
+        assertEquals(CertificateImportResult.created(5, 2), results.get(3));
+    }
+
+    @Test
+    public void importCertificates_moreInvalidLinesThanChunkSize_shouldReportThemBeforeEndOfInput()
+            throws IOException {
+        //Given
+        AtomicBoolean endOfInput = new AtomicBoolean();
+        Reader input = new StringReader("{not json\n{not json\n{not json\n{not json\n{not json\n") {
+            @Override
+            public int read(char[] buffer, int offset, int length) throws IOException {
+                int read = super.read(buffer, offset, length);
+                endOfInput.compareAndSet(false, read == -1);
+                return read;
+            }
+        };
+        List<Integer> chunkSizesBeforeEndOfInput = new ArrayList<>();
+        List<CertificateImportResult> results = new ArrayList<>();
+
+        //When
+        certificateImportService.importCertificates(input, chunk -> {
+            if (!endOfInput.get()) {
+                chunkSizesBeforeEndOfInput.add(chunk.size());
+            }
+            results.addAll(chunk);
+        });
+
+        //Then
+        assertEquals(5, results.size());
+        assertEquals(Arrays.asList(2, 2), chunkSizesBeforeEndOfInput);
+        assertFalse(results.stream().anyMatch(result -> result.getStatus() != CertificateImportResult.FAILED));
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    public void importCertificates_chunkOfCertificates_shouldResolveTagsOnce() throws IOException {
+        //Given
+        Tag existent = new Tag("existent");
+        existent.setId(7);
+        doReturn(new ArrayList<>(Collections.singletonList(existent))).when(tagDao).findByNames(anyCollection());
+
+        //When
+        importCertificates(certificate("first name", "existent", "new") + "\n"
+                + certificate("second name", "new") + "\n");
+
+        //Then
+        verify(tagDao, times(1)).findByNames(anyCollection());
+        verify(tagDao, times(1)).create(new Tag("new"));
+        verify(tagDao, never()).findByName(any());
+        verify(certificateDao, times(1)).findNonInactiveCertificateNames(anyCollection());
+        verify(countCache).adjust(CountCache.TAGS, CountCache.NO_FILTER, 1);
+    }
+
+    @Test
+    public void importCertificates_takenAndRepeatedNames_shouldFailThoseLines() throws IOException {
+        //Given
+        doReturn(Collections.singletonList("taken name")).when(certificateDao)
+                .findNonInactiveCertificateNames(anyCollection());
+
+        //When
+        List<CertificateImportResult> results = importCertificates(certificate("first name") + "\n"
+                + certificate("first name") + "\n"
+                + certificate("taken name") + "\n");
+
+        //Then
+        assertEquals(CertificateImportResult.created(1, 1), results.get(0));
+        assertEquals(CertificateImportResult.failed(2, "Certificate with name 'first name' already exists"),
+                results.get(1));
+        assertEquals(CertificateImportResult.failed(3, "Certificate with name 'taken name' already exists"),
+                results.get(2));
+    }
+
+    @Test
+    public void importCertificates_failedChunkCommit_shouldImportItsLinesOneByOne() throws IOException {
+        //Given
+        doThrow(new DataIntegrityViolationException("constraint violated"))
+                .doNothing()
+                .doThrow(new DataIntegrityViolationException("second line violates constraint"))
+                .when(transactionManager).commit(any());
+
+        //When
+        List<CertificateImportResult> results = importCertificates(certificate("first name") + "\n"
+                + certificate("second name") + "\n");
+
+        //Then
+        assertEquals(CertificateImportResult.CREATED, results.get(0).getStatus());
+        assertEquals(CertificateImportResult.failed(2, "second line violates constraint"), results.get(1));
+        verify(transactionManager, times(3)).commit(any());
+    }
+
+    private List<CertificateImportResult> importCertificates(String input) throws IOException {
+        List<CertificateImportResult> results = new ArrayList<>();
+        certificateImportService.importCertificates(new StringReader(input), results::addAll);
+        for (int i = 1; i < results.size(); i++) {
+            assertTrue(results.get(i - 1).getLine() < results.get(i).getLine());
+        }
+        return results;
+    }
+
+    private static String certificate(String name, String... tags) {
+        String tagList = tags.length == 0 ? "" : "\"" + String.join("\",\"", tags) + "\"";
+        return "{\"name\":\"" + name + "\",\"description\":\"description\",\"price\":10,\"duration\":5," +
+                "\"status\":\"PUBLISHED\",\"tags\":[" + tagList + "]}";
+    }
+}
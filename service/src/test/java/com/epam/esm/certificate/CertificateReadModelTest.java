@@ -0,0 +1,153 @@
+package com.epam.esm.certificate;
+
+import com.epam.esm.tag.TagDao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CertificateReadModelTest {
+    @Mock
+    CertificateDao certificateDao;
+    @Mock
+    TagDao tagDao;
+    @Mock
+    PlatformTransactionManager transactionManager;
+    CertificateReadModel readModel;
+
+    @BeforeEach
+    public void init() {
+        MockitoAnnotations.initMocks(this);
+        readModel = new CertificateReadModel(certificateDao, tagDao, transactionManager);
+        readModel.put(snapshot(1, "Spa day", "relaxing massage", "30", "spa", "relax"));
+        readModel.put(snapshot(2, "Cinema", "two tickets", "10", "movie", "relax"));
+        readModel.put(snapshot(3, "Massage", "deep tissue massage", "20", "spa", "relax"));
+        readModel.put(snapshot(4, "Concert", "rock concert", "40", "music"));
+    }
+
+    @Test
+    public void search_severalTags_shouldReturnCertificatesWithAllTags() {
+        //When
+        CertificateReadModel.SearchResult result = readModel.search(Arrays.asList("spa", "relax"), null,
+                "id", 1, 50);
+
+        //Then
+        assertEquals(Arrays.asList(1L, 3L), ids(result));
+        assertEquals(2, result.getTotalElements());
+    }
+
+    @Test
+    public void search_unknownTag_shouldReturnEmptyResult() {
+        //When
+        CertificateReadModel.SearchResult result = readModel.search(Arrays.asList("spa", "unknown"), null,
+                "id", 1, 50);
+
+        //Then
+        assertEquals(0, result.getTotalElements());
+    }
+
+    @Test
+    public void search_textPart_shouldMatchNameOrDescription() {
+        //When
+        CertificateReadModel.SearchResult result = readModel.search(Collections.emptyList(), "massage",
+                "id", 1, 50);
+
+        //Then
+        assertEquals(Arrays.asList(1L, 3L), ids(result));
+    }
+
+    @Test
+    public void search_orderByPrice_shouldReturnRequestedPage() {
+        //When
+        CertificateReadModel.SearchResult result = readModel.search(Collections.emptyList(), null,
+                "price", 2, 2);
+
+        //Then
+        assertEquals(Arrays.asList(1L, 4L), ids(result));
+        assertEquals(4, result.getTotalElements());
+    }
+
+    @Test
+    public void put_changedTags_shouldUpdateTagIndex() {
+        //Given
+        readModel.put(snapshot(3, "Massage", "deep tissue massage", "20", "music"));
+
+        //When
+        CertificateReadModel.SearchResult spa = readModel.search(Collections.singletonList("spa"), null,
+                "id", 1, 50);
+        CertificateReadModel.SearchResult music = readModel.search(Collections.singletonList("music"), null,
+                "name", 1, 50);
+
+        //Then
+        assertEquals(Collections.singletonList(1L), ids(spa));
+        assertEquals(Arrays.asList(4L, 3L), ids(music));
+    }
+
+    @Test
+    public void removeTag_deletedTag_shouldNotMatchItsCertificates() {
+        //Given
+        LocalDateTime modificationDate = LocalDateTime.now();
+        readModel.removeTag("spa", modificationDate);
+
+        //When
+        CertificateReadModel.SearchResult spa = readModel.search(Collections.singletonList("spa"), null,
+                "id", 1, 50);
+        CertificateReadModel.SearchResult relax = readModel.search(Collections.singletonList("relax"), null,
+                "id", 1, 50);
+
+        //Then
+        assertEquals(0, spa.getTotalElements());
+        assertEquals(Arrays.asList(1L, 2L, 3L), ids(relax));
+        assertEquals(Collections.singletonList("relax"), relax.getContent().get(0).getTags());
+        assertEquals(modificationDate, relax.getContent().get(0).getModificationDate());
+        assertNull(relax.getContent().get(1).getModificationDate());
+    }
+
+    @Test
+    public void search_cursorOrderedByPrice_shouldReturnPagesAfterCursor() {
+        //When
+        CertificateReadModel.SearchResult first = readModel.search(Collections.emptyList(), null,
+                "price", null, 3);
+        CertificateReadModel.SearchResult second = readModel.search(Collections.emptyList(), null,
+                "price", CertificateCursor.decode(first.getNextCursor().encode()), 3);
+
+        //Then
+        assertEquals(Arrays.asList(2L, 3L, 1L), ids(first));
+        assertEquals(Collections.singletonList(4L), ids(second));
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    public void search_cursorOfAnotherOrder_shouldThrowException() {
+        //Given
+        CertificateCursor cursor = new CertificateCursor(CertificateOrderBy.NAME, "Cinema", 2);
+
+        //Then
+        assertThrows(IllegalArgumentException.class, () -> readModel.search(Collections.emptyList(), null,
+                "price", cursor, 3));
+    }
+
+    private static CertificateSnapshot snapshot(long id, String name, String description, String price,
+                                                String... tags) {
+        return new CertificateSnapshot(id, name, description, new BigDecimal(price), LocalDateTime.now(),
+                null, 5, CertificateStatus.PUBLISHED, Arrays.asList(tags));
+    }
+
+    private static List<Long> ids(CertificateReadModel.SearchResult result) {
+        return result.getContent().stream()
+                .map(CertificateSnapshot::getId)
+                .collect(Collectors.toList());
+    }
+}
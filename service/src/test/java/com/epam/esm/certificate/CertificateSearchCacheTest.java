@@ -0,0 +1,159 @@
+package com.epam.esm.certificate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class CertificateSearchCacheTest {
+    CertificateSearchCache searchCache;
+    PlatformTransactionManager transactionManager;
+    AtomicLong searches;
+
+    @BeforeEach
+    public void init() {
+        transactionManager = mock(PlatformTransactionManager.class);
+        searchCache = new CertificateSearchCache(new SimpleMeterRegistry(), transactionManager,
+                Duration.ofMinutes(1), 100);
+        searches = new AtomicLong();
+    }
+
+    @Test
+    public void get_cachedQuery_shouldNotSearchAgain() {
+        //When
+        get("tag", 1);
+        CertificateSearchCache.SearchPage page = get("tag", 1);
+
+        //Then
+        assertEquals(1, page.getContent().size());
+        assertEquals(10, page.getTotalElements());
+        assertEquals(1, searches.get());
+    }
+
+    @Test
+    public void get_missingPage_shouldSearchInReadOnlyTransaction() {
+        //When
+        get("tag", 1);
+
+        //Then
+        verify(transactionManager).getTransaction(argThat(definition -> definition.isReadOnly()));
+    }
+
+    @Test
+    public void get_otherPage_shouldSearchAgain() {
+        //When
+        get("tag", 1);
+        get("tag", 2);
+
+        //Then
+        assertEquals(2, searches.get());
+    }
+
+    @Test
+    public void get_coldQueryConcurrently_shouldSearchOnce() throws Exception {
+        //Given
+        CountDownLatch searchStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        //When
+        Future<?> first = executor.submit(() -> searchCache.get(Collections.singletonList("tag"), "", "id", 1, 10,
+                true, () -> {
+                    searchStarted.countDown();
+                    await(release);
+                    return search();
+                }));
+        searchStarted.await(5, TimeUnit.SECONDS);
+        List<Future<CertificateSearchCache.SearchPage>> waiting = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            waiting.add(executor.submit(() -> get("tag", 1)));
+        }
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        for (Future<CertificateSearchCache.SearchPage> page : waiting) {
+            assertEquals(10, page.get(5, TimeUnit.SECONDS).getTotalElements());
+        }
+        executor.shutdown();
+
+        //Then
+        assertEquals(1, searches.get());
+    }
+
+    @Test
+    public void get_failedSearch_shouldSearchAgain() {
+        //Given
+        assertThrows(IllegalArgumentException.class, () -> searchCache.get(Collections.singletonList("tag"), "",
+                "id", 1, 10, true, () -> {
+                    throw new IllegalArgumentException("Wrong orderBy");
+                }));
+
+        //When
+        get("tag", 1);
+
+        //Then
+        assertEquals(1, searches.get());
+    }
+
+    @Test
+    public void get_cachedQuery_shouldReturnCopiesOfCertificates() {
+        //When
+        CertificateDto first = get("tag", 1).getContent().get(0);
+        first.getTags().add("added");
+        CertificateDto second = get("tag", 1).getContent().get(0);
+
+        //Then
+        assertNotSame(first, second);
+        assertEquals(Collections.singletonList("tag"), second.getTags());
+    }
+
+    @Test
+    public void invalidate_cachedQueries_shouldSearchAgain() {
+        //Given
+        get("tag", 1);
+
+        //When
+        searchCache.invalidate();
+        get("tag", 1);
+
+        //Then
+        assertEquals(2, searches.get());
+    }
+
+    private CertificateSearchCache.SearchPage get(String tag, int page) {
+        return searchCache.get(Collections.singletonList(tag), "", "id", page, 10, true, this::search);
+    }
+
+    private CertificateSearchCache.SearchPage search() {
+        searches.incrementAndGet();
+        CertificateDto certificate = new CertificateDto("name", "description", new BigDecimal("12.6"),
+                5, CertificateStatus.PUBLISHED, new ArrayList<>(Collections.singletonList("tag")));
+        return new CertificateSearchCache.SearchPage(Collections.singletonList(certificate), 10, false);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,22 +1,34 @@
 package com.epam.esm.certificate;
 
+import com.epam.esm.pagination.ConcurrentCounts;
+import com.epam.esm.pagination.CountCache;
+import com.epam.esm.pagination.SlicedModel;
 import com.epam.esm.tag.Tag;
 import com.epam.esm.tag.TagDao;
 import com.epam.esm.tag.TagDto;
+import com.epam.esm.tag.TagDtoMapper;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.mockito.*;
-import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import javax.sql.DataSource;
 import javax.validation.ConstraintViolationException;
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.notNull;
 import static org.mockito.Mockito.*;
@@ -28,12 +40,39 @@ public class CertificateServiceTest {
     CertificateDao certificateDao;
     @Mock
     TagDao tagDao;
+    @Mock
+    CertificateDtoMapper certificateDtoMapper;
     @Spy
-    ModelMapper modelMapper;
+    TagDtoMapper tagDtoMapper;
+    @Mock
+    CertificateReadModel certificateReadModel;
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+    @Mock
+    CountCache countCache;
+    @Mock
+    CertificateSearchCache certificateSearchCache;
+    @Mock
+    ConcurrentCounts concurrentCounts;
 
     @BeforeEach
     public void init() {
         MockitoAnnotations.initMocks(this);
+        CertificateDtoMapper mapper = new CertificateDtoMapper(tagDao);
+        doAnswer(invocation -> mapper.toEntity(invocation.getArgument(0)))
+                .when(certificateDtoMapper).toEntity(any());
+        doAnswer(invocation -> mapper.toDto(invocation.<Certificate>getArgument(0)))
+                .when(certificateDtoMapper).toDto(any(Certificate.class));
+        doAnswer(invocation -> ((LongSupplier) invocation.getArgument(2)).getAsLong())
+                .when(countCache).get(any(), any(), any());
+        doReturn(null).when(countCache).getIfPresent(any(), any());
+        ConcurrentCounts inlineCounts = new ConcurrentCounts(countCache, new SimpleMeterRegistry(),
+                mock(PlatformTransactionManager.class), mock(DataSource.class), false, 1, 1, Duration.ofSeconds(1));
+        doAnswer(invocation -> inlineCounts.start(invocation.getArgument(0), invocation.getArgument(1),
+                invocation.getArgument(2)))
+                .when(concurrentCounts).start(any(), any(), any());
+        doAnswer(invocation -> ((Supplier<?>) invocation.getArgument(6)).get())
+                .when(certificateSearchCache).get(any(), any(), any(), anyInt(), anyInt(), anyBoolean(), any());
     }
 
     @Test
@@ -70,6 +109,19 @@ public class CertificateServiceTest {
         verify(certificateDao, times(1)).create(notNull());
     }
 
+    @Test
+    public void create_certificateWithTags_shouldPublishChange() {
+        //Given
+        CertificateDto certificateDto = new CertificateDto("name", "description", new BigDecimal("12.6"),
+                5, CertificateStatus.PUBLISHED, Arrays.asList("tagOne", "tagTwo"));
+
+        //When
+        certificateService.create(certificateDto);
+
+        //Then
+        verify(eventPublisher, times(1)).publishEvent(any(CertificateChangedEvent.class));
+    }
+
     @Test
     public void create_certificateWithTags_shouldThrowConflictException() {
         //Given
@@ -236,7 +288,7 @@ public class CertificateServiceTest {
     @Test
     public void findCertificates_defaultParams_shouldReturnCorrectPageMetadata() {
         //Given
-        doAnswer(invocation -> 2L)
+        doAnswer(invocation -> 2)
                 .when(certificateDao).getTotalElementsCountFromCertificateSearch(notNull(),anyString());
         int page = 1;
         int perPage = 50;
@@ -262,6 +314,115 @@ public class CertificateServiceTest {
         assertEquals(pageMetadata, model.getMetadata());
     }
 
+    @Test
+    public void findCertificates_readModelAvailable_shouldNotQueryDao() {
+        //Given
+        CertificateSnapshot snapshot = new CertificateSnapshot(1, "name", "description",
+                new BigDecimal("12.6"), LocalDateTime.now(), null, 5, CertificateStatus.PUBLISHED,
+                Collections.singletonList("tag"));
+        doReturn(true).when(certificateReadModel).canServe(any());
+        doReturn(new CertificateReadModel.SearchResult(Collections.singletonList(snapshot), 1, null))
+                .when(certificateReadModel).search(notNull(), any(), anyString(), anyInt(), anyInt());
+        int page = 1;
+        int perPage = 50;
+
+        //When
+        PagedModel<CertificateDto> model = certificateService.findCertificates(new String[]{"tag"}, null,
+                "id", page, perPage);
+
+        //Then
+        assertEquals(new PagedModel.PageMetadata(perPage, page, 1), model.getMetadata());
+        verifyNoInteractions(certificateDao);
+    }
+
+    @Test
+    public void findCertificates_readModelWithoutCount_shouldReturnSliceWithoutMetadata() {
+        //Given
+        CertificateSnapshot snapshot = new CertificateSnapshot(1, "name", "description",
+                new BigDecimal("12.6"), LocalDateTime.now(), null, 5, CertificateStatus.PUBLISHED,
+                Collections.singletonList("tag"));
+        doReturn(true).when(certificateReadModel).canServe(any());
+        doReturn(new CertificateReadModel.SearchResult(Collections.singletonList(snapshot), 2, null))
+                .when(certificateReadModel).search(notNull(), any(), anyString(), anyInt(), anyInt());
+
+        //When
+        PagedModel<CertificateDto> model = certificateService.findCertificates(new String[]{"tag"}, null,
+                "id", 1, 1, false);
+
+        //Then
+        assertTrue(model instanceof SlicedModel);
+        assertNull(model.getMetadata());
+        assertTrue(((SlicedModel<CertificateDto>) model).hasNext());
+    }
+
+    @Test
+    public void findCertificates_sameQueryDifferentlyWritten_shouldUseSameCacheKey() {
+        //When
+        certificateService.findCertificates(new String[]{"b", "a", "b"}, " text ", "id", 1, 10);
+        certificateService.findCertificates(new String[]{"a", "b"}, "text", "id", 1, 10);
+
+        //Then
+        verify(certificateSearchCache, times(2)).get(eq(Arrays.asList("a", "b")), eq("text"), eq("id"),
+                eq(1), eq(10), eq(true), any());
+    }
+
+    @Test
+    public void deleteCertificateTag_existentCertificate_shouldInvalidateSearchCache() {
+        //Given
+        Certificate certificate = new Certificate();
+        certificate.setStatus(CertificateStatus.PUBLISHED);
+        certificate.setTags(new ArrayList<>());
+        doReturn(Optional.of(certificate)).when(certificateDao).find(1);
+
+        //When
+        certificateService.deleteCertificateTag(1, 2);
+
+        //Then
+        verify(certificateSearchCache).invalidate();
+    }
+
+    @Test
+    public void findCertificates_cursor_shouldReturnNextCursorWithoutCount() {
+        //Given
+        Certificate certificate = new Certificate("name", "description", new BigDecimal("12.6"), 5);
+        certificate.setId(7);
+        certificate.setStatus(CertificateStatus.PUBLISHED);
+        certificate.setTags(Collections.emptyList());
+        CertificateCursor after = new CertificateCursor(CertificateOrderBy.PRICE, new BigDecimal("10"), 3);
+        CertificateCursor next = new CertificateCursor(CertificateOrderBy.PRICE, new BigDecimal("12.6"), 7);
+        doReturn(new CertificateSlice(Collections.singletonList(certificate), next))
+                .when(certificateDao).findCertificates(notNull(), any(), anyString(), eq(after), anyInt());
+
+        //When
+        PagedModel<CertificateDto> model = certificateService.findCertificates(new String[0], null,
+                "price", after.encode(), 1);
+
+        //Then
+        assertEquals(next.encode(), ((SlicedModel<CertificateDto>) model).getNextCursor());
+        verify(certificateDao, never()).getTotalElementsCountFromCertificateSearch(any(), any());
+    }
+
+    @Test
+    public void findCertificates_cursorWithDuplicatedTag_shouldSearchDistinctTags() {
+        //Given
+        doReturn(new CertificateSlice(Collections.emptyList(), null))
+                .when(certificateDao).findCertificates(notNull(), any(), anyString(), any(), anyInt());
+
+        //When
+        certificateService.findCertificates(new String[]{"b", "a", "b"}, " text ", "id", "", 10);
+
+        //Then
+        verify(certificateDao).findCertificates(eq(Arrays.asList("a", "b")), eq("text"), eq("id"),
+                isNull(), eq(10));
+    }
+
+    @Test
+    public void findCertificates_invalidCursor_shouldThrowException() {
+        //Then
+        assertThrows(IllegalArgumentException.class, () -> certificateService.findCertificates(new String[0],
+                null, "price", "not a cursor", 10));
+    }
+
     @Test
     public void addCertificateTag_newTag_shouldCallDaoUpdate() {
         //Given
@@ -285,9 +446,9 @@ public class CertificateServiceTest {
     @Test
     public void addCertificateTag_existentTag_shouldThrowException() {
         //Given
+        Tag tag = new Tag("new Tag");
+        tag.setId(1);
         doAnswer(invocation -> {
-            Tag tag = new Tag("new Tag");
-            tag.setId(1);
             List<Tag> tags = new ArrayList<>();
             tags.add(tag);
             Certificate certificate = new Certificate("name", "description", new BigDecimal("2.5"),
@@ -297,13 +458,9 @@ public class CertificateServiceTest {
             certificate.setTags(tags);
             return Optional.of(certificate);
         }).when(certificateDao).find(1L);
-        doAnswer(invocation -> {
-            Tag tag = new Tag("new Tag");
-            tag.setId(1);
-            return tag;
-        })
+        doReturn(Optional.of(tag))
                 .when(tagDao)
-                .find(1L);
+                .findByName("new Tag");
         TagDto newTag = new TagDto(1L,"new Tag");
 
         //When Then
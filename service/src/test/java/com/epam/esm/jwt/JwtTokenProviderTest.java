@@ -0,0 +1,118 @@
+package com.epam.esm.jwt;
+
+import com.epam.esm.user.Role;
+import com.epam.esm.user.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class JwtTokenProviderTest {
+    private static final String SECRET = "secret";
+
+    @Mock
+    JwtUserDetailsService userDetailsService;
+    JwtTokenProvider jwtTokenProvider;
+
+    @BeforeEach
+    public void init() {
+        MockitoAnnotations.initMocks(this);
+        jwtTokenProvider = new JwtTokenProvider(userDetailsService, new SimpleMeterRegistry(), SECRET,
+                60_000, 100);
+    }
+
+    @Test
+    public void getAuthentication_createdToken_shouldReturnUserFromClaims() {
+        //Given
+        User user = new User(7, "first", "last", "login", "password", Role.ROLE_ADMIN, null);
+        String token = jwtTokenProvider.createToken(user);
+
+        //When
+        Authentication authentication = jwtTokenProvider.getAuthentication(token);
+
+        //Then
+        JwtUser principal = (JwtUser) authentication.getPrincipal();
+        assertEquals(7L, principal.getId());
+        assertEquals("login", principal.getUsername());
+        assertEquals("ROLE_ADMIN", principal.getAuthorities().iterator().next().getAuthority());
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+    }
+
+    @Test
+    public void getAuthentication_tokenWithoutId_shouldLoadUserByLogin() {
+        //Given
+        JwtUser user = JwtUserFactory.create(3, "login", Role.ROLE_USER);
+        doReturn(user).when(userDetailsService).loadUserByUsername("login");
+        Claims claims = Jwts.claims().setSubject("login");
+        claims.put("roles", Role.ROLE_USER);
+        String token = Jwts.builder()
+                .setClaims(claims)
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(SignatureAlgorithm.HS256,
+                        Base64.getEncoder().encodeToString(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+
+        //When
+        jwtTokenProvider.getAuthentication(token);
+        Authentication authentication = jwtTokenProvider.getAuthentication(token);
+
+        //Then
+        assertEquals(user, authentication.getPrincipal());
+        verify(userDetailsService, times(1)).loadUserByUsername("login");
+    }
+
+    @Test
+    public void getAuthentication_tokenOfDeletedUser_shouldThrowException() {
+        //Given
+        doThrow(new UsernameNotFoundException("not found")).when(userDetailsService).loadUserByUsername("login");
+        String token = Jwts.builder()
+                .setSubject("login")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(SignatureAlgorithm.HS256, SECRET.getBytes(StandardCharsets.UTF_8))
+                .compact();
+
+        //When Then
+        Assertions.assertThrows(JwtAuthenticationException.class,
+                () -> jwtTokenProvider.getAuthentication(token));
+    }
+
+    @Test
+    public void validateToken_tokenSignedWithOtherSecret_shouldThrowException() {
+        //Given
+        String token = new JwtTokenProvider(userDetailsService, new SimpleMeterRegistry(), "other secret",
+                60_000, 100).createToken(new User(1, "first", "last", "login", null, Role.ROLE_USER,
+                Collections.emptyList()));
+
+        //When Then
+        Assertions.assertThrows(JwtAuthenticationException.class,
+                () -> jwtTokenProvider.validateToken(token));
+    }
+
+    @Test
+    public void validateToken_expiredToken_shouldThrowException() {
+        //Given
+        String token = new JwtTokenProvider(userDetailsService, new SimpleMeterRegistry(), SECRET,
+                -1_000, 100).createToken(new User(1, "first", "last", "login", null, Role.ROLE_USER,
+                Collections.emptyList()));
+
+        //When Then
+        Assertions.assertThrows(JwtAuthenticationException.class,
+                () -> jwtTokenProvider.validateToken(token));
+    }
+}
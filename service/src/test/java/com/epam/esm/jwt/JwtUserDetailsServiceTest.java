@@ -0,0 +1,80 @@
+package com.epam.esm.jwt;
+
+import com.epam.esm.user.Role;
+import com.epam.esm.user.User;
+import com.epam.esm.user.UserDao;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.*;
+
+public class JwtUserDetailsServiceTest {
+    @Mock
+    UserDao userDao;
+    JwtUserDetailsService userDetailsService;
+
+    @BeforeEach
+    public void init() {
+        MockitoAnnotations.initMocks(this);
+        userDetailsService = new JwtUserDetailsService(userDao, new SimpleMeterRegistry(),
+                Duration.ofMinutes(10), 100);
+    }
+
+    @Test
+    public void loadUserByUsername_repeatedLogin_shouldReadUserOnce() {
+        //Given
+        doReturn(Optional.of(new User(1, "first", "last", "login", "password", Role.ROLE_USER, null)))
+                .when(userDao).findUserByLogin("login");
+
+        //When
+        UserDetails first = userDetailsService.loadUserByUsername("login");
+        UserDetails second = userDetailsService.loadUserByUsername("login");
+
+        //Then
+        assertSame(first, second);
+        verify(userDao, times(1)).findUserByLogin("login");
+    }
+
+    @Test
+    public void loadUserByUsername_evictedLogin_shouldReadUpdatedUser() {
+        //Given
+        doReturn(Optional.of(new User(1, "first", "last", "login", "password", Role.ROLE_USER, null)))
+                .when(userDao).findUserByLogin("login");
+        userDetailsService.loadUserByUsername("login");
+        doReturn(Optional.of(new User(1, "first", "last", "login", "password", Role.ROLE_ADMIN, null)))
+                .when(userDao).findUserByLogin("login");
+
+        //When
+        userDetailsService.evict("login");
+        UserDetails user = userDetailsService.loadUserByUsername("login");
+
+        //Then
+        assertEquals("ROLE_ADMIN", user.getAuthorities().iterator().next().getAuthority());
+    }
+
+    @Test
+    public void loadUserByUsername_nonexistentLogin_shouldNotCacheMiss() {
+        //Given
+        doReturn(Optional.empty()).when(userDao).findUserByLogin("login");
+
+        //When
+        Assertions.assertThrows(UsernameNotFoundException.class,
+                () -> userDetailsService.loadUserByUsername("login"));
+        Assertions.assertThrows(UsernameNotFoundException.class,
+                () -> userDetailsService.loadUserByUsername("login"));
+
+        //Then
+        verify(userDao, times(2)).findUserByLogin("login");
+    }
+}
@@ -1,7 +1,13 @@
 package com.epam.esm.order;
 
+import com.epam.esm.pagination.CountCache;
 import com.epam.esm.certificate.Certificate;
+import com.epam.esm.certificate.CertificateDao;
 import com.epam.esm.certificate.CertificateStatus;
+import com.epam.esm.pagination.SlicedModel;
+import com.epam.esm.statistics.PurchaseStatisticsService;
+import com.epam.esm.tag.Tag;
+import com.epam.esm.tag.TagDao;
 import com.epam.esm.user.User;
 import com.epam.esm.user.UserDao;
 import com.epam.esm.user.UserNotFoundException;
@@ -12,13 +18,15 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.Spy;
-import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.hateoas.PagedModel;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Optional;
+import java.util.function.LongSupplier;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
@@ -31,12 +39,24 @@ public class OrderServiceTest {
     OrderDao orderDao;
     @Mock
     UserDao userDao;
+    @Mock
+    CertificateDao certificateDao;
+    @Mock
+    CountCache countCache;
+    @Mock
+    PurchaseStatisticsService purchaseStatisticsService;
+    @Mock
+    TagDao tagDao;
+    @Mock
+    ApplicationEventPublisher eventPublisher;
     @Spy
-    ModelMapper modelMapper;
+    OrderDtoMapper orderDtoMapper;
 
     @BeforeEach
     public void init() {
         MockitoAnnotations.initMocks(this);
+        doAnswer(invocation -> ((LongSupplier) invocation.getArgument(2)).getAsLong())
+                .when(countCache).get(any(), any(), any());
     }
 
     @Test
@@ -56,13 +76,10 @@ public class OrderServiceTest {
         //Given
         Certificate certificate = new Certificate("name", "description", new BigDecimal("12.6"),
                 5);
+        certificate.setId(1L);
         certificate.setStatus(CertificateStatus.PUBLISHED);
         certificate.setTags(Collections.emptyList());
-        doAnswer(invocation -> {
-            Order order = new Order();
-            order.setCertificates(Collections.singletonList(certificate));
-            return order;
-        }).when(modelMapper).map(any(OrderDto.class),eq(Order.class));
+        doReturn(Collections.singletonList(certificate)).when(certificateDao).findByIds(anyCollection());
         doAnswer(invocation -> Optional.of(new User())).when(userDao)
                 .find(anyLong());
         OrderDto orderDto = new OrderDto();
@@ -78,13 +95,10 @@ public class OrderServiceTest {
         //Given
         Certificate certificate = new Certificate("name", "description", new BigDecimal("12.6"),
                 5);
+        certificate.setId(1L);
         certificate.setStatus(CertificateStatus.ACTIVE);
         certificate.setTags(Collections.emptyList());
-        doAnswer(invocation -> {
-            Order order = new Order();
-            order.setCertificates(Collections.singletonList(certificate));
-            return order;
-        }).when(modelMapper).map(any(OrderDto.class),eq(Order.class));
+        doReturn(Collections.singletonList(certificate)).when(certificateDao).findByIds(anyCollection());
         doAnswer(invocation -> Optional.of(new User())).when(userDao)
                 .find(anyLong());
         OrderDto orderDto = new OrderDto();
@@ -102,21 +116,19 @@ public class OrderServiceTest {
         //Given
         Certificate certificate = new Certificate("name", "description", new BigDecimal("12.6"),
                 5);
+        certificate.setId(1L);
         certificate.setStatus(CertificateStatus.ACTIVE);
         certificate.setTags(Collections.emptyList());
         Certificate certificateTwo = new Certificate("name 2", "description 2", new BigDecimal("10.0"),
                 5);
-        certificate.setStatus(CertificateStatus.ACTIVE);
-        certificate.setTags(Collections.emptyList());
-        doAnswer(invocation -> {
-            Order order = new Order();
-            order.setCertificates(Arrays.asList(certificate, certificateTwo));
-            return order;
-        }).when(modelMapper).map(any(OrderDto.class),eq(Order.class));
+        certificateTwo.setId(2L);
+        certificateTwo.setStatus(CertificateStatus.ACTIVE);
+        certificateTwo.setTags(Collections.emptyList());
+        doReturn(Arrays.asList(certificate, certificateTwo)).when(certificateDao).findByIds(anyCollection());
         doAnswer(invocation -> Optional.of(new User())).when(userDao)
                 .find(anyLong());
         OrderDto orderDto = new OrderDto();
-        orderDto.setCertificatesIds(Collections.singletonList(1L));
+        orderDto.setCertificatesIds(Arrays.asList(1L, 2L));
         BigDecimal expected = new BigDecimal("22.6");
 
         //When
@@ -126,6 +138,74 @@ public class OrderServiceTest {
         assertEquals(expected, orderDto.getTotalPrice());
     }
 
+    @Test
+    public void create_nonexistentCertificateId_shouldThrowException() {
+        //Given
+        Certificate certificate = new Certificate("name", "description", new BigDecimal("12.6"),
+                5);
+        certificate.setId(1L);
+        certificate.setStatus(CertificateStatus.ACTIVE);
+        doReturn(Collections.singletonList(certificate)).when(certificateDao).findByIds(anyCollection());
+        doAnswer(invocation -> Optional.of(new User())).when(userDao)
+                .find(anyLong());
+        OrderDto orderDto = new OrderDto();
+        orderDto.setCertificatesIds(Arrays.asList(1L, 7L));
+
+        //When
+        Assertions.assertThrows(IllegalArgumentException.class,
+                ()->orderService.create(orderDto, 1L));
+    }
+
+    @Test
+    public void create_repeatedCertificateIds_shouldReadCertificatesOnce() {
+        //Given
+        Certificate certificate = new Certificate("name", "description", new BigDecimal("12.6"),
+                5);
+        certificate.setId(1L);
+        certificate.setStatus(CertificateStatus.ACTIVE);
+        certificate.setTags(Collections.emptyList());
+        doReturn(Collections.singletonList(certificate)).when(certificateDao).findByIds(anyCollection());
+        doAnswer(invocation -> Optional.of(new User())).when(userDao)
+                .find(anyLong());
+        OrderDto orderDto = new OrderDto();
+        orderDto.setCertificatesIds(Arrays.asList(1L, 1L, 1L));
+
+        //When
+        orderDto = orderService.create(orderDto, 1L);
+
+        //Then
+        verify(certificateDao, times(1)).findByIds(Collections.singleton(1L));
+        verify(certificateDao, never()).find(anyLong());
+        assertEquals(new BigDecimal("37.8"), orderDto.getTotalPrice());
+    }
+
+    @Test
+    public void create_repeatedCertificateIds_shouldPublishEachOrderedCertificate() {
+        //Given
+        Certificate certificate = new Certificate("name", "description", new BigDecimal("12.6"),
+                5);
+        certificate.setId(1L);
+        certificate.setStatus(CertificateStatus.ACTIVE);
+        certificate.setTags(Collections.emptyList());
+        doReturn(Collections.singletonList(certificate)).when(certificateDao).findByIds(anyCollection());
+        doAnswer(invocation -> Optional.of(new User())).when(userDao)
+                .find(anyLong());
+        doReturn(Collections.singletonMap(1L, Collections.singletonList(new Tag("tag")))).when(tagDao)
+                .findByCertificateIds(anyCollection());
+        OrderDto orderDto = new OrderDto();
+        orderDto.setCertificatesIds(Arrays.asList(1L, 1L));
+
+        //When
+        orderService.create(orderDto, 1L);
+
+        //Then
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof OrderCreatedEvent
+                && ((OrderCreatedEvent) event).getCertificates().size() == 2
+                && ((OrderCreatedEvent) event).getCertificates().get(1).getTags()
+                .equals(Collections.singletonList("tag"))));
+        verify(tagDao, times(1)).findByCertificateIds(anyCollection());
+    }
+
     @Test
     public void findByUserId_correctId_shouldReturnCorrectPageMetadata() {
         //Given
@@ -133,7 +213,11 @@ public class OrderServiceTest {
         int perPage = 50;
         doAnswer(invocation -> {
             Order orderOne = new Order();
+            orderOne.setUser(new User());
+            orderOne.setCertificates(Collections.emptyList());
             Order orderTwo = new Order();
+            orderTwo.setUser(new User());
+            orderTwo.setCertificates(Collections.emptyList());
             return Arrays.asList(orderOne, orderTwo);
         }).when(orderDao).getOrdersByUserId(anyLong(), anyInt(), anyInt());
         doAnswer(invocation -> 2L).when(orderDao).getCountOfUsersOrders(anyLong());
@@ -145,4 +229,38 @@ public class OrderServiceTest {
         //Then
         assertEquals(expected, model.getMetadata());
     }
+
+    @Test
+    public void findByUserId_afterCursor_shouldReturnNeighbourCursors() {
+        //Given
+        Order older = new Order();
+        older.setId(3);
+        older.setPurchaseDate(LocalDateTime.of(2020, 7, 1, 12, 0));
+        older.setUser(new User());
+        older.setCertificates(Collections.emptyList());
+        Order newer = new Order();
+        newer.setId(5);
+        newer.setPurchaseDate(LocalDateTime.of(2020, 7, 2, 12, 0));
+        newer.setUser(new User());
+        newer.setCertificates(Collections.emptyList());
+        OrderCursor after = new OrderCursor(LocalDateTime.of(2020, 7, 3, 12, 0), 8);
+        doReturn(new OrderSlice(Arrays.asList(newer, older), OrderCursor.of(older), OrderCursor.of(newer)))
+                .when(orderDao).getOrdersByUserId(1L, after, null, 2);
+
+        //When
+        PagedModel<OrderDto> model = orderService.findByUserId(1, after.encode(), null, 2);
+
+        //Then
+        SlicedModel<OrderDto> slice = (SlicedModel<OrderDto>) model;
+        assertEquals(OrderCursor.of(older), OrderCursor.decode(slice.getNextCursor()));
+        assertEquals(OrderCursor.of(newer), OrderCursor.decode(slice.getPreviousCursor()));
+        verify(orderDao, never()).getCountOfUsersOrders(anyLong());
+    }
+
+    @Test
+    public void findByUserId_afterAndBeforeCursors_shouldThrowException() {
+        //Then
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> orderService.findByUserId(1, "", "", 10));
+    }
 }
@@ -0,0 +1,145 @@
+package com.epam.esm.pagination;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ConcurrentCountsTest {
+    ConcurrentCounts concurrentCounts;
+    CountCache countCache;
+    SimpleMeterRegistry meterRegistry;
+    @Mock
+    PlatformTransactionManager transactionManager;
+    @Mock
+    DataSource dataSource;
+
+    @BeforeEach
+    public void init() {
+        MockitoAnnotations.initMocks(this);
+        countCache = new CountCache(new SimpleMeterRegistry(), Duration.ofMinutes(1), 100);
+        meterRegistry = new SimpleMeterRegistry();
+        concurrentCounts = new ConcurrentCounts(countCache, meterRegistry, transactionManager, dataSource, true, 2, 2,
+                Duration.ofMillis(200));
+    }
+
+    @AfterEach
+    public void shutdown() {
+        concurrentCounts.shutdown();
+    }
+
+    @Test
+    public void start_enabled_shouldCountOnExecutorInNewReadOnlyTransaction() {
+        //Given
+        AtomicReference<Thread> countThread = new AtomicReference<>();
+
+        //When
+        long count = concurrentCounts.start(CountCache.CERTIFICATES, "filter", () -> {
+            countThread.set(Thread.currentThread());
+            return 10;
+        }).join();
+
+        //Then
+        assertEquals(10, count);
+        assertNotSame(Thread.currentThread(), countThread.get());
+        verify(transactionManager).getTransaction(argThat(definition -> definition.isReadOnly()
+                && definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+        assertEquals(Long.valueOf(10), countCache.getIfPresent(CountCache.CERTIFICATES, "filter"));
+        assertEquals(1, meterRegistry.get("pagination.count").tag("mode", "concurrent").timer().count());
+    }
+
+    @Test
+    public void start_cachedCount_shouldNotCountAgain() {
+        //Given
+        countCache.get(CountCache.TAGS, CountCache.NO_FILTER, () -> 5);
+
+        //When
+        long count = concurrentCounts.start(CountCache.TAGS, CountCache.NO_FILTER, () -> {
+            throw new IllegalStateException("Counted again");
+        }).join();
+
+        //Then
+        assertEquals(5, count);
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    public void join_countLongerThanTimeout_shouldThrowCountTimeoutException() throws InterruptedException {
+        //Given
+        CountDownLatch release = new CountDownLatch(1);
+        ConcurrentCounts.PendingCount pendingCount = concurrentCounts.start(CountCache.ORDERS, 1L, () -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return 1;
+        });
+
+        //When //Then
+        assertThrows(CountTimeoutException.class, pendingCount::join);
+        release.countDown();
+        assertEquals(1, meterRegistry.get("pagination.count.timeouts").counter().count());
+    }
+
+    @Test
+    public void start_disabled_shouldCountInCallerThread() {
+        //Given
+        concurrentCounts = new ConcurrentCounts(countCache, meterRegistry, transactionManager, dataSource, false, 2, 2,
+                Duration.ofMillis(200));
+        AtomicReference<Thread> countThread = new AtomicReference<>();
+
+        //When
+        long count = concurrentCounts.start(CountCache.USERS, CountCache.NO_FILTER, () -> {
+            countThread.set(Thread.currentThread());
+            return 3;
+        }).join();
+
+        //Then
+        assertEquals(3, count);
+        assertSame(Thread.currentThread(), countThread.get());
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    public void start_noIdleConnection_shouldCountInCallerThread() throws SQLException {
+        //Given
+        HikariDataSource pool = mock(HikariDataSource.class);
+        HikariPoolMXBean poolBean = mock(HikariPoolMXBean.class);
+        doReturn(true).when(dataSource).isWrapperFor(HikariDataSource.class);
+        doReturn(pool).when(dataSource).unwrap(HikariDataSource.class);
+        doReturn(poolBean).when(pool).getHikariPoolMXBean();
+        doReturn(0).when(poolBean).getIdleConnections();
+        concurrentCounts = new ConcurrentCounts(countCache, meterRegistry, transactionManager, dataSource, true, 2, 2,
+                Duration.ofMillis(200));
+        AtomicReference<Thread> countThread = new AtomicReference<>();
+
+        //When
+        long count = concurrentCounts.start(CountCache.CERTIFICATES, "filter", () -> {
+            countThread.set(Thread.currentThread());
+            return 4;
+        }).join();
+
+        //Then
+        assertEquals(4, count);
+        assertSame(Thread.currentThread(), countThread.get());
+        verifyNoInteractions(transactionManager);
+        assertEquals(1, meterRegistry.get("pagination.count").tag("mode", "inline").timer().count());
+    }
+}
@@ -0,0 +1,68 @@
+package com.epam.esm.pagination;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class CountCacheTest {
+    CountCache countCache;
+    AtomicLong countQueries;
+
+    @BeforeEach
+    public void init() {
+        countCache = new CountCache(new SimpleMeterRegistry(), Duration.ofMinutes(1), 100);
+        countQueries = new AtomicLong();
+    }
+
+    @Test
+    public void get_cachedCount_shouldNotCountAgain() {
+        //When
+        countCache.get(CountCache.TAGS, CountCache.NO_FILTER, this::count);
+        long count = countCache.get(CountCache.TAGS, CountCache.NO_FILTER, this::count);
+
+        //Then
+        assertEquals(10, count);
+        assertEquals(1, countQueries.get());
+    }
+
+    @Test
+    public void adjust_cachedCount_shouldChangeCountWithoutCounting() {
+        //Given
+        countCache.get(CountCache.ORDERS, 1L, this::count);
+
+        //When
+        countCache.adjust(CountCache.ORDERS, 1L, 1);
+        countCache.adjust(CountCache.ORDERS, 2L, 1);
+
+        //Then
+        assertEquals(11, countCache.get(CountCache.ORDERS, 1L, this::count));
+        assertEquals(10, countCache.get(CountCache.ORDERS, 2L, this::count));
+        assertEquals(2, countQueries.get());
+    }
+
+    @Test
+    public void invalidate_entity_shouldCountAllItsFiltersAgain() {
+        //Given
+        countCache.get(CountCache.CERTIFICATES, "first", this::count);
+        countCache.get(CountCache.CERTIFICATES, "second", this::count);
+        countCache.get(CountCache.TAGS, CountCache.NO_FILTER, this::count);
+
+        //When
+        countCache.invalidate(CountCache.CERTIFICATES);
+        countCache.get(CountCache.CERTIFICATES, "first", this::count);
+        countCache.get(CountCache.TAGS, CountCache.NO_FILTER, this::count);
+
+        //Then
+        assertEquals(4, countQueries.get());
+    }
+
+    private long count() {
+        countQueries.incrementAndGet();
+        return 10;
+    }
+}
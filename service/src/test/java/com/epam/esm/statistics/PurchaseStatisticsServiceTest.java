@@ -0,0 +1,127 @@
+package com.epam.esm.statistics;
+
+import com.epam.esm.certificate.Certificate;
+import com.epam.esm.order.Order;
+import com.epam.esm.tag.Tag;
+import com.epam.esm.tag.TagDao;
+import com.epam.esm.user.User;
+import com.epam.esm.user.UserDao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+public class PurchaseStatisticsServiceTest {
+    @InjectMocks
+    PurchaseStatisticsService purchaseStatisticsService;
+    @Mock
+    PurchaseStatisticsDao purchaseStatisticsDao;
+    @Mock
+    UserDao userDao;
+    @Mock
+    TagDao tagDao;
+
+    @BeforeEach
+    public void init() {
+        MockitoAnnotations.initMocks(this);
+    }
+
+    @Test
+    public void addOrder_repeatedCertificate_shouldCountItsTagsForEachPurchase() {
+        //Given
+        Order order = order(certificate(1), certificate(2), certificate(1));
+        Map<Long, List<Tag>> tags = new HashMap<>();
+        tags.put(1L, Arrays.asList(tag(10), tag(20)));
+        tags.put(2L, Collections.singletonList(tag(20)));
+
+        //When
+        purchaseStatisticsService.addOrder(order, tags);
+
+        //Then
+        Map<Long, Long> expected = new HashMap<>();
+        expected.put(10L, 2L);
+        expected.put(20L, 3L);
+        verify(purchaseStatisticsDao).addSpending(5, new BigDecimal("30"));
+        verify(purchaseStatisticsDao).addTagPurchases(5, expected);
+    }
+
+    @Test
+    public void addOrder_anyOrder_shouldLockUserBeforeChangingStatistics() {
+        //Given
+        Order order = order(certificate(1));
+
+        //When
+        purchaseStatisticsService.addOrder(order, Collections.emptyMap());
+
+        //Then
+        InOrder inOrder = inOrder(userDao, purchaseStatisticsDao);
+        inOrder.verify(userDao).lock(order.getUser());
+        inOrder.verify(purchaseStatisticsDao).addSpending(anyLong(), any());
+        verifyNoInteractions(tagDao);
+    }
+
+    @Test
+    public void findTopSpendersMostPurchasedTag_topSpenderWithTags_shouldReturnTag() {
+        //Given
+        Tag tag = new Tag("tag");
+        doReturn(Optional.of(5L)).when(purchaseStatisticsDao).findTopSpenderId();
+        doReturn(Optional.of(10L)).when(purchaseStatisticsDao).findMostPurchasedTagId(5);
+        doReturn(Optional.of(tag)).when(tagDao).find(10);
+
+        //When
+        Optional<Tag> result = purchaseStatisticsService.findTopSpendersMostPurchasedTag();
+
+        //Then
+        assertEquals(Optional.of(tag), result);
+    }
+
+    @Test
+    public void findTopSpendersMostPurchasedTag_noOrders_shouldReturnEmpty() {
+        //Given
+        doReturn(Optional.empty()).when(purchaseStatisticsDao).findTopSpenderId();
+
+        //When
+        Optional<Tag> result = purchaseStatisticsService.findTopSpendersMostPurchasedTag();
+
+        //Then
+        assertFalse(result.isPresent());
+        verifyNoInteractions(tagDao);
+    }
+
+    private static Order order(Certificate... certificates) {
+        User user = new User();
+        user.setId(5);
+        Order order = new Order();
+        order.setUser(user);
+        order.setCertificates(Arrays.asList(certificates));
+        order.setTotalPrice(new BigDecimal("30"));
+        return order;
+    }
+
+    private static Certificate certificate(long id) {
+        Certificate certificate = new Certificate();
+        certificate.setId(id);
+        return certificate;
+    }
+
+    private static Tag tag(long id) {
+        Tag tag = new Tag("tag" + id);
+        tag.setId(id);
+        return tag;
+    }
+}
@@ -0,0 +1,83 @@
+package com.epam.esm.statistics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SpaceSavingSketchTest {
+
+    @Test
+    public void add_keysWithinCapacity_shouldCountExactly() {
+        //Given
+        SpaceSavingSketch<String> sketch = new SpaceSavingSketch<>(3);
+
+        //When
+        sketch.add("a", 2);
+        sketch.add("b", 1);
+        sketch.add("a", 3);
+
+        //Then
+        Map<String, Long> counts = counts(sketch);
+        assertEquals(5, counts.get("a"));
+        assertEquals(1, counts.get("b"));
+        assertEquals(0, sketch.getMinCount());
+    }
+
+    @Test
+    public void add_newKeyToFullSketch_shouldReplaceSmallestCountWithError() {
+        //Given
+        SpaceSavingSketch<String> sketch = new SpaceSavingSketch<>(2);
+        sketch.add("a", 5);
+        sketch.add("b", 2);
+
+        //When
+        sketch.add("c", 1);
+
+        //Then
+        Map<String, Long> counts = new HashMap<>();
+        Map<String, Long> errors = new HashMap<>();
+        sketch.forEach((key, counter) -> {
+            counts.put(key, counter.getCount());
+            errors.put(key, counter.getError());
+        });
+        assertEquals(2, counts.size());
+        assertEquals(3, counts.get("c"));
+        assertEquals(2, errors.get("c"));
+        assertEquals(3, sketch.getMinCount());
+    }
+
+    @Test
+    public void add_skewedStream_shouldKeepHeavyHitters() {
+        //Given
+        SpaceSavingSketch<Integer> sketch = new SpaceSavingSketch<>(10);
+
+        //When
+        for (int i = 0; i < 10000; i++) {
+            sketch.add(i % 3 == 0 ? -1 : i, 1);
+            if (i % 5 == 0) {
+                sketch.add(-2, 1);
+            }
+        }
+
+        //Then
+        Map<Integer, Long> counts = counts(sketch);
+        assertTrue(counts.get(-1) >= 3334);
+        assertTrue(counts.get(-2) >= 2000);
+    }
+
+    @Test
+    public void constructor_zeroCapacity_shouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> new SpaceSavingSketch<String>(0));
+    }
+
+    private static <K> Map<K, Long> counts(SpaceSavingSketch<K> sketch) {
+        Map<K, Long> counts = new HashMap<>();
+        sketch.forEach((key, counter) -> counts.put(key, counter.getCount()));
+        return counts;
+    }
+}
@@ -0,0 +1,158 @@
+package com.epam.esm.statistics;
+
+import com.epam.esm.certificate.CertificateSnapshot;
+import com.epam.esm.certificate.CertificateStatus;
+import com.epam.esm.order.OrderCreatedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TopSellersServiceTest {
+    TopSellersService topSellersService;
+    MutableClock clock;
+
+    @BeforeEach
+    public void init() {
+        clock = new MutableClock(Instant.parse("2020-07-01T10:00:00Z"));
+        topSellersService = new TopSellersService(Duration.ofMinutes(10), Duration.ofDays(7), 2, clock);
+    }
+
+    @Test
+    public void findTopCertificates_byUnits_shouldOrderByOrderedCount() {
+        //Given
+        order(certificate(1, "10.00", "spa"), certificate(2, "50.00", "cinema"), certificate(1, "10.00", "spa"));
+
+        //When
+        List<TopSellerDto> result = topSellersService.findTopCertificates("1h", TopSellersService.UNITS, 2);
+
+        //Then
+        assertEquals(Arrays.asList(
+                new TopSellerDto(1L, "certificate 1", new BigDecimal("2"), new BigDecimal("0")),
+                new TopSellerDto(2L, "certificate 2", new BigDecimal("1"), new BigDecimal("0"))), result);
+    }
+
+    @Test
+    public void findTopCertificates_byRevenue_shouldOrderByOrderedPrice() {
+        //Given
+        order(certificate(1, "10.00", "spa"), certificate(2, "50.00", "cinema"), certificate(1, "10.00", "spa"));
+
+        //When
+        List<TopSellerDto> result = topSellersService.findTopCertificates("1h", TopSellersService.REVENUE, 1);
+
+        //Then
+        assertEquals(Collections.singletonList(
+                new TopSellerDto(2L, "certificate 2", new BigDecimal("50.00"), new BigDecimal("0.00"))), result);
+    }
+
+    @Test
+    public void findTopTags_ordersOutsideWindow_shouldNotBeCounted() {
+        //Given
+        order(certificate(1, "10.00", "spa"), certificate(1, "10.00", "spa"));
+        clock.advance(Duration.ofHours(2));
+        order(certificate(2, "50.00", "cinema"));
+
+        //When
+        List<TopSellerDto> lastHour = topSellersService.findTopTags("1h", 2);
+        List<TopSellerDto> lastDay = topSellersService.findTopTags("24h", 2);
+
+        //Then
+        assertEquals(Collections.singletonList(
+                new TopSellerDto(null, "cinema", new BigDecimal("1"), new BigDecimal("0"))), lastHour);
+        assertEquals("spa", lastDay.get(0).getName());
+        assertEquals(new BigDecimal("2"), lastDay.get(0).getValue());
+    }
+
+    @Test
+    public void findTopTags_ordersOlderThanRetention_shouldBeDropped() {
+        //Given
+        order(certificate(1, "10.00", "spa"));
+        clock.advance(Duration.ofDays(7));
+        order(certificate(2, "50.00", "cinema"));
+
+        //When
+        List<TopSellerDto> result = topSellersService.findTopTags("7d", 2);
+
+        //Then
+        assertEquals(1, result.size());
+        assertEquals("cinema", result.get(0).getName());
+    }
+
+    @Test
+    public void findTopTags_fullSketches_shouldReportError() {
+        //Given
+        order(certificate(1, "10.00", "a", "b", "c"));
+        clock.advance(Duration.ofMinutes(10));
+        order(certificate(1, "10.00", "a"), certificate(1, "10.00", "a"));
+
+        //When
+        List<TopSellerDto> result = topSellersService.findTopTags("1h", 1);
+
+        //Then
+        assertEquals("a", result.get(0).getName());
+        assertTrue(result.get(0).getValue().subtract(result.get(0).getError())
+                .compareTo(new BigDecimal("3")) <= 0);
+        assertTrue(result.get(0).getValue().add(result.get(0).getError())
+                .compareTo(new BigDecimal("3")) >= 0);
+    }
+
+    @Test
+    public void findTopCertificates_wrongParams_shouldThrowException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> topSellersService.findTopCertificates("8d", TopSellersService.UNITS, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> topSellersService.findTopCertificates("1h", "price", 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> topSellersService.findTopCertificates("1h", TopSellersService.UNITS, 3));
+        assertThrows(IllegalArgumentException.class,
+                () -> topSellersService.findTopCertificates("hour", TopSellersService.UNITS, 1));
+    }
+
+    private void order(CertificateSnapshot... certificates) {
+        topSellersService.onOrderCreated(new OrderCreatedEvent(1, 1, Arrays.asList(certificates)));
+    }
+
+    private static CertificateSnapshot certificate(long id, String price, String... tags) {
+        return new CertificateSnapshot(id, "certificate " + id, "description", new BigDecimal(price),
+                null, null, 5, CertificateStatus.ACTIVE, Arrays.asList(tags));
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        private void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -1,7 +1,11 @@
 package com.epam.esm.tag;
 
+import com.epam.esm.pagination.CountCache;
 import com.epam.esm.certificate.CertificateDao;
 import com.epam.esm.certificate.CertificateNotFoundException;
+import com.epam.esm.certificate.CertificateSearchCache;
+import com.epam.esm.pagination.SlicedModel;
+import com.epam.esm.statistics.PurchaseStatisticsService;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -9,15 +13,18 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.Spy;
-import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.hateoas.PagedModel;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Optional;
+import java.util.function.LongSupplier;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.notNull;
 import static org.mockito.Mockito.*;
 
@@ -28,11 +35,21 @@ public class TagServiceTest {
     TagDao tagDao;
     @Mock
     CertificateDao certificateDao;
+    @Mock
+    CountCache countCache;
+    @Mock
+    CertificateSearchCache certificateSearchCache;
+    @Mock
+    PurchaseStatisticsService purchaseStatisticsService;
+    @Mock
+    ApplicationEventPublisher eventPublisher;
     @Spy
-    ModelMapper modelMapper;
+    TagDtoMapper tagDtoMapper;
     @BeforeEach
     public void init() {
         MockitoAnnotations.initMocks(this);
+        doAnswer(invocation -> ((LongSupplier) invocation.getArgument(2)).getAsLong())
+                .when(countCache).get(any(), any(), any());
     }
 
     @Test
@@ -84,15 +101,19 @@ public class TagServiceTest {
     @Test
     public void delete_existentTag_shouldCallDaoDelete() {
         //Given
-        doAnswer(invocation -> Optional.of(new Tag()))
+        doAnswer(invocation -> Optional.of(new Tag("spa")))
                 .when(tagDao).find(anyLong());
         long idForDelete = 1;
+        LocalDateTime modificationDate = LocalDateTime.now();
+        doReturn(modificationDate).when(certificateDao).touchCertificatesByTagId(idForDelete);
 
         //When
         tagService.delete(idForDelete);
 
         //Then
         verify(tagDao, times(1)).delete(notNull());
+        verify(certificateDao, times(1)).touchCertificatesByTagId(idForDelete);
+        verify(eventPublisher, times(1)).publishEvent(new TagDeletedEvent(idForDelete, "spa", modificationDate));
     }
 
     @Test
@@ -144,6 +165,21 @@ public class TagServiceTest {
         assertEquals(expected, model.getMetadata());
     }
 
+    @Test
+    public void findTags_withoutCount_shouldReadOneMoreTagInsteadOfCounting() {
+        //Given
+        doReturn(Arrays.asList(new Tag("first"), new Tag("second"), new Tag("third")))
+                .when(tagDao).findTags(1, 2, 3);
+
+        //When
+        PagedModel<TagDto> model = tagService.findTags(1, 2, false);
+
+        //Then
+        assertEquals(2, model.getContent().size());
+        assertTrue(((SlicedModel<TagDto>) model).hasNext());
+        verify(tagDao, never()).getCountOfTags();
+    }
+
     @Test
     public void findTagsByCertificateId_nonexistentId_shouldThrowException() {
         //Given
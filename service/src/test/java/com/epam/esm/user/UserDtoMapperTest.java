@@ -0,0 +1,50 @@
+package com.epam.esm.user;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class UserDtoMapperTest {
+    PasswordEncoder passwordEncoder;
+    UserDtoMapper userDtoMapper;
+
+    @BeforeEach
+    public void init() {
+        passwordEncoder = new BCryptPasswordEncoder();
+        userDtoMapper = new UserDtoMapper(passwordEncoder);
+    }
+
+    @Test
+    public void toDto_userWithPassword_shouldSkipPassword() {
+        //Given
+        User user = new User(1, "first", "last", "login", "encoded", Role.ROLE_ADMIN, null);
+
+        //When
+        UserDto userDto = userDtoMapper.toDto(user);
+
+        //Then
+        assertEquals(1, userDto.getId());
+        assertEquals("login", userDto.getLogin());
+        assertNull(userDto.getPassword());
+    }
+
+    @Test
+    public void toEntity_userDtoWithPassword_shouldEncodePasswordAndSetUserRole() {
+        //Given
+        UserDto userDto = new UserDto("first", "last", "login");
+        userDto.setPassword("password");
+
+        //When
+        User user = userDtoMapper.toEntity(userDto);
+
+        //Then
+        assertTrue(passwordEncoder.matches("password", user.getPassword()));
+        assertEquals(Role.ROLE_USER, user.getRole());
+        assertNull(user.getOrders());
+    }
+}
@@ -1,5 +1,7 @@
 package com.epam.esm.user;
 
+import com.epam.esm.jwt.JwtUserDetailsService;
+import com.epam.esm.pagination.CountCache;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -7,9 +9,10 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.Spy;
-import org.modelmapper.ModelMapper;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 import java.util.Optional;
+import java.util.function.LongSupplier;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
@@ -20,12 +23,18 @@ public class UserServiceTest {
     UserService userService;
     @Mock
     UserDao userDao;
+    @Mock
+    CountCache countCache;
+    @Mock
+    JwtUserDetailsService userDetailsService;
     @Spy
-    ModelMapper modelMapper;
+    UserDtoMapper userDtoMapper = new UserDtoMapper(new BCryptPasswordEncoder());
 
     @BeforeEach
     public void init() {
         MockitoAnnotations.initMocks(this);
+        doAnswer(invocation -> ((LongSupplier) invocation.getArgument(2)).getAsLong())
+                .when(countCache).get(any(), any(), any());
     }
 
     @Test
@@ -88,6 +97,22 @@ public class UserServiceTest {
         verify(userDao, times(1)).update(notNull());
     }
 
+    @Test
+    public void update_changedLogin_shouldEvictOldAndNewLogin() {
+        //Given
+        User user = new User();
+        user.setLogin("old login");
+        doAnswer(invocation -> Optional.of(user)).when(userDao).find(anyLong());
+        UserDto userDto = new UserDto("name", "lastName", "new login");
+
+        //When
+        userService.update(userDto, 1L);
+
+        //Then
+        verify(userDetailsService, times(1)).evict("old login");
+        verify(userDetailsService, times(1)).evict("new login");
+    }
+
     @Test
     public void find_nonexistentId_shouldThrowException() {
         //Given
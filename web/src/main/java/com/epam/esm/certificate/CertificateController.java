@@ -1,19 +1,36 @@
 package com.epam.esm.certificate;
 
+import com.epam.esm.http.ConditionalGet;
 import com.epam.esm.tag.TagHateoasUtil;
 import com.epam.esm.tag.Tag;
 import com.epam.esm.tag.TagDto;
 import com.epam.esm.tag.TagService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.annotation.Secured;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Class CertificateController for Rest Api Basics Task.
@@ -23,8 +40,10 @@ import javax.validation.constraints.Min;
  */
 @Validated
 @RestController
-@RequestMapping(value = "/api/v1/certificates")
+@RequestMapping(value = CertificateLinks.CERTIFICATES)
 public class CertificateController {
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String CSV = "text/csv";
 
     /**
      * Field certificateService
@@ -44,15 +63,39 @@ public class CertificateController {
 
     private final TagHateoasUtil tagHateoasUtil;
 
+    private final CertificateImportService certificateImportService;
+
+    private final CertificateExportService certificateExportService;
+
+    private final CertificateChangeService certificateChangeService;
+
+    private final ConditionalGet conditionalGet;
+
+    private final CertificateResponseCache certificateResponseCache;
+
+    private final ObjectWriter importResultWriter;
+
     @Autowired
     public CertificateController(CertificateService certificateService,
                                  TagService tagService,
                                  CertificateHateoasUtil certificateHateoasUtil,
-                                 TagHateoasUtil tagHateoasUtil) {
+                                 TagHateoasUtil tagHateoasUtil,
+                                 CertificateImportService certificateImportService,
+                                 CertificateExportService certificateExportService,
+                                 CertificateChangeService certificateChangeService,
+                                 ConditionalGet conditionalGet,
+                                 CertificateResponseCache certificateResponseCache,
+                                 ObjectMapper objectMapper) {
         this.certificateService = certificateService;
         this.tagService = tagService;
         this.certificateHateoasUtil = certificateHateoasUtil;
         this.tagHateoasUtil = tagHateoasUtil;
+        this.certificateImportService = certificateImportService;
+        this.certificateExportService = certificateExportService;
+        this.certificateChangeService = certificateChangeService;
+        this.conditionalGet = conditionalGet;
+        this.certificateResponseCache = certificateResponseCache;
+        this.importResultWriter = objectMapper.writerFor(CertificateImportResult.class);
     }
 
     /**
@@ -66,14 +109,19 @@ public class CertificateController {
      *
      * @param t        represents tag's name, connected with certificate
      * @param textPart represents part of full certificate's description
-     * @param orderBy  represents field name for ordering by
-     * @return list of certificatesDto objects, which match to all request params
+     * @param orderBy  represents field name for ordering by, "relevance" orders by text search rank<br>
+     *                 when certificate.search.text-mode is FULL_TEXT
+     * @param withCount false skips counting the results, the page has no page metadata and no "last" link
+     * @param after    cursor from the "next" link of the previous page, switches to keyset pagination:<br>
+     *                 page is ignored, the result isn't counted and has no page metadata.<br>
+     *                 Empty value requests the first page
+     * @return list of certificatesDto objects, which match to all request params,<br>
+     * 304 without body when If-None-Match has the ETag of the page
      * @see CertificateDto
      * @see Certificate
      */
     @GetMapping
-    @ResponseStatus(HttpStatus.OK)
-    public PagedModel<CertificateDto> findCertificates(@RequestParam(name = "tagNames", required = false)
+    public ResponseEntity<PagedModel<CertificateDto>> findCertificates(@RequestParam(name = "tagNames", required = false)
                                                                String[] tagNames,
                                                        @RequestParam(name = "textPart", required = false)
                                                                String textPart,
@@ -84,12 +132,24 @@ public class CertificateController {
                                                                Integer page,
                                                        @RequestParam(name = "perPage", required = false, defaultValue = "50")
                                                        @Min(value = 1, message = "perPage param must be greater or equal to 1")
-                                                               Integer perPage
+                                                               Integer perPage,
+                                                       @RequestParam(name = "withCount", required = false, defaultValue = "true")
+                                                               Boolean withCount,
+                                                       @RequestParam(name = "after", required = false)
+                                                               String after,
+                                                       HttpServletRequest request
     ) {
-        PagedModel<CertificateDto> pagedModel = certificateService.findCertificates(tagNames, textPart,
-                orderBy, page, perPage);
-        certificateHateoasUtil.createPaginationLinks(pagedModel, tagNames, textPart, orderBy);
-        return pagedModel;
+        PagedModel<CertificateDto> pagedModel;
+        if (after != null) {
+            pagedModel = certificateService.findCertificates(tagNames, textPart, orderBy, after, perPage);
+        } else {
+            pagedModel = certificateService.findCertificates(tagNames, textPart, orderBy, page, perPage,
+                    withCount);
+        }
+        return conditionalGet.catalog(request, CertificateETags.page(pagedModel), () -> {
+            certificateHateoasUtil.createPaginationLinks(pagedModel, tagNames, textPart, orderBy, after);
+            return pagedModel;
+        });
     }
 
     /**
@@ -113,6 +173,106 @@ public class CertificateController {
         return certificateHateoasUtil.createSelfRelLink(certificateDto);
     }
 
+    /**
+     * POST method, which creates certificates from NDJSON, one certificate object per line.<br>
+     * <p>
+     * [POST api/v1/certificates/import]<br>
+     * Request (application/x-ndjson).<br>
+     * Response 200 (application/x-ndjson).
+     * </p>
+     * Lines are imported in chunks, the result of every line is written as soon as its chunk is done,
+     * so a failed line doesn't stop the import.
+     *
+     * @param certificates request body with certificate objects like in POST api/v1/certificates/
+     * @see CertificateImportResult
+     */
+    @PostMapping(value = "/import", consumes = NDJSON)
+    @ResponseStatus(HttpStatus.OK)
+    @Secured("ROLE_ADMIN")
+    public void importCertificates(InputStream certificates, HttpServletResponse response) throws IOException {
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        Writer writer = response.getWriter();
+        certificateImportService.importCertificates(new InputStreamReader(certificates, StandardCharsets.UTF_8),
+                results -> {
+                    try {
+                        for (CertificateImportResult result : results) {
+                            writer.write(importResultWriter.writeValueAsString(result));
+                            writer.write('\n');
+                        }
+                        writer.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    /**
+     * GET method, which streams all certificates with their tags in id order.<br>
+     * <p>
+     * [GET api/v1/certificates/export?format=ndjson&amp;gzip=false]<br>
+     * Response 200 (application/x-ndjson or text/csv).
+     * </p>
+     * Certificates are written while they are read, use it instead of paging through the whole catalog.
+     *
+     * @param format "ndjson" for one certificate object per line or "csv" with a header line<br>
+     *               and tag names separated by "|"
+     * @param gzip   true compresses the response with Content-Encoding gzip
+     * @return response body written after the handler returns
+     * @see CertificateDto
+     */
+    @GetMapping(value = "/export")
+    @Secured({"ROLE_USER", "ROLE_ADMIN"})
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(name = "format", required = false,
+            defaultValue = "ndjson") String format,
+                                                        @RequestParam(name = "gzip", required = false,
+                                                                defaultValue = "false") Boolean gzip) {
+        CertificateExportService.Format exportFormat = CertificateExportService.Format.find(format)
+                .orElseThrow(() -> new IllegalArgumentException("Export format must be ndjson or csv"));
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat == CertificateExportService.Format.CSV
+                        ? CSV + ";charset=UTF-8" : NDJSON + ";charset=UTF-8"));
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(output -> {
+            if (gzip) {
+                GZIPOutputStream gzipOutput = new GZIPOutputStream(output, true);
+                certificateExportService.export(exportFormat, gzipOutput);
+                gzipOutput.finish();
+            } else {
+                certificateExportService.export(exportFormat, output);
+            }
+        });
+    }
+
+    /**
+     * GET method, which returns certificates created, updated, deactivated or deleted after the cursor.<br>
+     * <p>
+     * [GET api/v1/certificates/changes?since=cursor&amp;limit=100]<br>
+     * Request (application/json).<br>
+     * Response 200 (application/json).
+     * </p>
+     * Changes go in the order they were made, a certificate changed several times is returned once<br>
+     * with its current state. Start without since, then pass the returned next cursor.
+     *
+     * @param since cursor from the previous response, empty to read from the first change
+     * @param limit max number of changes
+     * @return changes with the cursor of the last one
+     * @see CertificateChangesDto
+     */
+    @GetMapping(value = "/changes")
+    @ResponseStatus(HttpStatus.OK)
+    @Secured({"ROLE_USER", "ROLE_ADMIN"})
+    public CertificateChangesDto findChanges(@RequestParam(name = "since", required = false) String since,
+                                             @RequestParam(name = "limit", required = false, defaultValue = "100")
+                                             @Min(value = 1, message = "limit must be greater or equal to 1")
+                                             @Max(value = CertificateChangeService.MAX_LIMIT,
+                                                     message = "limit must be less or equal to 1000")
+                                                     Integer limit) {
+        return certificateChangeService.findChanges(since, limit);
+    }
+
     /**
      * PUT method, used to update existent certificate object<br>
      * and all it's tags.<br>
@@ -152,13 +312,15 @@ public class CertificateController {
      *
      * @param id represents id of the certificate.
      * @return certificateDto object, which contain all certificate<br>
-     * information and list of it's tags.
+     * information and list of it's tags, 304 without body when If-None-Match has its ETag.<br>
+     * The body is served from {@link CertificateResponseCache}, gzip compressed if the client accepts it.
      * @see CertificateDto
      */
     @GetMapping(value = "/{id}")
-    @ResponseStatus(HttpStatus.OK)
-    public CertificateDto findById(@PathVariable("id") long id) {
-        return certificateHateoasUtil.createSelfRelLink(certificateService.find(id));
+    public ResponseEntity<byte[]> findById(@PathVariable("id") long id, HttpServletRequest request) {
+        CertificateResponseCache.CachedResponse response = certificateResponseCache.get(id, request,
+                () -> certificateHateoasUtil.createSelfRelLink(certificateService.find(id)));
+        return conditionalGet.catalog(request, response.getETag(), response.getHeaders(), response::getBody);
     }
 
     /**
@@ -0,0 +1,192 @@
+package com.epam.esm.certificate;
+
+import com.epam.esm.http.LinkTemplate;
+import com.epam.esm.tag.TagDeletedEvent;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialized bodies of GET /api/v1/certificates/{id}, so a hit is answered without reading the certificate,
+ * mapping it, building its links or serializing it.
+ * <p>
+ * A body is kept per certificate id and representation: media type, gzip encoding and the base url
+ * of its links. It is written by the same message converter MVC would use. A missing body is loaded once
+ * by the first caller, concurrent callers wait for it. Bodies of a certificate are dropped after
+ * a {@link CertificateChangedEvent} commits, all bodies after a {@link TagDeletedEvent}; a load that
+ * was running at that time is dropped with them. Least recently used bodies are evicted above
+ * certificate.response-cache.maximum-bytes. Hit and miss statistics are published as the
+ * "certificate-responses" cache metrics.
+ * </p>
+ */
+@Component
+public class CertificateResponseCache {
+    private static final String GZIP = "gzip";
+
+    private final AsyncCache<ResponseKey, CachedResponse> responses;
+    private final RequestMappingHandlerAdapter handlerAdapter;
+
+    @Autowired
+    public CertificateResponseCache(MeterRegistry meterRegistry,
+                                    RequestMappingHandlerAdapter handlerAdapter,
+                                    @Value("${certificate.response-cache.ttl:10m}") Duration ttl,
+                                    @Value("${certificate.response-cache.maximum-bytes:67108864}") long maximumBytes) {
+        this.handlerAdapter = handlerAdapter;
+        this.responses = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumWeight(maximumBytes)
+                .weigher((ResponseKey key, CachedResponse response) -> response.body.length)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, "certificate-responses");
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static class ResponseKey {
+        private final long id;
+        private final MediaType mediaType;
+        private final boolean gzip;
+        private final String baseUrl;
+    }
+
+    @AllArgsConstructor
+    @Getter
+    public static class CachedResponse {
+        private final byte[] body;
+        private final String eTag;
+        /**
+         * Content type and encoding of the body, to be sent with it.
+         */
+        private final HttpHeaders headers;
+    }
+
+    private static class BodyOutputMessage implements HttpOutputMessage {
+        private final HttpHeaders headers = new HttpHeaders();
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+
+    /**
+     * @param certificate loads the certificate with its links, called on a miss
+     */
+    public CachedResponse get(long id, HttpServletRequest request, Supplier<CertificateDto> certificate) {
+        ResponseKey key = new ResponseKey(id, mediaType(request), acceptsGzip(request), LinkTemplate.baseUri());
+        CompletableFuture<CachedResponse> load = new CompletableFuture<>();
+        CompletableFuture<CachedResponse> cached = responses.get(key, (responseKey, executor) -> load);
+        if (cached == load) {
+            try {
+                load.complete(serialize(key, certificate.get()));
+            } catch (RuntimeException e) {
+                load.completeExceptionally(e);
+                throw e;
+            }
+        }
+        return join(cached);
+    }
+
+    @TransactionalEventListener
+    public void onCertificateChanged(CertificateChangedEvent event) {
+        long id = event.getCertificate().getId();
+        responses.asMap().keySet().removeIf(key -> key.id == id);
+    }
+
+    @TransactionalEventListener
+    public void onTagDeleted(TagDeletedEvent event) {
+        responses.asMap().clear();
+    }
+
+    private static MediaType mediaType(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        return CertificateETags.mediaType(accept == null
+                ? Collections.emptyList()
+                : MediaType.parseMediaTypes(accept));
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        for (String header : Collections.list(request.getHeaders(HttpHeaders.ACCEPT_ENCODING))) {
+            for (String coding : header.split(",")) {
+                String[] parts = coding.trim().split(";");
+                if (parts[0].trim().equalsIgnoreCase(GZIP)
+                        && !(parts.length > 1 && parts[1].replace(" ", "").matches("q=0(\\.0*)?"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private CachedResponse serialize(ResponseKey key, CertificateDto certificate) {
+        HttpMessageConverter<Object> converter = (HttpMessageConverter<Object>) handlerAdapter
+                .getMessageConverters()
+                .stream()
+                .filter(candidate -> candidate.canWrite(CertificateDto.class, key.mediaType))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No converter writes " + key.mediaType));
+        BodyOutputMessage message = new BodyOutputMessage();
+        try {
+            converter.write(certificate, key.mediaType, message);
+            byte[] body = message.body.toByteArray();
+            if (key.gzip) {
+                ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length);
+                try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                    gzip.write(body);
+                }
+                body = compressed.toByteArray();
+                message.headers.set(HttpHeaders.CONTENT_ENCODING, GZIP);
+            }
+            message.headers.setVary(Arrays.asList(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING));
+            String eTag = CertificateETags.certificate(certificate, key.mediaType, key.gzip);
+            return new CachedResponse(body, eTag, HttpHeaders.readOnlyHttpHeaders(message.headers));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static CachedResponse join(CompletableFuture<CachedResponse> response) {
+        try {
+            return response.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
@@ -5,9 +5,9 @@ import com.epam.esm.certificate.CertificateNotFoundException;
 import com.epam.esm.exception.ServiceConflictException;
 import com.epam.esm.order.OrderConflictException;
 import com.epam.esm.order.OrderNotFoundException;
+import com.epam.esm.pagination.CountTimeoutException;
 import com.epam.esm.tag.TagNotFoundException;
 import com.epam.esm.user.UserNotFoundException;
-import org.modelmapper.MappingException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -40,17 +40,6 @@ public class GlobalControllerExceptionHandler {
         return error;
     }
 
-    @ResponseStatus(HttpStatus.BAD_REQUEST)
-    @ExceptionHandler(MappingException.class)
-    public ErrorResponse handleMappingException(MappingException ex) {
-        ErrorResponse error = new ErrorResponse();
-        error.setTimestamp(LocalDateTime.now());
-        error.setStatus(HttpStatus.BAD_REQUEST.value());
-        error.setError(HttpStatus.BAD_REQUEST.toString());
-        error.setMessage(ex.getCause().getMessage());
-        return error;
-    }
-
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public Map<String, String> handleValidationExceptions(
@@ -133,6 +122,17 @@ public class GlobalControllerExceptionHandler {
         return error;
     }
 
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    @ExceptionHandler(CountTimeoutException.class)
+    public ErrorResponse handleCountTimeoutException(CountTimeoutException ex) {
+        ErrorResponse error = new ErrorResponse();
+        error.setTimestamp(LocalDateTime.now());
+        error.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        error.setError(HttpStatus.SERVICE_UNAVAILABLE.toString());
+        error.setMessage(ex.getMessage());
+        return error;
+    }
+
     @ResponseStatus(HttpStatus.UNAUTHORIZED)
     @ExceptionHandler(BadCredentialsException.class)
     public ErrorResponse handleBadCredentialsException(BadCredentialsException ex) {
@@ -0,0 +1,86 @@
+package com.epam.esm.http;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import javax.servlet.http.HttpServletRequest;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.function.Supplier;
+
+/**
+ * Conditional GET with strong ETags: a request whose If-None-Match has the current ETag gets 304
+ * without the body being built, so mapping, links and serialization are skipped. ETags are made by {@link ETags}.
+ * <p>
+ * Public catalog responses may be stored by shared caches for http.cache-control.catalog-max-age,
+ * responses for authenticated users only by the client, which revalidates them every time.
+ * </p>
+ */
+@Component
+public class ConditionalGet {
+    private static final String ANY = "*";
+    private static final String WEAK_PREFIX = "W/";
+
+    private final CacheControl catalogCacheControl;
+    private final CacheControl privateCacheControl = CacheControl.noCache().cachePrivate();
+
+    @Autowired
+    public ConditionalGet(@Value("${http.cache-control.catalog-max-age:30s}") Duration catalogMaxAge) {
+        this.catalogCacheControl = CacheControl.maxAge(catalogMaxAge).cachePublic();
+    }
+
+    public <T> ResponseEntity<T> catalog(HttpServletRequest request, String eTag, Supplier<T> body) {
+        return respond(request, eTag, catalogCacheControl, HttpHeaders.EMPTY, body);
+    }
+
+    /**
+     * @param headers sent with the body, like its content type and encoding
+     */
+    public <T> ResponseEntity<T> catalog(HttpServletRequest request, String eTag, HttpHeaders headers,
+                                         Supplier<T> body) {
+        return respond(request, eTag, catalogCacheControl, headers, body);
+    }
+
+    public <T> ResponseEntity<T> personal(HttpServletRequest request, String eTag, Supplier<T> body) {
+        return respond(request, eTag, privateCacheControl, HttpHeaders.EMPTY, body);
+    }
+
+    private static <T> ResponseEntity<T> respond(HttpServletRequest request, String eTag, CacheControl cacheControl,
+                                                 HttpHeaders headers, Supplier<T> body) {
+        if (matches(request, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(eTag)
+                    .cacheControl(cacheControl)
+                    .varyBy(headers.getVary().toArray(new String[0]))
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .headers(headers)
+                .eTag(eTag)
+                .cacheControl(cacheControl)
+                .body(body.get());
+    }
+
+    /**
+     * If-None-Match uses the weak comparison, so W/ prefixes added by proxies are ignored.
+     */
+    private static boolean matches(HttpServletRequest request, String eTag) {
+        for (String header : Collections.list(request.getHeaders(HttpHeaders.IF_NONE_MATCH))) {
+            for (String candidate : header.split(",")) {
+                String value = candidate.trim();
+                if (value.startsWith(WEAK_PREFIX)) {
+                    value = value.substring(WEAK_PREFIX.length());
+                }
+                if (value.equals(ANY) || value.equals(eTag)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
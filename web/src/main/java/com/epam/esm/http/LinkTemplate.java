@@ -0,0 +1,178 @@
+package com.epam.esm.http;
+
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Path of a controller method, read from its mapping annotations once and filled by string building,
+ * instead of a link builder proxy invocation per link.
+ * <p>
+ * Links start with the base URI of the current request, which is resolved once per request,
+ * or with the path alone outside of a request, like links of the HATEOAS link builder. Path variables
+ * and query parameters are encoded the same way as by an expanded link of the HATEOAS link builder.
+ * </p>
+ */
+public final class LinkTemplate {
+    private static final String BASE_URI_ATTRIBUTE = LinkTemplate.class.getName() + ".BASE_URI";
+
+    /**
+     * Literal parts of the path, one more than the variables between them.
+     */
+    private final String[] literals;
+    private final String path;
+
+    private LinkTemplate(String path) {
+        this.path = path;
+        List<String> parts = new ArrayList<>();
+        int start = 0;
+        int open = path.indexOf('{');
+        while (open >= 0) {
+            parts.add(path.substring(start, open));
+            start = path.indexOf('}', open) + 1;
+            if (start == 0) {
+                throw new IllegalArgumentException("Unclosed path variable in " + path);
+            }
+            open = path.indexOf('{', start);
+        }
+        parts.add(path.substring(start));
+        this.literals = parts.toArray(new String[0]);
+    }
+
+    /**
+     * @param methodName name of a request handling method of the controller, which must not be overloaded
+     */
+    public static LinkTemplate of(Class<?> controller, String methodName) {
+        List<Method> methods = Arrays.stream(controller.getMethods())
+                .filter(method -> method.getName().equals(methodName))
+                .collect(Collectors.toList());
+        if (methods.size() != 1) {
+            throw new IllegalArgumentException(controller.getName() + " must have one method " + methodName);
+        }
+        RequestMapping methodMapping = AnnotatedElementUtils.findMergedAnnotation(methods.get(0),
+                RequestMapping.class);
+        if (methodMapping == null) {
+            throw new IllegalArgumentException(controller.getName() + "." + methodName + " is not a handler");
+        }
+        RequestMapping controllerMapping = AnnotatedElementUtils.findMergedAnnotation(controller,
+                RequestMapping.class);
+        String controllerPath = controllerMapping == null ? "" : firstPath(controllerMapping);
+        String methodPath = firstPath(methodMapping);
+        if (!methodPath.isEmpty() && !methodPath.startsWith("/") && !controllerPath.endsWith("/")) {
+            methodPath = "/" + methodPath;
+        }
+        return new LinkTemplate(controllerPath + methodPath);
+    }
+
+    private static String firstPath(RequestMapping mapping) {
+        return mapping.path().length == 0 ? "" : mapping.path()[0];
+    }
+
+    /**
+     * @return scheme, host, port and context path of the current request, empty outside of a request
+     */
+    public static String baseUri() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return "";
+        }
+        String baseUri = (String) attributes.getAttribute(BASE_URI_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (baseUri == null) {
+            baseUri = ServletUriComponentsBuilder.fromCurrentServletMapping().build().toUriString();
+            attributes.setAttribute(BASE_URI_ATTRIBUTE, baseUri, RequestAttributes.SCOPE_REQUEST);
+        }
+        return baseUri;
+    }
+
+    /**
+     * @param pathVariables values of the path variables in the order they appear in the path
+     */
+    public Href expand(Object... pathVariables) {
+        if (pathVariables.length != literals.length - 1) {
+            throw new IllegalArgumentException(path + " takes " + (literals.length - 1) + " path variables");
+        }
+        StringBuilder href = new StringBuilder(128).append(baseUri()).append(literals[0]);
+        for (int i = 0; i < pathVariables.length; i++) {
+            href.append(UriUtils.encodePathSegment(String.valueOf(pathVariables[i]), StandardCharsets.UTF_8))
+                    .append(literals[i + 1]);
+        }
+        return new Href(href);
+    }
+
+    @Override
+    public String toString() {
+        return path;
+    }
+
+    /**
+     * Link being built, query parameters are added in the order of the calls.
+     */
+    public static final class Href {
+        private final StringBuilder href;
+        private boolean hasQuery;
+
+        private Href(StringBuilder href) {
+            this.href = href;
+        }
+
+        /**
+         * Adds a query parameter unless the value is null, array elements are joined by commas.
+         */
+        public Href param(String name, Object value) {
+            if (value == null) {
+                return this;
+            }
+            href.append(hasQuery ? '&' : '?').append(name).append('=');
+            hasQuery = true;
+            if (value instanceof Object[]) {
+                Object[] values = (Object[]) value;
+                for (int i = 0; i < values.length; i++) {
+                    if (i > 0) {
+                        href.append(',');
+                    }
+                    appendEncoded(values[i]);
+                }
+            } else {
+                appendEncoded(value);
+            }
+            return this;
+        }
+
+        /**
+         * Adds query parameters left for the client to fill as a URI template variable.
+         */
+        public Href template(String... names) {
+            href.append('{').append(hasQuery ? '&' : '?').append(String.join(",", names)).append('}');
+            return this;
+        }
+
+        private void appendEncoded(Object value) {
+            href.append(UriUtils.encodeQueryParam(String.valueOf(value), StandardCharsets.UTF_8));
+        }
+
+        public Link withRel(String rel) {
+            return Link.of(href.toString(), rel);
+        }
+
+        public Link withSelfRel() {
+            return Link.of(href.toString(), IanaLinkRelations.SELF);
+        }
+
+        @Override
+        public String toString() {
+            return href.toString();
+        }
+    }
+}
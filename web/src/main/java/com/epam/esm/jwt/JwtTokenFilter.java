@@ -25,16 +25,9 @@ public class JwtTokenFilter extends GenericFilterBean {
             throws IOException, ServletException {
         try {
             String token = jwtTokenProvider.resolveToken((HttpServletRequest) req);
-            if (token != null && jwtTokenProvider.validateToken(token)) {
+            if (token != null) {
                 Authentication auth = jwtTokenProvider.getAuthentication(token);
-                if (auth != null) {
-                    SecurityContextHolder.getContext().setAuthentication(auth);
-                }
-            } else {
-                if (token != null) {
-                    processAuthenticationError((HttpServletResponse) res, "Invalid token");
-                    return;
-                }
+                SecurityContextHolder.getContext().setAuthentication(auth);
             }
             filterChain.doFilter(req, res);
         } catch (JwtAuthenticationException e) {
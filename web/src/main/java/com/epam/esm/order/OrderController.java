@@ -41,10 +41,19 @@ public class OrderController {
                                               @RequestParam(name = "perPage", required = false, defaultValue = "50")
                                               @Min(value = 1, message = "perPage param must be greater or equal to 1")
                                                       Integer perPage,
+                                              @RequestParam(name = "withCount", required = false, defaultValue = "true")
+                                                      Boolean withCount,
+                                              @RequestParam(name = "after", required = false) String after,
+                                              @RequestParam(name = "before", required = false) String before,
                                               Authentication authentication) {
         JwtUser user = (JwtUser)authentication.getPrincipal();
-        PagedModel<OrderDto> model = orderService.findByUserId(user.getId(), page, perPage);
-        orderHateoasUtil.createPaginationLinks(model, authentication);
+        PagedModel<OrderDto> model;
+        if (after != null || before != null) {
+            model = orderService.findByUserId(user.getId(), after, before, perPage);
+        } else {
+            model = orderService.findByUserId(user.getId(), page, perPage, withCount);
+        }
+        orderHateoasUtil.createPaginationLinks(model, after, before, authentication);
         return model;
     }
 
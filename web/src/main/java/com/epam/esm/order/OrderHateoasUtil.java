@@ -1,42 +1,90 @@
 package com.epam.esm.order;
 
+import com.epam.esm.http.LinkTemplate;
+import com.epam.esm.pagination.SlicedModel;
 import org.springframework.hateoas.PagedModel;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
-
 @Component
 public class OrderHateoasUtil {
+    private static final LinkTemplate ORDERS = LinkTemplate.of(OrderController.class, "getUserOrders");
+    private static final LinkTemplate ORDER = LinkTemplate.of(OrderController.class, "getUserOrderById");
 
-    public void createPaginationLinks(PagedModel<OrderDto> model, Authentication authentication) {
+    public void createPaginationLinks(PagedModel<OrderDto> model, String after, String before,
+                                      Authentication authentication) {
+        if (model instanceof SlicedModel) {
+            SlicedModel<OrderDto> slice = (SlicedModel<OrderDto>) model;
+            if (slice.isCursorBased()) {
+                createCursorLinks(slice, after, before, authentication);
+            } else {
+                createSliceLinks(slice, authentication);
+            }
+            return;
+        }
         PagedModel.PageMetadata metadata = model.getMetadata();
         int curPage = (int)metadata.getNumber();
         int size = (int)metadata.getSize();
         int totalPages = (int)metadata.getTotalPages();
         if(curPage < totalPages) {
-            model.add(linkTo(methodOn(OrderController.class)
-                    .getUserOrders(curPage + 1, size, authentication))
+            model.add(orders(curPage + 1, size, null, null, null)
                     .withRel("next"));
-            model.add(linkTo(methodOn(OrderController.class)
-                    .getUserOrders(totalPages, size, authentication))
+            model.add(orders(totalPages, size, null, null, null)
                     .withRel("last"));
         }
         if(curPage > 1) {
-            model.add(linkTo(methodOn(OrderController.class)
-                    .getUserOrders(curPage-1,size, authentication))
+            model.add(orders(curPage - 1, size, null, null, null)
+                    .withRel("prev"));
+        }
+        model.add(orders(curPage, size, null, null, null)
+                .withSelfRel());
+        model.forEach(order-> createSelfRel(order, authentication));
+    }
+
+    private void createCursorLinks(SlicedModel<OrderDto> model, String after, String before,
+                                   Authentication authentication) {
+        int size = model.getSize();
+        if (model.hasNext()) {
+            model.add(orders(null, size, null, model.getNextCursor(), null)
+                    .withRel("next"));
+        }
+        if (model.getPreviousCursor() != null) {
+            model.add(orders(null, size, null, null, model.getPreviousCursor())
                     .withRel("prev"));
         }
-        model.add(linkTo(methodOn(OrderController.class)
-                .getUserOrders(curPage,size, authentication))
+        model.add(orders(null, size, null, after, before)
                 .withSelfRel());
         model.forEach(order-> createSelfRel(order, authentication));
     }
 
+    private void createSliceLinks(SlicedModel<OrderDto> model, Authentication authentication) {
+        int curPage = (int) model.getNumber();
+        int size = model.getSize();
+        if (model.hasNext()) {
+            model.add(orders(curPage + 1, size, false, null, null)
+                    .withRel("next"));
+        }
+        if (curPage > 1) {
+            model.add(orders(curPage - 1, size, false, null, null)
+                    .withRel("prev"));
+        }
+        model.add(orders(curPage, size, false, null, null)
+                .withSelfRel());
+        model.forEach(order-> createSelfRel(order, authentication));
+    }
+
+    private static LinkTemplate.Href orders(Integer page, Integer size, Boolean withCount, String after,
+                                            String before) {
+        return ORDERS.expand()
+                .param("page", page)
+                .param("perPage", size)
+                .param("withCount", withCount)
+                .param("after", after)
+                .param("before", before);
+    }
+
     public OrderDto createSelfRel(OrderDto orderDto,Authentication authentication) {
-        orderDto.add(linkTo(methodOn(OrderController.class)
-                .getUserOrderById(orderDto.getId(), authentication))
+        orderDto.add(ORDER.expand(orderDto.getId())
                 .withSelfRel());
         return orderDto;
     }
@@ -23,6 +23,7 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
     private static final String SIGN_UP_ENDPOINT = "/api/v1/users";
     private static final String FIND_CERTIFICATES_ENDPOINT = "/api/v1/certificates";
     private static final String FIND_CERTIFICATE_BY_ID = "/api/v1/certificates/{\\d+}";
+    private static final String METRICS_ENDPOINT = "/actuator/metrics/**";
 
     private final JwtTokenProvider jwtTokenProvider;
 
@@ -49,6 +50,7 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
                 .antMatchers(HttpMethod.POST, SIGN_UP_ENDPOINT).anonymous()
                 .antMatchers(HttpMethod.GET, FIND_CERTIFICATES_ENDPOINT).permitAll()
                 .antMatchers(HttpMethod.GET, FIND_CERTIFICATE_BY_ID).permitAll()
+                .antMatchers(METRICS_ENDPOINT).hasRole("ADMIN")
                 .anyRequest().fullyAuthenticated()
                 .and()
                 .apply(new JwtConfigurer(jwtTokenProvider))
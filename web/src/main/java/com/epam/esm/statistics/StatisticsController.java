@@ -0,0 +1,71 @@
+package com.epam.esm.statistics;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.annotation.Secured;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Approximate best sellers over sliding windows, counted in memory since the instance started.
+ */
+@Validated
+@RestController
+@RequestMapping(value = "/api/v1/stats")
+public class StatisticsController {
+    private final TopSellersService topSellersService;
+
+    @Autowired
+    public StatisticsController(TopSellersService topSellersService) {
+        this.topSellersService = topSellersService;
+    }
+
+    /**
+     * GET method, which used to get the best selling certificates.<br>
+     * <p>
+     * [GET /api/v1/stats/top-certificates?window=24h&amp;by=units&amp;limit=10]<br>
+     * Request (application/json).<br>
+     * Response 200 (application/json).
+     * </p>
+     *
+     * @param window sliding window like 1h, 24h or 7d.
+     * @param by     "units" or "revenue".
+     * @param limit  number of certificates, at most statistics.top-sellers.capacity.
+     * @return certificates with their estimated units or revenue and its maximum error.
+     */
+    @GetMapping(value = "/top-certificates")
+    @ResponseStatus(HttpStatus.OK)
+    @Secured({"ROLE_USER", "ROLE_ADMIN"})
+    public List<TopSellerDto> findTopCertificates(@RequestParam(name = "window", required = false,
+            defaultValue = "24h") String window,
+                                                  @RequestParam(name = "by", required = false,
+                                                          defaultValue = TopSellersService.UNITS) String by,
+                                                  @RequestParam(name = "limit", required = false,
+                                                          defaultValue = "10") Integer limit) {
+        return topSellersService.findTopCertificates(window, by, limit);
+    }
+
+    /**
+     * GET method, which used to get the most purchased tags.<br>
+     * <p>
+     * [GET /api/v1/stats/top-tags?window=24h&amp;limit=10]<br>
+     * Request (application/json).<br>
+     * Response 200 (application/json).
+     * </p>
+     *
+     * @param window sliding window like 1h, 24h or 7d.
+     * @param limit  number of tags, at most statistics.top-sellers.capacity.
+     * @return tags with their estimated purchases and its maximum error.
+     */
+    @GetMapping(value = "/top-tags")
+    @ResponseStatus(HttpStatus.OK)
+    @Secured({"ROLE_USER", "ROLE_ADMIN"})
+    public List<TopSellerDto> findTopTags(@RequestParam(name = "window", required = false,
+            defaultValue = "24h") String window,
+                                          @RequestParam(name = "limit", required = false,
+                                                  defaultValue = "10") Integer limit) {
+        return topSellersService.findTopTags(window, limit);
+    }
+}
@@ -1,12 +1,16 @@
 package com.epam.esm.tag;
 
+import com.epam.esm.http.ConditionalGet;
+import com.epam.esm.http.ETags;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.hateoas.PagedModel;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.annotation.Secured;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
 
@@ -28,11 +32,15 @@ public class TagController {
 
     private final TagHateoasUtil tagHateoasUtil;
 
+    private final ConditionalGet conditionalGet;
+
     @Autowired
     public TagController(TagService tagService,
-                         TagHateoasUtil tagHateoasUtil) {
+                         TagHateoasUtil tagHateoasUtil,
+                         ConditionalGet conditionalGet) {
         this.tagHateoasUtil = tagHateoasUtil;
         this.tagService = tagService;
+        this.conditionalGet = conditionalGet;
     }
 
     /**
@@ -54,8 +62,10 @@ public class TagController {
                                              Integer page,
                                  @RequestParam(name = "perPage", required = false, defaultValue = "50")
                                      @Min(value = 1, message = "perPage param must be greater or equal to 1")
-                                             Integer perPage) {
-        PagedModel<TagDto> model = tagService.findTags(page, perPage);
+                                             Integer perPage,
+                                 @RequestParam(name = "withCount", required = false, defaultValue = "true")
+                                             Boolean withCount) {
+        PagedModel<TagDto> model = tagService.findTags(page, perPage, withCount);
         model.getContent().forEach(tagHateoasUtil::createSelfRel);
         tagHateoasUtil.createPaginationLinks(model);
         return model;
@@ -87,13 +97,15 @@ public class TagController {
      * Response 200 (application/json).
      * </p>
      * @param id represents id of the tag.
-     * @return tag object.
+     * @return tag object, 304 without body when If-None-Match has its ETag.
      * @see Tag
      */
     @GetMapping(value = "/{id}")
     @Secured({"ROLE_USER","ROLE_ADMIN"})
-    public TagDto findById(@PathVariable("id") long id) {
-        return tagHateoasUtil.createSingleTagLinks(tagService.find(id));
+    public ResponseEntity<TagDto> findById(@PathVariable("id") long id, HttpServletRequest request) {
+        TagDto tag = tagService.find(id);
+        return conditionalGet.personal(request, ETags.of(tag.getId(), tag.getName()),
+                () -> tagHateoasUtil.createSingleTagLinks(tag));
     }
 
     /**
@@ -120,4 +132,19 @@ public class TagController {
         return tagHateoasUtil.createSingleTagLinks(
                 tagService.GetValuedUsersMostPopularTag());
     }
+
+    /**
+     * POST method, which used to recompute the statistics of the most widely used tag from all orders.<br>
+     * <p>
+     * [POST /api/v1/tags/most-widely-tag/rebuild]<br>
+     * Response 204 (application/json).
+     * </p>
+     * The statistics are updated by every order and rebuilt on schedule, this forces a rebuild.
+     */
+    @PostMapping(value = "/most-widely-tag/rebuild")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @Secured("ROLE_ADMIN")
+    public void rebuildMostWidelyTag() {
+        tagService.rebuildPurchaseStatistics();
+    }
 }
@@ -1,60 +1,80 @@
 package com.epam.esm.tag;
 
 import com.epam.esm.certificate.CertificateController;
+import com.epam.esm.http.LinkTemplate;
+import com.epam.esm.pagination.SlicedModel;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.PagedModel;
 import org.springframework.stereotype.Component;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
-
 @Component
 public class TagHateoasUtil {
+    private static final LinkTemplate TAGS = LinkTemplate.of(TagController.class, "findTags");
+    private static final LinkTemplate TAG = LinkTemplate.of(TagController.class, "findById");
+    private static final LinkTemplate CERTIFICATE_TAGS = LinkTemplate.of(CertificateController.class,
+            "findAllCertificateTags");
 
     public void createPaginationLinks(PagedModel<TagDto> model) {
+        if (model instanceof SlicedModel) {
+            createSliceLinks((SlicedModel<TagDto>) model);
+            return;
+        }
         PagedModel.PageMetadata metadata = model.getMetadata();
         int curPage = (int)metadata.getNumber();
         int size = (int)metadata.getSize();
         int totalPages = (int)metadata.getTotalPages();
         if(curPage < totalPages) {
-            model.add(linkTo(methodOn(TagController.class)
-                    .findTags(curPage + 1, size))
+            model.add(tags(curPage + 1, size, null)
                     .withRel("next"));
-            model.add(linkTo(methodOn(TagController.class)
-                    .findTags(totalPages, size))
+            model.add(tags(totalPages, size, null)
                     .withRel("last"));
         }
         if(curPage > 1) {
-            model.add(linkTo(methodOn(TagController.class)
-                    .findTags(curPage-1,size))
+            model.add(tags(curPage - 1, size, null)
                     .withRel("prev"));
         }
-        model.add(linkTo(methodOn(TagController.class)
-                .findTags(curPage,size))
+        model.add(tags(curPage, size, null)
                 .withSelfRel());
     }
 
+    private void createSliceLinks(SlicedModel<TagDto> model) {
+        int curPage = (int) model.getNumber();
+        int size = model.getSize();
+        if (model.hasNext()) {
+            model.add(tags(curPage + 1, size, false)
+                    .withRel("next"));
+        }
+        if (curPage > 1) {
+            model.add(tags(curPage - 1, size, false)
+                    .withRel("prev"));
+        }
+        model.add(tags(curPage, size, false)
+                .withSelfRel());
+    }
+
+    private static LinkTemplate.Href tags(Integer page, Integer size, Boolean withCount) {
+        return TAGS.expand()
+                .param("page", page)
+                .param("perPage", size)
+                .param("withCount", withCount);
+    }
+
     public void createSelfRel(TagDto tagDto) {
-        tagDto.add(linkTo(methodOn(TagController.class)
-                .findById(tagDto.getId()))
+        tagDto.add(TAG.expand(tagDto.getId())
                 .withSelfRel());
     }
 
     public TagDto createSingleTagLinks(TagDto tagDto) {
-        tagDto.add(linkTo(methodOn(TagController.class)
-                .findById(tagDto.getId()))
+        tagDto.add(TAG.expand(tagDto.getId())
                 .withSelfRel());
-        tagDto.add(linkTo(methodOn(TagController.class)
-                .findTags(null,null))
-                .withRel("allTags")
-                .expand());
+        tagDto.add(TAGS.expand()
+                .withRel("allTags"));
         return tagDto;
     }
 
     public void createCertificateTagsLinks(CollectionModel<TagDto> tags, long certificateId) {
         tags.getContent().forEach(this::createSelfRel);
-        tags.add(linkTo(methodOn(CertificateController.class)
-                .findAllCertificateTags(certificateId))
+        tags.add(CERTIFICATE_TAGS.expand(certificateId)
                 .withSelfRel());
     }
 }
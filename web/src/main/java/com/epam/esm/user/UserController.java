@@ -33,8 +33,10 @@ public class UserController {
                                       Integer page,
                                         @RequestParam(name = "perPage", required = false, defaultValue = "50")
                               @Min(value = 1, message = "perPage param must be greater or equal to 1")
-                                      Integer perPage) {
-        PagedModel<UserDto> model =  userService.findUsers(page, perPage);
+                                      Integer perPage,
+                                        @RequestParam(name = "withCount", required = false, defaultValue = "true")
+                                      Boolean withCount) {
+        PagedModel<UserDto> model =  userService.findUsers(page, perPage, withCount);
         userHateoasUtil.createPaginationLinks(model);
         return model;
     }
@@ -1,58 +1,84 @@
 package com.epam.esm.user;
 
+import com.epam.esm.http.LinkTemplate;
 import com.epam.esm.order.OrderController;
+import com.epam.esm.pagination.SlicedModel;
 import org.springframework.hateoas.PagedModel;
 import org.springframework.stereotype.Component;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
-
 @Component
 public class UserHateoasUtil {
+    private static final LinkTemplate USERS = LinkTemplate.of(UserController.class, "findUsers");
+    private static final LinkTemplate USER = LinkTemplate.of(UserController.class, "findById");
+    private static final LinkTemplate USER_ORDERS = LinkTemplate.of(OrderController.class, "getUserOrders");
 
     public void createPaginationLinks(PagedModel<UserDto> model) {
+        if (model instanceof SlicedModel) {
+            createSliceLinks((SlicedModel<UserDto>) model);
+            return;
+        }
         PagedModel.PageMetadata metadata = model.getMetadata();
         int curPage = (int)metadata.getNumber();
         int size = (int)metadata.getSize();
         int totalPages = (int)metadata.getTotalPages();
         if(curPage < totalPages) {
-            model.add(linkTo(methodOn(UserController.class)
-                    .findUsers(curPage + 1, size))
+            model.add(users(curPage + 1, size, null)
                     .withRel("next"));
-            model.add(linkTo(methodOn(UserController.class)
-                    .findUsers(totalPages, size))
+            model.add(users(totalPages, size, null)
                     .withRel("last"));
         }
         if(curPage > 1) {
-            model.add(linkTo(methodOn(UserController.class)
-                    .findUsers(curPage-1,size))
+            model.add(users(curPage - 1, size, null)
+                    .withRel("prev"));
+        }
+        model.add(users(curPage, size, null)
+                .withSelfRel());
+        model.forEach(this::createSelfRel);
+    }
+
+    private void createSliceLinks(SlicedModel<UserDto> model) {
+        int curPage = (int) model.getNumber();
+        int size = model.getSize();
+        if (model.hasNext()) {
+            model.add(users(curPage + 1, size, false)
+                    .withRel("next"));
+        }
+        if (curPage > 1) {
+            model.add(users(curPage - 1, size, false)
                     .withRel("prev"));
         }
-        model.add(linkTo(methodOn(UserController.class)
-                .findUsers(curPage,size))
+        model.add(users(curPage, size, false)
                 .withSelfRel());
         model.forEach(this::createSelfRel);
     }
 
+    private static LinkTemplate.Href users(Integer page, Integer size, Boolean withCount) {
+        return USERS.expand()
+                .param("page", page)
+                .param("perPage", size)
+                .param("withCount", withCount);
+    }
+
+    private static LinkTemplate.Href userOrders() {
+        return USER_ORDERS.expand()
+                .param("page", 1)
+                .param("perPage", 50)
+                .template("withCount", "after", "before");
+    }
+
     public void createSelfRel(UserDto userDto) {
-        userDto.add(linkTo(methodOn(UserController.class)
-                .findById(userDto.getId()))
+        userDto.add(USER.expand(userDto.getId())
                 .withSelfRel());
-        userDto.add(linkTo(methodOn(OrderController.class)
-                .getUserOrders(1,50,null))
+        userDto.add(userOrders()
                 .withRel("userOrders"));
     }
 
     public UserDto createSingleUserLinks(UserDto userDto) {
-        userDto.add(linkTo(methodOn(UserController.class)
-                .findById(userDto.getId()))
+        userDto.add(USER.expand(userDto.getId())
                 .withSelfRel());
-        userDto.add(linkTo(methodOn(UserController.class)
-                .findUsers(null, null))
-                .withRel("allUsers")
-                .expand());
-        userDto.add(linkTo(methodOn(OrderController.class)
-                .getUserOrders(1,50, null))
+        userDto.add(USERS.expand()
+                .withRel("allUsers"));
+        userDto.add(userOrders()
                 .withRel("usersOrders"));
         return userDto;
     }